@@ -0,0 +1,182 @@
+package latmath.benchmark;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import latmath.algorithm.BasicLaterationAlgorithm;
+import latmath.distribution.ExponentialDistribution;
+import latmath.errormodel.ErrorModel;
+import latmath.errormodel.ErrorModelLos;
+import latmath.errormodel.ErrorModelLosNlos;
+import latmath.util.Point2d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of one call to {@code safeLocalize()} of a lateration algorithm.
+ * <p>
+ * Each trial creates a fixed set of scenarios (anchors, actual position and
+ * measured ranges) on a 100 m x 100 m playing field and cycles through
+ * them. Anchor layouts, actual positions and range errors are generated
+ * from a fixed seed, the range errors follow the LOS or LOS+NLOS error
+ * model, so every trial sees exactly the same scenarios.
+ * <p>
+ * Algorithms which enumerate all subsets of the anchors are only run with
+ * up to {@value #MAX_SUBSET_ANCHORS} anchors, see
+ * {@link #isSubsetAlgorithm(String)}.
+ * <p>
+ * The algorithm parameter defaults to a single algorithm, use
+ * {@link LaterationBenchmarkRunner} to run all released algorithms.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LaterationBenchmark {
+
+    /** Number of scenarios per trial (power of two) */
+    public static final int SCENARIOS = 256;
+
+    /** Size of the playing field in meters */
+    public static final int FIELD_SIZE = 100;
+
+    /** Probability of NLOS ranges in the NLOS setting */
+    public static final double P_NLOS = 0.3;
+
+    /** Maximum number of anchors of subset enumerating algorithms */
+    public static final int MAX_SUBSET_ANCHORS = 8;
+
+    /** Names of algorithms with exponential runtime in the number of anchors */
+    private static final Set<String> SUBSET_ALGORITHMS = new HashSet<>(
+            Arrays.asList("RLSM", "RLSM-GEO-N", "Rwgh"));
+
+    /** Maximum range error of both error models in meters */
+    private static final double MAX_ERROR = 30;
+
+    /** Standard deviation of the LOS range error in meters */
+    private static final double SDEV_LOS = 2.3;
+
+    /** Upper bound of lambda of the NLOS range error, lambda = U[0,b] */
+    private static final double LAMBDA_NLOS = 3;
+
+    /** Seed of anchor layouts, actual positions and range errors */
+    private static final long SEED = 4711;
+
+    /** The name of the algorithm, see {@code getName()} */
+    @Param({"LLS"})
+    public String algorithm;
+
+    /** The number of anchors */
+    @Param({"3", "5", "8", "16", "32", "64"})
+    public int anchors;
+
+    /** The error model: LOS or NLOS */
+    @Param({"LOS", "NLOS"})
+    public String noise;
+
+    private BasicLaterationAlgorithm alg;
+    private ErrorModel errorModel;
+    private Point2d[][] anchorSets;
+    private double[][] ranges;
+    /** Copy of the ranges passed to the algorithm, which may modify them */
+    private double[] buffer;
+    private Point2d[] actualPositions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (anchors > MAX_SUBSET_ANCHORS && isSubsetAlgorithm(algorithm)) {
+            throw new IllegalArgumentException(algorithm + " does not finish with "
+                    + anchors + " anchors, at most " + MAX_SUBSET_ANCHORS
+                    + " are supported");
+        }
+        alg = LaterationBenchmarkRunner.createAlgorithm(algorithm);
+        double pNlos;
+        if ("LOS".equals(noise)) {
+            errorModel = new ErrorModelLos(MAX_ERROR, 0, SDEV_LOS);
+            pNlos = 0;
+        } else if ("NLOS".equals(noise)) {
+            errorModel = new ErrorModelLosNlos(MAX_ERROR, 0, SDEV_LOS, 0, LAMBDA_NLOS);
+            pNlos = P_NLOS;
+        } else {
+            throw new IllegalArgumentException("unknown noise setting: " + noise);
+        }
+        Random random = new Random(SEED);
+        anchorSets = new Point2d[SCENARIOS][anchors];
+        ranges = new double[SCENARIOS][anchors];
+        actualPositions = new Point2d[SCENARIOS];
+        for (int i = 0; i < SCENARIOS; i++) {
+            Point2d p = new Point2d(random.nextDouble() * FIELD_SIZE,
+                    random.nextDouble() * FIELD_SIZE);
+            actualPositions[i] = p;
+            for (int j = 0; j < anchors; j++) {
+                Point2d a = new Point2d(random.nextDouble() * FIELD_SIZE,
+                        random.nextDouble() * FIELD_SIZE);
+                double d = a.distance(p);
+                anchorSets[i][j] = a;
+                ranges[i][j] = d + offset(random, pNlos);
+            }
+        }
+        buffer = new double[anchors];
+        next = 0;
+    }
+
+    @Benchmark
+    public Point2d localize() {
+        int i = next;
+        next = (i + 1) & (SCENARIOS - 1);
+        System.arraycopy(ranges[i], 0, buffer, 0, anchors);
+        return alg.safeLocalize(anchorSets[i], buffer, actualPositions[i],
+                errorModel, FIELD_SIZE, FIELD_SIZE);
+    }
+
+    /**
+     * Tests if an algorithm enumerates all subsets of the anchors and
+     * therefore is only benchmarked with up to {@value #MAX_SUBSET_ANCHORS}
+     * anchors.
+     *
+     * @param name The name of the algorithm, see {@code getName()}.
+     *
+     * @return {@code true} if the algorithm enumerates all anchor subsets.
+     */
+    public static boolean isSubsetAlgorithm(String name) {
+        return SUBSET_ALGORITHMS.contains(name);
+    }
+
+    /**
+     * Draws a range error like the LOS and LOS+NLOS error models do, but
+     * from the seeded random number generator: a positive normal LOS error
+     * plus, with probability <code>pNlos</code>, an exponential NLOS error
+     * with <code>lambda = U[0,b]</code>, redrawn if above the maximum error.
+     */
+    private static double offset(Random random, double pNlos) {
+        double error;
+        do {
+            error = Math.abs(random.nextGaussian() * SDEV_LOS);
+            if (pNlos > 0 && random.nextDouble() <= pNlos) {
+                double lambda = ExponentialDistribution.nextUniform(random,
+                        0, LAMBDA_NLOS);
+                error += -Math.log(1 - random.nextDouble()) / lambda;
+            }
+        } while (error > MAX_ERROR);
+        return error;
+    }
+
+}
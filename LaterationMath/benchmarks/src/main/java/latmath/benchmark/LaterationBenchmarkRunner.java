@@ -0,0 +1,122 @@
+package latmath.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import latmath.algorithm.AlgorithmDescriptor;
+import latmath.algorithm.BasicLaterationAlgorithm;
+import latmath.algorithm.LaterationAlgorithmCollection;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link LaterationBenchmark} for every released lateration algorithm
+ * with the GC profiler enabled (allocation rate per operation).
+ * <p>
+ * Algorithms which enumerate all anchor subsets are run in a second pass
+ * with at most {@value LaterationBenchmark#MAX_SUBSET_ANCHORS} anchors.
+ * <p>
+ * Usage: {@code LaterationBenchmarkRunner [result.csv [algorithm ...]]}.
+ * If a result file is given, the cost table is written as CSV so that
+ * results of different releases can be compared. If algorithm names are
+ * given, only those algorithms are benchmarked.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class LaterationBenchmarkRunner {
+
+    private LaterationBenchmarkRunner() {}
+
+    public static void main(String[] args) throws RunnerException {
+        List<String> names = new ArrayList<>();
+        if (args.length > 1) {
+            for (int i = 1; i < args.length; i++) {
+                names.add(args[i]);
+            }
+        } else {
+            for (AlgorithmDescriptor d : LaterationAlgorithmCollection.getDescriptors()) {
+                names.add(d.getName());
+            }
+        }
+        List<String> full = new ArrayList<>();
+        List<String> capped = new ArrayList<>();
+        for (String name : names) {
+            if (LaterationBenchmark.isSubsetAlgorithm(name)) {
+                capped.add(name);
+            } else {
+                full.add(name);
+            }
+        }
+        List<RunResult> results = new ArrayList<>();
+        if (!full.isEmpty()) {
+            results.addAll(run(full, null));
+        }
+        if (!capped.isEmpty()) {
+            results.addAll(run(capped, cappedAnchors()));
+        }
+        if (args.length > 0) {
+            ResultFormatFactory.getInstance(ResultFormatType.CSV, args[0])
+                    .writeOut(results);
+        }
+    }
+
+    private static Collection<RunResult> run(List<String> names,
+            String[] anchors) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(LaterationBenchmark.class.getName() + ".*")
+                .param("algorithm", names.toArray(new String[names.size()]))
+                .addProfiler(GCProfiler.class);
+        if (anchors != null) {
+            options.param("anchors", anchors);
+        }
+        return new Runner(options.build()).run();
+    }
+
+    /**
+     * Returns the anchor counts of {@link LaterationBenchmark} up to
+     * {@value LaterationBenchmark#MAX_SUBSET_ANCHORS}.
+     */
+    private static String[] cappedAnchors() {
+        String[] values;
+        try {
+            values = LaterationBenchmark.class.getField("anchors")
+                    .getAnnotation(Param.class).value();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+        List<String> capped = new ArrayList<>();
+        for (String value : values) {
+            if (Integer.parseInt(value) <= LaterationBenchmark.MAX_SUBSET_ANCHORS) {
+                capped.add(value);
+            }
+        }
+        return capped.toArray(new String[capped.size()]);
+    }
+
+    /**
+     * Creates a new instance of the released lateration algorithm with the
+     * given name.
+     *
+     * @param name The name of the algorithm, see {@code getName()}.
+     *
+     * @return A new instance of the algorithm.
+     *
+     * @throws IllegalArgumentException If no algorithm has the given name.
+     */
+    static BasicLaterationAlgorithm createAlgorithm(String name) {
+        BasicLaterationAlgorithm alg = LaterationAlgorithmCollection.createAlgorithm(name);
+        if (alg == null) {
+            throw new IllegalArgumentException("unknown algorithm: " + name);
+        }
+        return alg;
+    }
+
+}
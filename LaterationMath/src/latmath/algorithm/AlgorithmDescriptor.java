@@ -0,0 +1,168 @@
+package latmath.algorithm;
+
+import latmath.util.ReflectionUtils;
+
+/**
+ * Lightweight description of a lateration algorithm.
+ * <p>
+ * A descriptor provides the name and capabilities of an algorithm without
+ * loading its class or creating an instance. New instances are only
+ * created by {@link #newInstance()}.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class AlgorithmDescriptor {
+
+    /** Capability: the algorithm handles safe localization on its own */
+    static final String CAN_SAFELY_LOCALIZE = "canSafelyLocalize";
+
+    /** Capability: one instance may localize in several threads at once */
+    static final String THREAD_SAFE = "threadSafe";
+
+    /** Capability: the algorithm is a lower bound estimator */
+    static final String LOWER_BOUND_ESTIMATOR = "lowerBoundEstimator";
+
+    private final String name;
+    private final String className;
+    private final boolean canSafelyLocalize;
+    private final boolean threadSafe;
+    private final boolean lowerBoundEstimator;
+
+    /** The algorithm class, null until first requested */
+    private volatile Class<? extends BasicLaterationAlgorithm> clazz;
+
+    AlgorithmDescriptor(String name, String className,
+            boolean canSafelyLocalize, boolean threadSafe,
+            boolean lowerBoundEstimator) {
+        this.name = name;
+        this.className = className;
+        this.canSafelyLocalize = canSafelyLocalize;
+        this.threadSafe = threadSafe;
+        this.lowerBoundEstimator = lowerBoundEstimator;
+    }
+
+    /**
+     * Creates a descriptor of the given algorithm instance.
+     *
+     * @param algorithm The lateration algorithm.
+     */
+    AlgorithmDescriptor(BasicLaterationAlgorithm algorithm) {
+        this(algorithm.getName(), algorithm.getClass().getName(),
+                algorithm.canSafelyLocalize(), algorithm.isThreadSafe(),
+                algorithm instanceof LowerBoundEstimator);
+        this.clazz = algorithm.getClass();
+    }
+
+    /**
+     * Returns the name of the algorithm.
+     *
+     * @return The name of the algorithm, see
+     *         {@link BasicLaterationAlgorithm#getName()}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the fully qualified class name of the algorithm.
+     *
+     * @return The class name of the algorithm.
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the class of the algorithm, loading it if neccessary.
+     *
+     * @return The class of the algorithm or {@code null} if it cannot
+     *         be loaded.
+     */
+    @SuppressWarnings("unchecked")
+    public Class<? extends BasicLaterationAlgorithm> getAlgorithmClass() {
+        Class<? extends BasicLaterationAlgorithm> c = clazz;
+        if (c == null) {
+            try {
+                c = (Class<? extends BasicLaterationAlgorithm>) Class.forName(
+                        className, true,
+                        Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                return null;
+            }
+            clazz = c;
+        }
+        return c;
+    }
+
+    /**
+     * Creates a new instance of the algorithm.
+     *
+     * @return The new instance or {@code null} if the creation failed.
+     */
+    public BasicLaterationAlgorithm newInstance() {
+        Class<? extends BasicLaterationAlgorithm> c = getAlgorithmClass();
+        return c != null
+                ? (BasicLaterationAlgorithm) ReflectionUtils.createObjectFromClass(c)
+                : null;
+    }
+
+    /**
+     * Tests if the algorithm handles safe localization on its own.
+     *
+     * @return {@code true} if the algorithm handles safe localization on
+     *         its own; {@code false} otherwise.
+     *
+     * @see BasicLaterationAlgorithm#canSafelyLocalize()
+     */
+    public boolean canSafelyLocalize() {
+        return canSafelyLocalize;
+    }
+
+    /**
+     * Tests if one instance of the algorithm may be used by several
+     * threads at once.
+     *
+     * @return {@code true} if the algorithm is thread-safe;
+     *         {@code false} otherwise.
+     *
+     * @see BasicLaterationAlgorithm#isThreadSafe()
+     */
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    /**
+     * Tests if the algorithm is a {@link LowerBoundEstimator}.
+     *
+     * @return {@code true} if the algorithm is a lower bound estimator;
+     *         {@code false} otherwise.
+     */
+    public boolean isLowerBoundEstimator() {
+        return lowerBoundEstimator;
+    }
+
+    /**
+     * Returns the capabilities as comma separated list, as stored in the
+     * build-time index.
+     */
+    String getCapabilities() {
+        StringBuilder sb = new StringBuilder();
+        if (canSafelyLocalize) {
+            sb.append(CAN_SAFELY_LOCALIZE).append(',');
+        }
+        if (threadSafe) {
+            sb.append(THREAD_SAFE).append(',');
+        }
+        if (lowerBoundEstimator) {
+            sb.append(LOWER_BOUND_ESTIMATOR).append(',');
+        }
+        return sb.length() > 0 ? sb.substring(0, sb.length() - 1) : "";
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + className + ")";
+    }
+
+}
@@ -0,0 +1,428 @@
+package latmath.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import latmath.errormodel.ErrorModel;
+import latmath.util.Point2d;
+
+/**
+ * Evaluates several lateration algorithms in parallel on the same dataset.
+ * <p>
+ * The work is split into (algorithm, block of measurements) tasks which are
+ * executed by a <code>ForkJoinPool</code>. Algorithms which are not
+ * {@linkplain BasicLaterationAlgorithm#isThreadSafe() thread-safe} are run
+ * as one task, so each instance is only used by one thread at a time; this
+ * also holds if an instance occurs more than once in the list.
+ * <p>
+ * Every call of {@code safeLocalize()} gets its own copy of the ranges,
+ * since some algorithms modify them.
+ * <p>
+ * After all positions are estimated, {@code evaluate()} and
+ * {@code addRuntime()} of every algorithm are called in input order, so the
+ * accuracy metrics of the algorithms are the same as with a sequential
+ * loop. The metrics are added to the metrics collected so far, call
+ * {@code reset()} on the algorithms to start from scratch.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class AlgorithmEvaluator {
+
+    /** Default number of measurements per task */
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    /** The pool executing the tasks */
+    private final ForkJoinPool pool;
+
+    /** The number of measurements per task */
+    private int blockSize;
+
+    /**
+     * The result of one algorithm.
+     */
+    public static final class Result {
+
+        private final BasicLaterationAlgorithm algorithm;
+        private final Point2d[] estimatedPositions;
+        private final long[] runtimes;
+        private long start;
+        private long end;
+
+        private Result(BasicLaterationAlgorithm algorithm, int rows) {
+            this.algorithm = algorithm;
+            this.estimatedPositions = new Point2d[rows];
+            this.runtimes = new long[rows];
+            this.start = Long.MAX_VALUE;
+            this.end = Long.MIN_VALUE;
+        }
+
+        private synchronized void addInterval(long from, long to) {
+            start = Math.min(start, from);
+            end = Math.max(end, to);
+        }
+
+        /**
+         * Returns the evaluated algorithm.
+         * <p>
+         * All accuracy metrics of <code>BasicLaterationAlgorithm</code>
+         * (MAE, RMSE, fail count, ...) can be read from it.
+         *
+         * @return The evaluated algorithm.
+         */
+        public BasicLaterationAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Returns the estimated positions in input order.
+         *
+         * @return The estimated positions including {@code null}'s for
+         *         failed localizations.
+         */
+        public Point2d[] getEstimatedPositions() {
+            return estimatedPositions;
+        }
+
+        /**
+         * Returns the runtime of each localization in input order.
+         *
+         * @return The runtimes in nanoseconds.
+         */
+        public long[] getRuntimes() {
+            return runtimes;
+        }
+
+        /**
+         * Returns the wall-clock time from the start of the first to the
+         * end of the last localization of this algorithm.
+         *
+         * @return The wall-clock time in nanoseconds.
+         */
+        public long getWallClockTime() {
+            return end >= start ? end - start : 0;
+        }
+
+        /**
+         * Returns the number of localizations per second of wall-clock time.
+         *
+         * @return The throughput in localizations per second.
+         */
+        public double getThroughput() {
+            long time = getWallClockTime();
+            return time > 0 ? estimatedPositions.length * 1e9 / time : 0;
+        }
+
+        /**
+         * Returns the mean absolute error (MAE) of the algorithm.
+         *
+         * @return The mean absolute error (MAE).
+         */
+        public double getMeanAbsoluteError() {
+            return algorithm.getMeanAbsoluteError();
+        }
+
+        /**
+         * Returns the root mean square error (RMSE) of the algorithm.
+         *
+         * @return The root mean square error (RMSE).
+         */
+        public double getRootMeanSquareError() {
+            return algorithm.getRootMeanSquareError();
+        }
+
+        /**
+         * Returns the number of failed localizations of the algorithm.
+         *
+         * @return The number of failed localizations.
+         */
+        public int getLocalizationFailCount() {
+            return algorithm.getLocalizationFailCount();
+        }
+
+        @Override
+        public String toString() {
+            return algorithm.getName() + ": MAE=" + getMeanAbsoluteError()
+                    + ", RMSE=" + getRootMeanSquareError()
+                    + ", max=" + algorithm.getMaximumError()
+                    + ", SDEV=" + algorithm.getStandardDeviation()
+                    + ", bias=" + algorithm.getEstimationBias()
+                    + ", fails=" + getLocalizationFailCount()
+                    + ", wall=" + getWallClockTime() / 1e6 + "ms"
+                    + ", throughput=" + getThroughput() + "/s";
+        }
+    }
+
+    /**
+     * Creates a new instance of <code>AlgorithmEvaluator</code> using all
+     * available processors.
+     */
+    public AlgorithmEvaluator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new instance of <code>AlgorithmEvaluator</code>.
+     *
+     * @param parallelism The number of worker threads.
+     */
+    public AlgorithmEvaluator(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.blockSize = DEFAULT_BLOCK_SIZE;
+    }
+
+    /**
+     * Sets the number of measurements per task for thread-safe algorithms.
+     *
+     * @param blockSize The number of measurements per task.
+     *
+     * @throws IllegalArgumentException If the block size is not positive.
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("block size must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Evaluates the given algorithms on measurements against a fixed set of
+     * anchor/reference nodes.
+     *
+     * @param algorithms The algorithms to be evaluated.
+     * @param anchors The anchor/reference nodes of all measurements.
+     * @param ranges The measured distances, one row per measurement, not
+     *               modified.
+     * @param actualPositions The actual positions of the mobile node, one
+     *                        per measurement, or <code>null</code> if
+     *                        unknown.
+     *
+     * @return The results in the order of the given algorithms.
+     */
+    public List<Result> evaluate(List<? extends BasicLaterationAlgorithm> algorithms,
+            Point2d[] anchors, double[][] ranges, Point2d[] actualPositions) {
+        Point2d[][] tmp = new Point2d[ranges.length][];
+        for (int i = 0; i < tmp.length; i++) {
+            tmp[i] = anchors;
+        }
+        return evaluate(algorithms, tmp, ranges, actualPositions, null, -1, -1);
+    }
+
+    /**
+     * Evaluates the given algorithms on a dataset of measurements.
+     *
+     * @param algorithms The algorithms to be evaluated.
+     * @param anchors The anchor/reference nodes, one row per measurement.
+     * @param ranges The measured distances, one row per measurement, not
+     *               modified.
+     * @param actualPositions The actual positions of the mobile node, one
+     *                        per measurement, or <code>null</code> if
+     *                        unknown.
+     * @param errorModel The error model used for simulation or
+     *                   <code>null</code> if running with real data.
+     * @param width The width of the playing field used for simulation or
+     *              <code>-1</code> if running with real data.
+     * @param height The height of the playing field used for simulation or
+     *              <code>-1</code> if running with real data.
+     *
+     * @return The results in the order of the given algorithms.
+     *
+     * @throws IllegalArgumentException If the number of rows do not match.
+     */
+    public List<Result> evaluate(List<? extends BasicLaterationAlgorithm> algorithms,
+            Point2d[][] anchors, double[][] ranges, Point2d[] actualPositions,
+            ErrorModel errorModel, int width, int height) {
+        int rows = ranges.length;
+        if (anchors.length != rows
+                || (actualPositions != null && actualPositions.length != rows)) {
+            throw new IllegalArgumentException("dataset rows differ in length");
+        }
+        Dataset data = new Dataset(anchors, ranges, actualPositions,
+                errorModel, width, height);
+
+        // group the results by algorithm instance, an instance may occur
+        // more than once in the list
+        List<Result> results = new ArrayList<>(algorithms.size());
+        Map<BasicLaterationAlgorithm, List<Result>> byInstance =
+                new IdentityHashMap<>();
+        List<List<Result>> groups = new ArrayList<>();
+        for (BasicLaterationAlgorithm algorithm : algorithms) {
+            Result result = new Result(algorithm, rows);
+            results.add(result);
+            List<Result> group = byInstance.get(algorithm);
+            if (group == null) {
+                group = new ArrayList<>();
+                byInstance.put(algorithm, group);
+                groups.add(group);
+            }
+            group.add(result);
+        }
+
+        // step 1: localize all measurements, all results of an instance
+        // which is not thread-safe in one task
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (List<Result> group : groups) {
+            BasicLaterationAlgorithm algorithm = group.get(0).algorithm;
+            if (algorithm.isThreadSafe()) {
+                for (Result result : group) {
+                    for (int from = 0; from < rows; from += blockSize) {
+                        tasks.add(new LocalizeTask(data, result, from,
+                                Math.min(from + blockSize, rows)));
+                    }
+                }
+            } else {
+                List<RecursiveAction> sequence = new ArrayList<>(group.size());
+                for (Result result : group) {
+                    sequence.add(new LocalizeTask(data, result, 0, rows));
+                }
+                tasks.add(new Sequence(sequence));
+            }
+        }
+        pool.invoke(new TaskList(tasks));
+
+        // step 2: collect statistics in input order, one task per instance
+        tasks.clear();
+        for (List<Result> group : groups) {
+            List<RecursiveAction> sequence = new ArrayList<>(group.size());
+            for (Result result : group) {
+                sequence.add(new EvaluateTask(data, result));
+            }
+            tasks.add(new Sequence(sequence));
+        }
+        pool.invoke(new TaskList(tasks));
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Stops the worker threads of this evaluator.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static final class Dataset {
+        private final Point2d[][] anchors;
+        private final double[][] ranges;
+        private final Point2d[] actualPositions;
+        private final ErrorModel errorModel;
+        private final int width;
+        private final int height;
+
+        private Dataset(Point2d[][] anchors, double[][] ranges,
+                Point2d[] actualPositions, ErrorModel errorModel, int width,
+                int height) {
+            this.anchors = anchors;
+            this.ranges = ranges;
+            this.actualPositions = actualPositions;
+            this.errorModel = errorModel;
+            this.width = width;
+            this.height = height;
+        }
+
+        private Point2d actualPosition(int i) {
+            return actualPositions != null ? actualPositions[i] : null;
+        }
+    }
+
+    private static final class TaskList extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<RecursiveAction> tasks;
+
+        private TaskList(List<RecursiveAction> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Runs tasks one after the other in the current thread.
+     */
+    private static final class Sequence extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<RecursiveAction> tasks;
+
+        private Sequence(List<RecursiveAction> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            for (RecursiveAction task : tasks) {
+                task.invoke();
+            }
+        }
+    }
+
+    private static final class LocalizeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Dataset data;
+        private final Result result;
+        private final int from;
+        private final int to;
+
+        private LocalizeTask(Dataset data, Result result, int from, int to) {
+            this.data = data;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            BasicLaterationAlgorithm algorithm = result.algorithm;
+            // some algorithms modify the ranges, so every call gets a copy
+            // and the dataset stays unchanged for other tasks and evaluate()
+            double[] buf = null;
+            long start = System.nanoTime();
+            long t0 = start;
+            for (int i = from; i < to; i++) {
+                double[] row = data.ranges[i];
+                if (row != null) {
+                    if (buf == null || buf.length != row.length) {
+                        buf = new double[row.length];
+                    }
+                    System.arraycopy(row, 0, buf, 0, row.length);
+                }
+                result.estimatedPositions[i] = algorithm.safeLocalize(
+                        data.anchors[i], row != null ? buf : null,
+                        data.actualPosition(i), data.errorModel, data.width,
+                        data.height);
+                long t1 = System.nanoTime();
+                result.runtimes[i] = t1 - t0;
+                t0 = t1;
+            }
+            result.addInterval(start, t0);
+        }
+    }
+
+    private static final class EvaluateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Dataset data;
+        private final Result result;
+
+        private EvaluateTask(Dataset data, Result result) {
+            this.data = data;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            BasicLaterationAlgorithm algorithm = result.algorithm;
+            for (int i = 0; i < result.estimatedPositions.length; i++) {
+                algorithm.evaluate(data.anchors[i], data.ranges[i],
+                        result.estimatedPositions[i], data.actualPosition(i));
+                algorithm.addRuntime(result.runtimes[i],
+                        data.anchors[i] != null ? data.anchors[i].length : -1);
+            }
+        }
+    }
+
+}
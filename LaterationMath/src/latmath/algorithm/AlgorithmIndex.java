@@ -0,0 +1,130 @@
+package latmath.algorithm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import latmath.util.ReflectionUtils;
+
+/**
+ * Build-time index of the names and capabilities of all released
+ * lateration algorithms.
+ * <p>
+ * The index is written by the Ant build to
+ * <code>latmath/algorithm/algorithms.properties</code> after the
+ * {@linkplain latmath.util.ReleasableIndex releasable classes} are indexed,
+ * so that {@link LaterationAlgorithmCollection#getDescriptors()} does not
+ * need to load or instantiate any algorithm:
+ * <pre>
+ * java latmath.algorithm.AlgorithmIndex &lt;output dir&gt;
+ * </pre>
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class AlgorithmIndex {
+
+    /** Name of the index resource relative to this package */
+    static final String RESOURCE = "algorithms.properties";
+
+    private AlgorithmIndex() {}
+
+    /**
+     * Writes the index file.
+     *
+     * @param args The output directory.
+     *
+     * @throws IOException If the index file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: AlgorithmIndex <output dir>");
+            System.exit(1);
+        }
+        Properties index = new Properties();
+        Class<?>[] classes = ReflectionUtils.getReleasableClasses(
+                BasicLaterationAlgorithm.class);
+        for (Class<?> clazz : classes) {
+            BasicLaterationAlgorithm alg = (BasicLaterationAlgorithm)
+                    ReflectionUtils.createObjectFromClass(clazz);
+            if (alg == null) {
+                throw new IOException("cannot create " + clazz.getName());
+            }
+            AlgorithmDescriptor d = new AlgorithmDescriptor(alg);
+            index.setProperty(d.getClassName() + ".name", d.getName());
+            index.setProperty(d.getClassName() + ".capabilities",
+                    d.getCapabilities());
+        }
+        File dir = new File(args[0], "latmath" + File.separator + "algorithm");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create directory " + dir);
+        }
+        // Properties.store() adds a timestamp and writes in hash order,
+        // keep the escaped entries only and sort them for reproducible builds
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        index.store(buf, null);
+        List<String> entries = new ArrayList<>();
+        for (String line : buf.toString("ISO-8859-1").split("\r?\n")) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                entries.add(line);
+            }
+        }
+        Collections.sort(entries);
+        File file = new File(dir, RESOURCE);
+        try (Writer out = new OutputStreamWriter(
+                new FileOutputStream(file), "ISO-8859-1")) {
+            out.write("# Generated by latmath.algorithm.AlgorithmIndex, do not edit\n");
+            for (String entry : entries) {
+                out.write(entry);
+                out.write('\n');
+            }
+        }
+        System.out.println(file + ": " + classes.length + " algorithms");
+    }
+
+    /**
+     * Reads the descriptors of all released algorithms from the index.
+     *
+     * @return The descriptors or {@code null} if no index is available.
+     */
+    static List<AlgorithmDescriptor> read() {
+        String[] classNames = ReflectionUtils.getReleasableClassNames(
+                BasicLaterationAlgorithm.class);
+        if (classNames == null) {
+            return null;
+        }
+        Properties index = new Properties();
+        try (InputStream in = AlgorithmIndex.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            index.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        List<AlgorithmDescriptor> descriptors = new ArrayList<>(classNames.length);
+        for (String className : classNames) {
+            String name = index.getProperty(className + ".name");
+            if (name == null) {
+                // index is out of date
+                return null;
+            }
+            List<String> caps = Arrays.asList(index.getProperty(
+                    className + ".capabilities", "").split(","));
+            descriptors.add(new AlgorithmDescriptor(name, className,
+                    caps.contains(AlgorithmDescriptor.CAN_SAFELY_LOCALIZE),
+                    caps.contains(AlgorithmDescriptor.THREAD_SAFE),
+                    caps.contains(AlgorithmDescriptor.LOWER_BOUND_ESTIMATOR)));
+        }
+        return descriptors;
+    }
+
+}
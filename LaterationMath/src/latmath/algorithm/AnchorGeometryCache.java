@@ -0,0 +1,260 @@
+package latmath.algorithm;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of the linear least squares geometry of fixed anchor sets.
+ * <p>
+ * The matrix A of the linearized system only depends on the anchor
+ * positions. For anchors which never move, the pseudo-inverse
+ * (A^T*A)^-1 * A^T and the anchor norm terms of vector b are calculated
+ * once per anchor set (or subset of anchors), so a fix only costs one
+ * 2x(n-1) matrix-vector product.
+ * <p>
+ * Entries are keyed by a fingerprint of the anchor coordinates and the
+ * subset indices. A hit is verified against the stored coordinates, so a
+ * moved anchor never gives wrong results, but the entries of the old
+ * layout stay cached until they are evicted. Call {@link #invalidate()}
+ * when the anchor layout changes.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class AnchorGeometryCache {
+
+    /** Default maximum number of cached anchor sets */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /** The cached geometries in access order */
+    private final Map<Key, Geometry> map;
+
+    /**
+     * Creates a new instance of <code>AnchorGeometryCache</code> with the
+     * default capacity.
+     */
+    public AnchorGeometryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance of <code>AnchorGeometryCache</code>.
+     *
+     * @param capacity The maximum number of cached anchor sets.
+     *
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public AnchorGeometryCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.map = new LinkedHashMap<Key, Geometry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Geometry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the geometry of the given anchors, calculating it on a miss.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param subset The indices of the anchors to be used or {@code null}
+     *               for all anchors.
+     *
+     * @return The geometry of the (selected) anchors.
+     */
+    public Geometry get(double[] xs, double[] ys, int[] subset) {
+        Key probe = new Key(xs, ys, subset, false);
+        synchronized (map) {
+            Geometry g = map.get(probe);
+            if (g != null) {
+                return g;
+            }
+        }
+        Geometry g = new Geometry(new Key(xs, ys, subset, true));
+        synchronized (map) {
+            map.put(g.key, g);
+        }
+        return g;
+    }
+
+    /**
+     * Removes all cached geometries, e.g. after the anchor layout changed.
+     */
+    public void invalidate() {
+        synchronized (map) {
+            map.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached anchor sets.
+     *
+     * @return The number of cached anchor sets.
+     */
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    /**
+     * Precomputed linear least squares geometry of one anchor set.
+     */
+    public static final class Geometry {
+
+        private final Key key;
+
+        /** Rows of the pseudo-inverse and anchor norm terms of vector b */
+        private final double[] p0;
+        private final double[] p1;
+        private final double[] k;
+
+        /** A^T*A is regular and well-conditioned */
+        private final boolean regular;
+
+        private Geometry(Key key) {
+            this.key = key;
+            int m = Math.max(key.size - 1, 0);
+            this.p0 = new double[m];
+            this.p1 = new double[m];
+            this.k = new double[m];
+            this.regular = key.size >= 3
+                    && LinearLeastSquares.pseudoInverse(key.xs, key.ys, p0, p1, k);
+        }
+
+        /**
+         * Returns if a position can be calculated for this anchor set.
+         *
+         * @return {@code false} if there are less than 3 anchors or A^T*A is
+         *         singular or ill-conditioned.
+         */
+        public boolean isRegular() {
+            return regular;
+        }
+
+        /**
+         * Calculates the linear least squares position.
+         *
+         * @param ranges The measured distances to all anchor/reference
+         *               nodes, the subset (if any) is selected from them.
+         * @param result The estimated position (x, y), at least 2 long.
+         *
+         * @return The residual error of the estimated position or
+         *         {@code -1} if no position could be calculated.
+         */
+        public double solve(double[] ranges, double[] result) {
+            if (!regular) {
+                return -1;
+            }
+            int[] subset = key.subset;
+            int m = key.size - 1;
+            double rm = ranges[subset != null ? subset[m] : m];
+            double x = 0, y = 0;
+            for (int j = 0; j < m; j++) {
+                double rj = ranges[subset != null ? subset[j] : j];
+                double b = k[j] + 0.5 * (rm * rm - rj * rj);
+                x += p0[j] * b;
+                y += p1[j] * b;
+            }
+            result[0] = x;
+            result[1] = y;
+
+            double error = 0;
+            for (int i = 0; i <= m; i++) {
+                double dx = key.xs[i] - x;
+                double dy = key.ys[i] - y;
+                double residual = Math.sqrt(dx * dx + dy * dy)
+                        - ranges[subset != null ? subset[i] : i];
+                error += residual * residual;
+            }
+            return error;
+        }
+
+    }
+
+    /**
+     * Anchor coordinates and subset indices. Stored keys hold copies of the
+     * selected coordinates, lookup keys refer to the caller's arrays.
+     */
+    private static final class Key {
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int[] subset;
+        private final boolean compact;
+        private final int size;
+        private final int hash;
+
+        Key(double[] xs, double[] ys, int[] subset, boolean copy) {
+            int n = subset != null ? subset.length : xs.length;
+            if (copy) {
+                double[] cx = new double[n];
+                double[] cy = new double[n];
+                for (int i = 0; i < n; i++) {
+                    int j = subset != null ? subset[i] : i;
+                    cx[i] = xs[j];
+                    cy[i] = ys[j];
+                }
+                xs = cx;
+                ys = cy;
+                subset = subset != null ? subset.clone() : null;
+            }
+            this.xs = xs;
+            this.ys = ys;
+            this.subset = subset;
+            this.compact = copy || subset == null;
+            this.size = n;
+            int h = Arrays.hashCode(subset);
+            for (int i = 0; i < n; i++) {
+                long bx = Double.doubleToLongBits(x(i));
+                long by = Double.doubleToLongBits(y(i));
+                h = 31 * h + (int) (bx ^ (bx >>> 32));
+                h = 31 * h + (int) (by ^ (by >>> 32));
+            }
+            this.hash = h;
+        }
+
+        double x(int i) {
+            return xs[compact ? i : subset[i]];
+        }
+
+        double y(int i) {
+            return ys[compact ? i : subset[i]];
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key o = (Key) obj;
+            if (hash != o.hash || size != o.size
+                    || !Arrays.equals(subset, o.subset)) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (Double.doubleToLongBits(x(i)) != Double.doubleToLongBits(o.x(i))
+                        || Double.doubleToLongBits(y(i)) != Double.doubleToLongBits(o.y(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
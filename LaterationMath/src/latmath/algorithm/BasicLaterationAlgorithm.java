@@ -4,12 +4,14 @@ import java.awt.Frame;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import latmath.errormodel.ErrorModel;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
-import latmath.util.PositionEstimate;
-import latmath.util.PreciseStandardDeviation;
+import latmath.util.QuantileHistogram;
 
 /**
  * Basic lateration algorithm implementation.
@@ -17,60 +19,54 @@ import latmath.util.PreciseStandardDeviation;
  * Offers evaluation method for localization accuracy and some statistical
  * metrics to compare different algorithms.
  *
- * @version 1.4, 2013-07-02
+ * @version 1.5, 2026-10-16
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
 public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
 
-    /** The number of runs (calls to evaluate() method) */
-    private transient int n;
+    /** Latency recording: only the runtime sum is kept (default) */
+    public static final int LATENCY_OFF = 0;
 
-    /** Number of failed localizations */
-    private transient int localizationFailCount;
+    /** Latency recording: one runtime histogram for all localizations */
+    public static final int LATENCY_TOTAL = 1;
 
-    /** The absolute error for calculating MAE */
-    private transient double absoluteError;
+    /** Latency recording: one runtime histogram per anchor count in addition */
+    public static final int LATENCY_PER_ANCHOR_COUNT = 2;
 
-    /** The maximum error */
-    private transient double maximumError;
+    /** Accuracy metrics collected by evaluate() */
+    private transient EvaluationStatistics statistics;
 
-    /** The square error for calculating MSE */
-    private transient double squareError;
+    /** Per-thread metrics in concurrent statistics mode, otherwise null */
+    private transient volatile StatisticsStripes stripes;
 
-    /** The square error for MMSE for calculating MSE */
-    private transient double squareErrorMMSE;
-    private transient double maxSquareErrorMMSE; // internal only
+    /** Latency recording mode */
+    private transient volatile int latencyMode;
+
+    /** Time only every n-th call of timedLocalize() */
+    private transient volatile int latencySampling;
+    private transient AtomicInteger latencyCounter;
 
-    /** For securely calculating standard deviation */
-    private transient PreciseStandardDeviation sdev;
-    
-    /** Estimated positions (for later evaluation, e.g. painting or logging) */
-    private transient List<Point2d> estimatedPositions;
-    
-    /** Bias of estimator (e.g., if repeatedly positioning at same location) */
-    private transient int estimationBiasCnt;
-    private transient double estimationBiasX;
-    private transient double estimationBiasY;
-        
-    /** Runtime counter for this algorithm */
-    private transient long runtime;
-
-    /** MAE per anchor count data */
-    private transient Hashtable<Integer, MAEInfo> maeV;
-    
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
 
-    private class MAEInfo {
-        private int count = 0;
-        private double error = 0;
-        public void add(double e) {
-            error += e;
-            count++;
+    /**
+     * Per-thread accumulators of the concurrent statistics mode.
+     * <p>
+     * Each thread updates its own stripe, so threads only compete for a
+     * stripe lock while metrics are read.
+     */
+    private static final class StatisticsStripes extends ThreadLocal<EvaluationStatistics> {
+        private final List<EvaluationStatistics> all = new CopyOnWriteArrayList<>();
+        private volatile boolean keepSamples;
+        private StatisticsStripes(boolean keepSamples) {
+            this.keepSamples = keepSamples;
         }
-        public double get() {
-            return count > 0 ? error / count : 0;
+        @Override
+        protected EvaluationStatistics initialValue() {
+            EvaluationStatistics stripe = new EvaluationStatistics(keepSamples);
+            all.add(stripe);
+            return stripe;
         }
     }
 
@@ -88,22 +84,162 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
     }
     
     private void init() {
-        maeV = new Hashtable<>();
-        sdev = new PreciseStandardDeviation();
-        estimatedPositions = new ArrayList<>();
+        latencyMode = LATENCY_OFF;
+        latencySampling = 1;
+        latencyCounter = new AtomicInteger();
+        statistics = new EvaluationStatistics(true);
         reinit();
     }
 
     protected void reinit() {
-        n = localizationFailCount = 0;
-        maximumError = maxSquareErrorMMSE = Double.MIN_VALUE;
-        absoluteError = squareError = squareErrorMMSE = 0;
-        estimationBiasCnt = 0;
-        estimationBiasX = estimationBiasY = 0;
-        runtime = 0;
-        maeV.clear();
-        sdev.reset();
-        estimatedPositions.clear();
+        statistics.reset();
+        StatisticsStripes s = stripes;
+        if (s != null) {
+            for (EvaluationStatistics stripe : s.all) {
+                synchronized (stripe) {
+                    stripe.reset();
+                }
+            }
+        }
+    }
+
+    /**
+     * Enables or disables the concurrent statistics mode.
+     * <p>
+     * By default the metrics are collected in plain fields and an algorithm
+     * instance must only be evaluated by one thread at a time. In concurrent
+     * mode every thread calling {@code evaluate()} or {@code addRuntime()}
+     * collects into its own accumulator and all accumulators are merged
+     * when a metric is requested. The estimated positions and position
+     * errors are then ordered by thread and not by call.
+     * <p>
+     * Metrics collected so far are kept when switching modes. This method
+     * must not be called while other threads are evaluating.
+     *
+     * @param concurrent {@code true} to enable the concurrent mode.
+     */
+    public void setConcurrentStatistics(boolean concurrent) {
+        StatisticsStripes s = stripes;
+        if (concurrent && s == null) {
+            stripes = new StatisticsStripes(statistics.keepSamples);
+        } else if (!concurrent && s != null) {
+            stripes = null;
+            for (EvaluationStatistics stripe : s.all) {
+                synchronized (stripe) {
+                    statistics.merge(stripe, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Enables or disables the bounded-memory statistics mode.
+     * <p>
+     * By default every position error and estimated position is kept, see
+     * {@link #getPositionErrors()} and {@link #getEstimatedPositions()}.
+     * In bounded mode only their distribution is kept (see
+     * {@link #getErrorPercentile(double)}), the standard deviation is
+     * calculated incrementally and both lists stay empty.
+     * <p>
+     * Enabling the bounded mode drops the samples collected so far, while
+     * disabling it resets all metrics. This method must not be called while
+     * other threads are evaluating.
+     *
+     * @param bounded {@code true} to enable the bounded-memory mode.
+     */
+    public void setBoundedStatistics(boolean bounded) {
+        if (bounded == isBoundedStatistics()) {
+            return;
+        }
+        StatisticsStripes s = stripes;
+        if (s != null) {
+            s.keepSamples = !bounded;
+            for (EvaluationStatistics stripe : s.all) {
+                synchronized (stripe) {
+                    stripe.dropSamples();
+                    stripe.keepSamples = !bounded;
+                }
+            }
+        }
+        statistics.dropSamples();
+        statistics.keepSamples = !bounded;
+        if (!bounded) {
+            reinit();
+        }
+    }
+
+    /**
+     * Checks whether the bounded-memory statistics mode is enabled.
+     *
+     * @return {@code true} if the bounded-memory statistics mode is enabled.
+     */
+    public boolean isBoundedStatistics() {
+        return !statistics.keepSamples;
+    }
+
+    /**
+     * Adds the metrics collected by another instance, e.g. the same
+     * algorithm evaluated on a separate part of the data, to the metrics
+     * of this instance.
+     * <p>
+     * If the other instance runs in bounded-memory mode, this instance
+     * switches to bounded-memory mode as well.
+     *
+     * @param other The algorithm whose metrics should be added.
+     */
+    public void mergeStatistics(BasicLaterationAlgorithm other) {
+        EvaluationStatistics tmp = other.statistics(true);
+        if (tmp == other.statistics) {
+            // don't share the live lists of the other instance
+            EvaluationStatistics copy = new EvaluationStatistics(tmp.keepSamples);
+            copy.merge(tmp, true);
+            tmp = copy;
+        }
+        if (!tmp.keepSamples) {
+            setBoundedStatistics(true);
+        }
+        StatisticsStripes s = stripes;
+        if (s == null) {
+            statistics.merge(tmp, true);
+        } else {
+            EvaluationStatistics stripe = s.get();
+            synchronized (stripe) {
+                stripe.merge(tmp, true);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the concurrent statistics mode is enabled.
+     *
+     * @return {@code true} if the concurrent statistics mode is enabled.
+     */
+    public boolean isConcurrentStatistics() {
+        return stripes != null;
+    }
+
+    /**
+     * Returns the metrics collected so far.
+     *
+     * @param samples Whether the position errors and estimated positions
+     *                are needed (only relevant in concurrent mode).
+     *
+     * @return The live metrics in default mode or a merged copy in
+     *         concurrent mode.
+     */
+    private EvaluationStatistics statistics(boolean samples) {
+        StatisticsStripes s = stripes;
+        if (s == null) {
+            return statistics;
+        }
+        EvaluationStatistics merged = new EvaluationStatistics(statistics.keepSamples);
+        merged.merge(statistics, samples);
+        for (EvaluationStatistics stripe : s.all) {
+            synchronized (stripe) {
+                merged.merge(stripe, samples);
+            }
+        }
+        return merged;
     }
 
     /**
@@ -121,6 +257,20 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
         return false;
     }
     
+    /**
+     * By default no algorithm may be used by several threads at once.
+     * <p>
+     * Algorithms whose {@code localize()} method does not change any
+     * instance state override this method, which allows to localize
+     * different measurements with one instance in parallel (see
+     * {@link AlgorithmEvaluator}).
+     *
+     * @return Always {@code false}.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Safely runs the localization algorithm and returns the estimated position.
      * <p>
@@ -159,7 +309,179 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
         }
         return null;
     }
-    
+
+    /**
+     * Safely runs the localization algorithm and records its runtime, see
+     * {@link #safeLocalize(Point2d[], double[], Point2d, ErrorModel, int, int)}
+     * and {@link #addRuntime(long, int)}.
+     * <p>
+     * If a latency sampling rate {@code k > 1} is set, only every k-th call
+     * is timed and recorded, all others cost no more than
+     * {@code safeLocalize()}.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param actualPosition The actual location of the mobile node to be located.
+     * @param errorModel The current error model used for simulation or
+     *                   <code>null</code> if running with real data.
+     * @param width The width of the playing field used for simulation or
+     *              <code>-1</code> if running with real data.
+     * @param height The height of the playing field used for simulation or
+     *              <code>-1</code> if running with real data.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated, e.g.
+     *         localization failed.
+     */
+    public Point2d timedLocalize(Point2d[] anchors, double[] ranges,
+            Point2d actualPosition, ErrorModel errorModel, int width, int height) {
+        int sampling = latencySampling;
+        if (sampling > 1 && latencyCounter.incrementAndGet() % sampling != 0) {
+            return safeLocalize(anchors, ranges, actualPosition, errorModel,
+                    width, height);
+        }
+        long start = System.nanoTime();
+        Point2d p = safeLocalize(anchors, ranges, actualPosition, errorModel,
+                width, height);
+        addRuntime(System.nanoTime() - start, anchors != null ? anchors.length : -1);
+        return p;
+    }
+
+    /**
+     * Runs the localization algorithm for a batch of range measurements
+     * which were all taken against the same set of anchor/reference nodes.
+     * <p>
+     * The anchor coordinates are passed as separate x and y arrays and the
+     * measured ranges as one flat array in row-major order, i.e. the ranges
+     * of measurement {@code i} are found at {@code ranges[i * xs.length]}
+     * up to {@code ranges[(i + 1) * xs.length - 1]}. The estimated positions
+     * are written into the given output arrays, failed localizations are
+     * marked with {@code Double.NaN} in both coordinates.
+     * <p>
+     * This default implementation calls {@code localize()} for each
+     * measurement without actual position, error model or playing field
+     * (the same as running with real data). Algorithms which are able to
+     * share work between measurements override this method.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances in row-major order, one row of
+     *               {@code xs.length} ranges per measurement.
+     * @param count The number of measurements (rows) to be processed.
+     * @param estX The estimated x coordinates, at least {@code count} long.
+     * @param estY The estimated y coordinates, at least {@code count} long.
+     *
+     * @return The number of successful localizations.
+     * @throws IllegalArgumentException If the array sizes do not match.
+     */
+    public int localizeBatch(double[] xs, double[] ys, double[] ranges,
+            int count, double[] estX, double[] estY) {
+        checkBatch(xs, ys, ranges, count, estX, estY);
+        int n = xs.length;
+        Point2d[] anchors = Point2d.fromCoordinates(xs, ys);
+        double[] row = new double[n];
+        boolean safe = canSafelyLocalize();
+        int success = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(ranges, i * n, row, 0, n);
+            Point2d p = safe ? localize(anchors, row, null, null, -1, -1)
+                    : safeLocalize(anchors, row, null, null, -1, -1);
+            if (setBatchEstimate(estX, estY, i, p)) {
+                success++;
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Checks the arguments of a {@code localizeBatch()} call.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances in row-major order.
+     * @param count The number of measurements (rows) to be processed.
+     * @param estX The estimated x coordinates.
+     * @param estY The estimated y coordinates.
+     *
+     * @throws IllegalArgumentException If the array sizes do not match.
+     */
+    protected static void checkBatch(double[] xs, double[] ys, double[] ranges,
+            int count, double[] estX, double[] estY) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("anchor coordinate arrays differ in length");
+        }
+        if (count < 0 || ranges.length < (long) count * xs.length) {
+            throw new IllegalArgumentException("range matrix too small for " + count + " rows");
+        }
+        if (estX.length < count || estY.length < count) {
+            throw new IllegalArgumentException("output arrays too small for " + count + " rows");
+        }
+    }
+
+    /**
+     * Stores an estimated position of a {@code localizeBatch()} call.
+     *
+     * @param estX The estimated x coordinates.
+     * @param estY The estimated y coordinates.
+     * @param i The index of the measurement.
+     * @param p The estimated position or {@code null} if localization failed.
+     *
+     * @return {@code true} if a position was stored; {@code false} if the
+     *         measurement was marked as failed.
+     */
+    protected static boolean setBatchEstimate(double[] estX, double[] estY,
+            int i, Point2d p) {
+        if (p == null) {
+            estX[i] = estY[i] = Double.NaN;
+            return false;
+        }
+        estX[i] = p.x;
+        estY[i] = p.y;
+        return true;
+    }
+
+    /**
+     * Borrows the workspace of the current thread and loads the coordinates
+     * of the given anchors into its x and y buffers.
+     * <p>
+     * Algorithms working on primitive arrays use the workspace instead of
+     * allocating temporary arrays on each call. The workspace must be given
+     * back with {@link #releaseWorkspace(LocalizationWorkspace)}, e.g.:
+     * <pre>
+     * LocalizationWorkspace ws = acquireWorkspace(anchors);
+     * try {
+     *     double[] xs = ws.getX(anchors.length);
+     *     ...
+     * } finally {
+     *     releaseWorkspace(ws);
+     * }
+     * </pre>
+     *
+     * @param anchors The anchor/reference nodes.
+     *
+     * @return A workspace for at least <code>anchors.length</code> anchors.
+     */
+    protected static LocalizationWorkspace acquireWorkspace(Point2d[] anchors) {
+        LocalizationWorkspace ws = LocalizationWorkspace.acquire(anchors.length);
+        try {
+            ws.load(anchors);
+        } catch (RuntimeException e) {
+            // e.g. a null anchor, do not leak the pool level
+            LocalizationWorkspace.release(ws);
+            throw e;
+        }
+        return ws;
+    }
+
+    /**
+     * Gives back a workspace borrowed with {@link #acquireWorkspace(Point2d[])}.
+     *
+     * @param ws The workspace to be given back.
+     */
+    protected static void releaseWorkspace(LocalizationWorkspace ws) {
+        LocalizationWorkspace.release(ws);
+    }
+
     /**
      * Evaluates the accuracy of the localization algorithm.
      * <p>
@@ -180,64 +502,29 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      */
     public double evaluate(Point2d[] anchors, double[] ranges,
             Point2d estimatedPosition, Point2d actualPosition) {
-        double tmpError;
-        double tmpError2;
-        
-        // also add null's to list (to reflect failed calculations
-        // and to stay in sync with actual position list)
-        estimatedPositions.add(estimatedPosition);
-            
-        // account for failed localizations
-        if (estimatedPosition == null) {
-            localizationFailCount++;
-            return -1;
-        }
-        // in simulation this won't happen, but maybe in real world
-        // deployments because actual position isn't available
-        if (actualPosition == null) {
-            return -1;
-        }
-        
-        // if estimated position is available, then calculate errors
-        tmpError = actualPosition.distance(estimatedPosition);
-        tmpError2 = PositionEstimate.calculateResidualError(anchors,
-                ranges, estimatedPosition) / anchors.length;
-        if (tmpError > maximumError) {
-            maximumError = tmpError;
-        }
-        if (tmpError2 > maxSquareErrorMMSE) {
-            maxSquareErrorMMSE = tmpError2;
-        }
-        
-        // update MAE per anchor count
-        int c = anchors.length;
-        MAEInfo maeI = maeV.get(c);
-        if (maeI == null) {
-            maeI = new MAEInfo();
-            maeV.put(c, maeI);
-        }
-        maeI.add(tmpError);
-
-        // update accuracy metric counters
-        absoluteError += tmpError;
-        squareError += (tmpError * tmpError);
-        squareErrorMMSE += tmpError2;
-        estimationBiasCnt++;
-        estimationBiasX += estimatedPosition.x - actualPosition.x;
-        estimationBiasY += estimatedPosition.y - actualPosition.y;
-        sdev.addSample(tmpError);
-        n++;
-        return tmpError;
+        StatisticsStripes s = stripes;
+        if (s == null) {
+            return statistics.evaluate(anchors, ranges, estimatedPosition,
+                    actualPosition);
+        }
+        EvaluationStatistics stripe = s.get();
+        synchronized (stripe) {
+            return stripe.evaluate(anchors, ranges, estimatedPosition,
+                    actualPosition);
+        }
     }
 
     /**
      * Get a list with all estimated positions in order of evaluate() calls.
+     * <p>
+     * In concurrent statistics mode a merged copy is returned in which the
+     * positions are ordered by thread.
      * 
      * @return A list with all estimated positions including {@code null}'s
      *         for failed calculations.
      */
     public List<Point2d> getEstimatedPositions() {
-        return estimatedPositions;
+        return statistics(true).estimatedPositions;
     }
     
     /**
@@ -247,7 +534,7 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The number of failed localizations.
      */
     public int getLocalizationFailCount() {
-        return localizationFailCount;
+        return statistics(false).localizationFailCount;
     }
 
     /**
@@ -257,7 +544,8 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The mean absolute error (MAE).
      */
     public double getMeanAbsoluteError() {
-        return n > 0 ? absoluteError/n : 0;
+        EvaluationStatistics s = statistics(false);
+        return s.n > 0 ? s.absoluteError/s.n : 0;
     }
 
     /**
@@ -266,7 +554,8 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The maximum error.
      */
     public double getMaximumError() {
-        return maximumError != Double.MIN_VALUE ? maximumError : 0;
+        EvaluationStatistics s = statistics(false);
+        return s.maximumError != Double.MIN_VALUE ? s.maximumError : 0;
     }
 
     /**
@@ -275,7 +564,7 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The standard deviation (SDEV).
      */
     public double getStandardDeviation() {
-        return sdev.standardDeviation();
+        return statistics(true).standardDeviation();
     }
 
     /**
@@ -286,7 +575,8 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The mean square error (MSE).
      */
     public double getMeanSquareError() {
-        return n > 0 ? squareError/n : 0;
+        EvaluationStatistics s = statistics(false);
+        return s.n > 0 ? s.squareError/s.n : 0;
     }
 
     /**
@@ -297,7 +587,8 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The root mean square error (RMSE).
      */
     public double getRootMeanSquareError() {
-        return n > 0 ? Math.sqrt(squareError/n) : 0;
+        EvaluationStatistics s = statistics(false);
+        return s.n > 0 ? Math.sqrt(s.squareError/s.n) : 0;
     }
 
     /**
@@ -309,7 +600,8 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The mean square error (MSE) for MMSE.
      */
     public double getMeanSquareErrorMMSE() {
-        return n > 0 ? squareErrorMMSE/n : 0;
+        EvaluationStatistics s = statistics(false);
+        return s.n > 0 ? s.squareErrorMMSE/s.n : 0;
     }
 
     /**
@@ -321,7 +613,8 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The root mean square error (RMSE) for MMSE.
      */
     public double getRootMeanSquareErrorMMSE() {
-        return n > 0 ? Math.sqrt(squareErrorMMSE/n) : 0;
+        EvaluationStatistics s = statistics(false);
+        return s.n > 0 ? Math.sqrt(s.squareErrorMMSE/s.n) : 0;
     }
 
     /**
@@ -331,30 +624,62 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The estimation bias of this algorithm.
      */
     public double getEstimationBias() {
-        if (estimationBiasCnt > 0) {
-            double dx = estimationBiasX / estimationBiasCnt;
-            double dy = estimationBiasY / estimationBiasCnt;
+        EvaluationStatistics s = statistics(false);
+        if (s.estimationBiasCnt > 0) {
+            double dx = s.estimationBiasX / s.estimationBiasCnt;
+            double dy = s.estimationBiasY / s.estimationBiasCnt;
             return Math.sqrt(dx * dx + dy * dy);
         }
         return 0;
     }
     
+    /**
+     * Returns the position error at the given percentile, e.g. {@code 50}
+     * for the median, {@code 99} or {@code 100} for the maximum error.
+     * <p>
+     * The value is taken from a histogram with a relative error below 1%.
+     *
+     * @param p The percentile between 0 and 100.
+     *
+     * @return The position error at the given percentile or {@code 0} if
+     *         no calculation has been performed.
+     */
+    public double getErrorPercentile(double p) {
+        return statistics(false).errorHistogram.getPercentile(p);
+    }
+
+    /**
+     * Returns the distribution of the position errors.
+     * <p>
+     * The histogram is a copy and can be merged with the histograms of
+     * other algorithms or evaluation runs.
+     *
+     * @return The distribution of the position errors.
+     */
+    public QuantileHistogram getErrorHistogram() {
+        return new QuantileHistogram(statistics(false).errorHistogram);
+    }
+
     /**
      * Returns the position errors.
+     * <p>
+     * The array is empty in bounded-memory statistics mode.
      * 
      * @return The position errors.
      */
     public Double[] getPositionErrors() {
-        return sdev.getSamples().toArray(new Double[0]);
+        return statistics(true).sdev.getSamples().toArray(new Double[0]);
     }
     
     /**
      * Returns the position errors as primitive double type.
+     * <p>
+     * The array is empty in bounded-memory statistics mode.
      *
      * @return The position errors.
      */
     public double[] getHistogramData() {
-        ArrayList<Double> histogram = sdev.getSamples();
+        ArrayList<Double> histogram = statistics(true).sdev.getSamples();
         double[] da = new double[histogram.size()];
         for (int i = 0; i < da.length; i++) {
             da[i] = histogram.get(i);
@@ -368,6 +693,7 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @return The MAE per anchor.
      */
     public double[] getMeanAbsoluteErrorPerAnchor() {
+        Map<Integer, EvaluationStatistics.MAEInfo> maeV = statistics(false).maeV;
         int maxKey = -1;
         Integer[] keys = maeV.keySet().toArray(new Integer[0]);
         for (int i = 0; i < keys.length; i++) {
@@ -383,12 +709,21 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
     }
 
     /**
-     * Returns the average runtime of this algorithm.
+     * Returns the average runtime of this algorithm, i.e. the runtime sum
+     * divided by the number of evaluated localizations.
+     * <p>
+     * If a latency sampling rate {@code k > 1} is set, only the sampled
+     * calls are in the runtime sum, which is then divided by the number of
+     * sampled calls instead.
      *
      * @return The average runtime of this algorithm in nanoseconds.
      */
     public long getAverageRuntime() {
-        return n > 0 ? runtime/n : 0;
+        EvaluationStatistics s = statistics(false);
+        if (latencySampling > 1) {
+            return s.runtimeCount > 0 ? s.runtime/s.runtimeCount : 0;
+        }
+        return s.n > 0 ? s.runtime/s.n : 0;
     }
 
     /**
@@ -397,7 +732,135 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * @param runtime The runtime of the last run in nanoseconds.
      */
     public void addRuntime(long runtime) {
-        this.runtime += runtime;
+        addRuntime(runtime, -1);
+    }
+
+    /**
+     * Adds the given runtime to the accumulated runtime and, depending on
+     * the latency recording mode, to the runtime histograms.
+     *
+     * @param runtime The runtime of the last run in nanoseconds.
+     * @param anchorCount The number of anchors of the last run or
+     *                    {@code -1} if unknown.
+     */
+    public void addRuntime(long runtime, int anchorCount) {
+        int mode = latencyMode;
+        int key = mode == LATENCY_PER_ANCHOR_COUNT ? anchorCount : -1;
+        StatisticsStripes s = stripes;
+        if (s == null) {
+            statistics.runtime += runtime;
+            statistics.runtimeCount++;
+            if (mode != LATENCY_OFF) {
+                statistics.recordRuntime(Math.max(runtime, 0), key);
+            }
+            return;
+        }
+        EvaluationStatistics stripe = s.get();
+        synchronized (stripe) {
+            stripe.runtime += runtime;
+            stripe.runtimeCount++;
+            if (mode != LATENCY_OFF) {
+                stripe.recordRuntime(Math.max(runtime, 0), key);
+            }
+        }
+    }
+
+    /**
+     * Sets the latency recording mode.
+     * <p>
+     * With {@code LATENCY_TOTAL} or {@code LATENCY_PER_ANCHOR_COUNT} every
+     * runtime passed to {@code addRuntime()} is also counted in a histogram
+     * (bounded memory, relative error below 1%), which allows to query tail
+     * latencies like the 99th percentile.
+     *
+     * @param mode Either <code>LATENCY_OFF</code>, <code>LATENCY_TOTAL</code>
+     *             or <code>LATENCY_PER_ANCHOR_COUNT</code>.
+     *
+     * @throws IllegalArgumentException If the mode is unknown.
+     */
+    public void setLatencyRecording(int mode) {
+        if (mode != LATENCY_OFF && mode != LATENCY_TOTAL
+                && mode != LATENCY_PER_ANCHOR_COUNT) {
+            throw new IllegalArgumentException("unknown latency recording mode: " + mode);
+        }
+        latencyMode = mode;
+    }
+
+    /**
+     * Returns the latency recording mode.
+     *
+     * @return The latency recording mode.
+     */
+    public int getLatencyRecording() {
+        return latencyMode;
+    }
+
+    /**
+     * Sets the sampling rate of {@code timedLocalize()}: only every k-th
+     * call is timed, e.g. to keep the overhead negligible in production.
+     * <p>
+     * Note that the runtime sum then only contains the sampled calls, the
+     * average runtime is taken over the sampled calls, see
+     * {@link #getAverageRuntime()}.
+     *
+     * @param k The sampling rate, {@code 1} to time every call (default).
+     *
+     * @throws IllegalArgumentException If the sampling rate is not positive.
+     */
+    public void setLatencySampling(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("sampling rate must be positive");
+        }
+        latencySampling = k;
+    }
+
+    /**
+     * Returns the number of runtimes recorded in the runtime histogram.
+     *
+     * @return The number of recorded runtimes.
+     */
+    public long getLatencyCount() {
+        QuantileHistogram h = statistics(false).runtimeHistogram;
+        return h != null ? h.getCount() : 0;
+    }
+
+    /**
+     * Returns the runtime at the given percentile, e.g. {@code 50},
+     * {@code 95}, {@code 99}, {@code 99.9} or {@code 100} for the maximum.
+     *
+     * @param p The percentile between 0 and 100.
+     *
+     * @return The runtime in nanoseconds or {@code 0} if no runtime has
+     *         been recorded.
+     */
+    public double getLatencyPercentile(double p) {
+        QuantileHistogram h = statistics(false).runtimeHistogram;
+        return h != null ? h.getPercentile(p) : 0;
+    }
+
+    /**
+     * Returns the runtime at the given percentile for the given anchor
+     * count, recorded in <code>LATENCY_PER_ANCHOR_COUNT</code> mode.
+     *
+     * @param p The percentile between 0 and 100.
+     * @param anchorCount The number of anchors.
+     *
+     * @return The runtime in nanoseconds or {@code 0} if no runtime has
+     *         been recorded for the given anchor count.
+     */
+    public double getLatencyPercentile(double p, int anchorCount) {
+        QuantileHistogram h = statistics(false).runtimeHistogramV.get(anchorCount);
+        return h != null ? h.getPercentile(p) : 0;
+    }
+
+    /**
+     * Returns a copy of the runtime histogram.
+     *
+     * @return The distribution of the recorded runtimes in nanoseconds.
+     */
+    public QuantileHistogram getLatencyHistogram() {
+        QuantileHistogram h = statistics(false).runtimeHistogram;
+        return h != null ? new QuantileHistogram(h) : new QuantileHistogram();
     }
 
     /**
@@ -411,9 +874,15 @@ public abstract class BasicLaterationAlgorithm implements LaterationAlgorithm {
      * Reset bias only.
      */
     public void resetEstimationBias() {
-        estimationBiasCnt = 0;
-        estimationBiasX = 0;
-        estimationBiasY = 0;
+        statistics.resetEstimationBias();
+        StatisticsStripes s = stripes;
+        if (s != null) {
+            for (EvaluationStatistics stripe : s.all) {
+                synchronized (stripe) {
+                    stripe.resetEstimationBias();
+                }
+            }
+        }
     }
 
     @Override
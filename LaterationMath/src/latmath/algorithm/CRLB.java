@@ -2,7 +2,7 @@ package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
 import latmath.errormodel.ErrorModelLos;
-import latmath.util.Matrix;
+import latmath.util.Mat2;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
 
@@ -65,20 +65,19 @@ public final class CRLB extends BasicLaterationAlgorithm implements LowerBoundEs
         }
         
         double variance = ((ErrorModelLos)errorModel).getVariance();
-        double[][] a = new double[2][2];
+        // Fisher information matrix
+        Mat2 mA = new Mat2();
         for (int l = 0; l < anchors.length; l++) {
             double xDiff = (actualPosition.x - anchors[l].x);
             double yDiff = (actualPosition.y - anchors[l].y);
             double dSquare = xDiff * xDiff + yDiff * yDiff;
-            a[0][0] += (xDiff * xDiff) / (variance * dSquare);
-            a[0][1] += (xDiff * yDiff) / (variance * dSquare);
-            a[1][0] += (xDiff * yDiff) / (variance * dSquare);
-            a[1][1] += (yDiff * yDiff) / (variance * dSquare);
+            mA.addOuter(xDiff, yDiff, 1 / (variance * dSquare));
         }
         
-        Matrix mA = new Matrix(a);
-        mA = mA.inverse();
-        double crlb = mA.cell(0, 0) + mA.cell(1, 1);
+        if (!mA.invert()) {
+            return null;
+        }
+        double crlb = mA.trace();
         return new Point2d(crlb, crlb);
     }
 
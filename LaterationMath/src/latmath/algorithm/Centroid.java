@@ -2,7 +2,7 @@ package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
 import latmath.util.Circle;
-import latmath.util.LMath;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
 
@@ -26,10 +26,25 @@ public class Centroid extends BasicLaterationAlgorithm implements Releasable {
         return "CENTROID";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
-        return multilaterate(anchors, ranges);
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            if (!multilaterate(ws.getX(n), ws.getY(n), ranges, e)) {
+                return null;
+            }
+            return new Point2d(e[0], e[1]);
+        } finally {
+            releaseWorkspace(ws);
+        }
     }
 
     /**
@@ -63,59 +78,63 @@ public class Centroid extends BasicLaterationAlgorithm implements Releasable {
         }
 
         // step 1: calculate circle intersections
-        int n = anchors.length;
-        int k = 2;
-        int[] permutations = new int[k];
-        int binom = LMath.binom(n, k);
-        Point2d[][] intersections = new Point2d[binom][];
+        Point2d[] points = Circle.getIntersections(anchors, ranges);
 
-        // initialisation for calculating k-permutations
-        for (int i = 0; i < permutations.length; i++) {
-            permutations[i] = i;
+        // check if any intersections available
+        if (points.length == 0) {
+            return null;
         }
 
-        // build all k-permutations
-        for (int i = 0; i < binom; i++) {
-            intersections[i] =
-                    Circle.getIntersection(anchors[permutations[0]],
-                    ranges[permutations[0]], anchors[permutations[1]],
-                    ranges[permutations[1]]);
-            // build next permutation
-            if (i == binom - 1) break;
-            int j = k - 1;
-            while (j >= 0) {
-                if (!LMath.incCounter(permutations, j, n, k)) break;
-                j--;
-            }
-            for (int l = j+1; l < k; l++) {
-                permutations[l] = permutations[l-1] + 1;
-            }
-        }
+        // return center of mass as result
+        return Point2d.centerOfMass(points);
+    }
 
-        // copy intersections into one array
-        int totalLength = 0;
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] == null) continue;
-            totalLength += intersections[i].length;
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Does not allocate any memory: instead of storing all intersections,
+     * the center of each pair of intersections is summed up per intersection.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if no position could
+     *         be calculated, e.g. localization failed.
+     */
+    public static boolean multilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] result) {
+        // step 0: sanity check
+        int n = ranges.length;
+        if (xs.length != n || ys.length != n) {
+            return false;
         }
 
-        // check if any intersections available
-        if (totalLength == 0) {
-            return null;
+        // step 1: sum up circle intersections of all pairs
+        double x = 0, y = 0;
+        int total = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int count = Circle.getIntersectionCenter(xs[i], ys[i],
+                        ranges[i], xs[j], ys[j], ranges[j], result, 0);
+                if (count > 0) {
+                    x += count * result[0];
+                    y += count * result[1];
+                    total += count;
+                }
+            }
         }
 
-        // execute the copying
-        int currentLength = 0;
-        Point2d[] points = new Point2d[totalLength];
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] == null) continue;
-            for (int j = 0; j < intersections[i].length; j++) {
-                points[currentLength++] = intersections[i][j];
-            }
+        // check if any intersections available
+        if (total == 0) {
+            return false;
         }
 
         // return center of mass as result
-        return Point2d.centerOfMass(points);
+        result[0] = x / total;
+        result[1] = y / total;
+        return true;
     }
 
 }
@@ -0,0 +1,307 @@
+package latmath.algorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import latmath.util.LMath;
+import latmath.util.Point2d;
+import latmath.util.Selection;
+
+/**
+ * Clustering steps 4 to 7 of CluRoL, shared by
+ * {@link ClusteringBasedRobustLocalization} and
+ * {@link ClusteringBasedRobustLocalization2}.
+ * <p>
+ * Clusters are kept in an index based union-find structure with running
+ * centroid sums, so finding the clusters of both points of a tuple and
+ * merging two clusters take almost constant time and the clustering cost
+ * is dominated by sorting the pairwise distance tuples. Tuples are kept in
+ * primitive arrays and sorted by an index merge sort.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+final class CluRoLClustering {
+
+    /** Runs up to this length are sorted by insertion sort */
+    private static final int RUN = 32;
+
+    private CluRoLClustering() {}
+
+    /**
+     * Finds the maximum cluster of the given circle intersection points.
+     * <p>
+     * Equal points are treated as one point, i.e. the result contains no
+     * duplicates.
+     * <p>
+     * If <code>thresholdPairsOnly</code> is set, the distance threshold is
+     * selected from the unsorted pairwise distances and only the tuples
+     * with a distance up to the threshold are sorted and clustered. Farther
+     * tuples never add points to existing clusters, but in the full
+     * algorithm they can still found new clusters and trigger merges, so
+     * the result may differ.
+     *
+     * @param points The circle intersection points, at least two.
+     * @param n The number of anchors.
+     * @param thresholdPairsOnly {@code true} to sort and cluster only the
+     *                           tuples up to the distance threshold.
+     *
+     * @return The points of the maximum cluster.
+     */
+    static Point2d[] findMaxCluster(Point2d[] points, int n,
+            boolean thresholdPairsOnly) {
+        int num = points.length;
+
+        // map equal points to the index of their first occurrence
+        int[] id = new int[num];
+        Map<Point2d, Integer> first = new HashMap<>(2 * num);
+        for (int i = 0; i < num; i++) {
+            Integer j = first.get(points[i]);
+            if (j == null) {
+                first.put(points[i], i);
+                id[i] = i;
+            } else {
+                id[i] = j;
+            }
+        }
+
+        // step 4: calculate all pairwise distances
+        int m = LMath.binom(num, 2);
+        double[] d = new double[m];
+        int k = 0;
+        for (int i = 0; i < num-1; i++) {
+            for (int j = i+1; j < num; j++) {
+                d[k++] = points[i].distance(points[j]);
+            }
+        }
+
+        // step 6 (first part): rank of the n-th percentile tuple
+        int alpha = LMath.binom((int)(Math.ceil(n/2.0) + 2), 2);
+        int beta = 2 * LMath.binom(n, 2);
+        double nth = (LMath.binom(alpha, 2)/(double)LMath.binom(beta, 2));
+        int nthPercentile = (int) Math.round((nth * m) + 0.5);
+        nthPercentile = Math.min(nthPercentile, m);
+
+        double dth;
+        int[] x, y;
+        if (thresholdPairsOnly) {
+            // step 6: select threshold, reorders the distances
+            dth = Selection.select(d, m, nthPercentile);
+
+            // collect tuples up to the threshold only
+            int count = 0;
+            for (int i = 0; i < m; i++) {
+                if (d[i] <= dth) {
+                    count++;
+                }
+            }
+            x = new int[count];
+            y = new int[count];
+            k = 0;
+            for (int i = 0; i < num-1 && k < count; i++) {
+                for (int j = i+1; j < num && k < count; j++) {
+                    double dist = points[i].distance(points[j]);
+                    if (dist <= dth) {
+                        x[k] = id[i];
+                        y[k] = id[j];
+                        d[k++] = dist;
+                    }
+                }
+            }
+            m = count;
+        } else {
+            x = new int[m];
+            y = new int[m];
+            k = 0;
+            for (int i = 0; i < num-1; i++) {
+                for (int j = i+1; j < num; j++) {
+                    x[k] = id[i];
+                    y[k++] = id[j];
+                }
+            }
+            dth = Double.NaN;
+        }
+
+        // step 5: sort tuples in ascending order of the pairwise distances
+        int[] order = sort(d, m);
+
+        // step 6: calculate distance threshold as n-th percentile tuple's
+        //         pairwise distance value
+        if (!thresholdPairsOnly) {
+            dth = d[order[nthPercentile-1]];
+        }
+
+        // step 7: findMaxCluster subroutine
+        return findMaxCluster(points, id, x, y, d, order, dth);
+    }
+
+    /**
+     * Sorts the first <code>m</code> tuples by distance (stable merge sort).
+     *
+     * @param d The distances of the tuples.
+     * @param m The number of tuples.
+     *
+     * @return The tuple indices in ascending order of the distances, equal
+     *         distances in ascending order of the indices.
+     */
+    private static int[] sort(double[] d, int m) {
+        int[] order = new int[m];
+        int[] tmp = new int[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        // insertion sort of small runs
+        for (int lo = 0; lo < m; lo += RUN) {
+            int hi = Math.min(lo + RUN, m);
+            for (int i = lo + 1; i < hi; i++) {
+                int t = order[i];
+                int j = i;
+                while (j > lo && d[order[j-1]] > d[t]) {
+                    order[j] = order[j-1];
+                    j--;
+                }
+                order[j] = t;
+            }
+        }
+        // merge runs bottom-up
+        for (int width = RUN; width < m; width *= 2) {
+            for (int lo = 0; lo < m - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, m);
+                if (d[order[mid-1]] <= d[order[mid]]) {
+                    continue;
+                }
+                System.arraycopy(order, lo, tmp, lo, hi - lo);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    order[k++] = d[tmp[j]] < d[tmp[i]] ? tmp[j++] : tmp[i++];
+                }
+                while (i < mid) {
+                    order[k++] = tmp[i++];
+                }
+                while (j < hi) {
+                    order[k++] = tmp[j++];
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Finds maximum cluster.
+     * <p>
+     * A point belongs to no cluster if its parent is <code>-1</code>. The
+     * root of a cluster holds its size, the sums of its coordinates and
+     * its creation order, which decides between clusters of equal size.
+     *
+     * @param points The points.
+     * @param id The index of the first equal point of each point.
+     * @param px The first points of the tuples.
+     * @param py The second points of the tuples.
+     * @param d The distances of the tuples.
+     * @param sorted The tuple indices in ascending order of the distances.
+     * @param dth distance threshold value.
+     *
+     * @return The maximum cluster.
+     */
+    private static Point2d[] findMaxCluster(Point2d[] points, int[] id,
+            int[] px, int[] py, double[] d, int[] sorted, double dth) {
+        int num = points.length;
+        int[] parent = new int[num];
+        int[] size = new int[num];
+        int[] order = new int[num];
+        double[] sumX = new double[num];
+        double[] sumY = new double[num];
+        Arrays.fill(parent, -1);
+        int clusters = 0;
+
+        for (int i = 0; i < sorted.length; i++) {
+            int t = sorted[i];
+            int x = px[t];
+            int y = py[t];
+            int cx = parent[x] < 0 ? -1 : find(parent, x);
+            int cy = parent[y] < 0 ? -1 : find(parent, y);
+
+            if (cx < 0 && cy < 0) {
+                // x and y not in any cluster, add to a new cluster,
+                // paper lines 5..7
+                parent[x] = x;
+                size[x] = 0;
+                sumX[x] = 0;
+                sumY[x] = 0;
+                order[x] = clusters++;
+                add(points, parent, size, sumX, sumY, x, x);
+                if (y != x) {
+                    add(points, parent, size, sumX, sumY, x, y);
+                }
+            } else if (cy < 0) {
+                // x in cluster and y does not belong to any cluster,
+                // paper lines 8..12
+                if (d[t] <= dth) {
+                    add(points, parent, size, sumX, sumY, cx, y);
+                }
+            } else if (cx < 0) {
+                // y in cluster and x does not belong to any cluster,
+                // paper lines 13..17
+                if (d[t] <= dth) {
+                    add(points, parent, size, sumX, sumY, cy, x);
+                }
+            } else if (cx != cy) {
+                // need to check if Cx and Cy can be merged, paper lines 18..26
+                double dx = sumX[cx]/size[cx] - sumX[cy]/size[cy];
+                double dy = sumY[cx]/size[cx] - sumY[cy]/size[cy];
+                if (Math.sqrt(dx*dx + dy*dy) <= dth) {
+                    // merged cluster takes the place of Cx
+                    int root = size[cx] >= size[cy] ? cx : cy;
+                    int child = root == cx ? cy : cx;
+                    parent[child] = root;
+                    size[root] += size[child];
+                    sumX[root] += sumX[child];
+                    sumY[root] += sumY[child];
+                    order[root] = order[cx];
+                }
+            }
+        }
+
+        // cluster with maximum cardinality, the first one created on ties
+        int maxRoot = -1;
+        for (int i = 0; i < num; i++) {
+            if (parent[i] == i && (maxRoot < 0 || size[i] > size[maxRoot]
+                    || (size[i] == size[maxRoot] && order[i] < order[maxRoot]))) {
+                maxRoot = i;
+            }
+        }
+
+        Point2d[] maxCluster = new Point2d[size[maxRoot]];
+        int k = 0;
+        for (int i = 0; i < num; i++) {
+            if (id[i] == i && parent[i] >= 0 && find(parent, i) == maxRoot) {
+                maxCluster[k++] = points[i];
+            }
+        }
+        return maxCluster;
+    }
+
+    /**
+     * Adds a point to a cluster.
+     */
+    private static void add(Point2d[] points, int[] parent, int[] size,
+            double[] sumX, double[] sumY, int root, int p) {
+        parent[p] = root;
+        size[root]++;
+        sumX[root] += points[p].x;
+        sumY[root] += points[p].y;
+    }
+
+    /**
+     * Returns the root of the cluster of a point (with path halving).
+     */
+    private static int find(int[] parent, int p) {
+        while (parent[p] != p) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+}
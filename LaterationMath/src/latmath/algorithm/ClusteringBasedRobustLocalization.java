@@ -4,19 +4,13 @@ import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 import latmath.errormodel.ErrorModel;
 import latmath.util.Circle;
-import latmath.util.LMath;
 import latmath.util.Point2d;
 import latmath.util.PositionEstimate;
 import latmath.util.Releasable;
@@ -46,16 +40,23 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
      * Seems to be a relative value to current distance measured.
      */
     private double dMax = 0.05;
+
+    /**
+     * Sort and cluster only pairwise distance tuples up to the distance
+     * threshold instead of all tuples.
+     */
+    private boolean thresholdPairsOnly = false;
     
     @Override
     public String getName() {
-        return "CluRoL (LLS) [dMax=" + dMax + "]";
+        return "CluRoL (LLS) [dMax=" + dMax
+                + (thresholdPairsOnly ? ", tuples <= dth" : "") + "]";
     }
 
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
-        return multilaterate(anchors, ranges, dMax);
+        return multilaterate(anchors, ranges, dMax, thresholdPairsOnly);
     }
 
     /**
@@ -102,6 +103,22 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
         tmp.add(lContainer);
         tmp.add(clurolDmax);
         content.add(tmp);
+
+        // Add next control
+        tmp = new JPanel();
+        tmp.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+        // Create control
+        final JCheckBox cbThresholdPairsOnly = new JCheckBox();
+        cbThresholdPairsOnly.setSelected(thresholdPairsOnly);
+        // Create label and add control
+        lContainer = new JPanel();
+        lContainer.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+        lContainer.setPreferredSize(new Dimension(lWidth, 30));
+        label = new JLabel("Cluster tuples <= dth only:");
+        lContainer.add(label);
+        tmp.add(lContainer);
+        tmp.add(cbThresholdPairsOnly);
+        content.add(tmp);
         
         final ConfigDialog dialog = new ConfigDialog(parent, true);
 
@@ -110,6 +127,7 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
             @Override
             public void actionPerformed(ActionEvent e) {
                 dMax = (Double) clurolDmax.getValue();
+                thresholdPairsOnly = cbThresholdPairsOnly.isSelected();
                 dialog.dispose();
             }
         };
@@ -146,6 +164,31 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
      */
     public static Point2d multilaterate(Point2d[] anchors, double[] ranges,
             double dMax) {
+        return multilaterate(anchors, ranges, dMax, false);
+    }
+
+    /**
+     * Static call to this lateration algorithm.
+     * <p>
+     * With <code>thresholdPairsOnly</code> set, the distance threshold is
+     * selected without sorting and only the pairwise distance tuples up to
+     * the threshold are sorted and clustered. This is much faster for many
+     * intersection points, but may give different results, see
+     * {@link CluRoLClustering#findMaxCluster(Point2d[], int, boolean)}.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param dMax Maximum measurement error in distance estimation process,
+     *             in the paper used as uniform random variable ~U[-dMax,dMax].
+     * @param thresholdPairsOnly {@code true} to sort and cluster only the
+     *                           tuples up to the distance threshold.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated, e.g.
+     *         localization failed.
+     */
+    public static Point2d multilaterate(Point2d[] anchors, double[] ranges,
+            double dMax, boolean thresholdPairsOnly) {
         
         // step 0: sanity check
         if (anchors.length != ranges.length) {
@@ -157,36 +200,8 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
         int ancStatusTaken = 0;
         boolean[] ancStatus = new boolean[n];
 
-        // step 2: calculate circle intersections
-        int binom = LMath.binom(n, 2);
-        Point2d[][] intersections = new Point2d[binom][];
-
-        int num = 0;
-        for (int i = 0; i < anchors.length-1; i++) {
-            for (int j = i+1; j < anchors.length; j++) {
-                // Berechne Schnittpunkte mit aktueller Permutation
-                intersections[num] = Circle.getIntersection(anchors[i],
-                        ranges[i], anchors[j], ranges[j]);
-                num++;
-            }
-        }
-
-        // step 3: copy intersections into one array
-        int totalLength = 0;
-        int currentLength = 0;
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] != null) {
-                totalLength += intersections[i].length;
-            }
-        }
-        Point2d[] points = new Point2d[totalLength];
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] != null) {
-                System.arraycopy(intersections[i], 0, points, currentLength,
-                        intersections[i].length);
-                currentLength += intersections[i].length;
-            }
-        }
+        // step 2+3: calculate circle intersections into one array
+        Point2d[] points = Circle.getIntersections(anchors, ranges);
 
         if (points.length < 2) {
             // no sense to do CluRoL, return NLLS here
@@ -195,36 +210,13 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
             return pe != null ? pe.getLocation() : null;
         }
 
-        // step 4: build all pairwise distance tuples
-        num = 0;
-        binom = LMath.binom(points.length, 2);
-        PairwiseDistanceTuple[] D = new PairwiseDistanceTuple[binom];
-        for (int i = 0; i < points.length-1; i++) {
-            for (int j = i+1; j < points.length; j++) {
-                D[num++] = new PairwiseDistanceTuple(points[i], points[j]);
-            }
-        }
-
-        // step 5: sort D in ascending order of the pairwise distances
-        Arrays.sort(D);
-
-        // step 6: calculate distance threshold as n-th percentile tuple’s
-        //         pairwise distance value
-        int alpha = LMath.binom((int)(Math.ceil(n/2.0) + 2), 2);
-        int beta = 2 * LMath.binom(n, 2);
-        double nth = (LMath.binom(alpha, 2)/(double)LMath.binom(beta, 2));
-        int nthPercentile = (int) Math.round((nth * D.length) + 0.5);
-        nthPercentile = Math.min(nthPercentile, D.length);
-        double dth = D[nthPercentile-1].d;
-
-        // step 7: call findMaxCluster subroutine
-        Set<Point2d> cMax = findMaxCluster(D, dth);
+        // step 4-7: cluster intersection points, find maximum cluster
+        Point2d[] cMax = CluRoLClustering.findMaxCluster(points, n,
+                thresholdPairsOnly);
 
         // step 8: determine anchors for Minimum Squared Error (MSE) method
         double boundConst = (1 + dMax) * (1 + dMax);
-        Iterator<Point2d> iter = cMax.iterator();
-        while (iter.hasNext()) {
-            Point2d x = iter.next();
+        for (Point2d x : cMax) {
             for (int i = 0; i < n; i++) {
                 double ub = ranges[i] * boundConst;
                 double lb = ranges[i] / boundConst;
@@ -239,7 +231,7 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
         }
 
         // step 9: copy anchors and ranges into new array and localize
-        num = 0;
+        int num = 0;
         Point2d[] anchorsTaken = new Point2d[ancStatusTaken];
         double[] rangesTaken = new double[ancStatusTaken];
         for (int i = 0; i < n; i++) {
@@ -254,134 +246,4 @@ public class ClusteringBasedRobustLocalization extends BasicLaterationAlgorithm
         return pe != null ? pe.getLocation() : null;
     }
 
-    /**
-     * Finds maximum cluster.
-     *
-     * @param D Sorted list of pairwise distance tuples.
-     * @param dth distance threshold value.
-     *
-     * @return The maximum cluster.
-     */
-    private static Set<Point2d> findMaxCluster(PairwiseDistanceTuple[] D,
-            double dth) {
-        List<Set<Point2d>> clusterList = new ArrayList<>();
-        
-        // Build initial cluster
-        Set<Point2d> firstCluster = new HashSet<>();
-        firstCluster.add(D[0].x);
-        firstCluster.add(D[0].y);
-        clusterList.add(firstCluster);
-
-        for (int i = 1; i < D.length; i++) {
-            Point2d x = D[i].x;
-            Point2d y = D[i].y;
-            double dist = D[i].d;
-            Set<Point2d> clusterOfX = null;
-            Set<Point2d> clusterOfY = null;
-            Iterator<Set<Point2d>> iter = clusterList.iterator();
-            while (iter.hasNext()) {
-                Set<Point2d> cluster = iter.next();
-                if (clusterOfX == null && cluster.contains(x)) {
-                    clusterOfX = cluster;
-                }
-                if (clusterOfY == null && cluster.contains(y)) {
-                    clusterOfY = cluster;
-                }
-                if (clusterOfX != null && clusterOfY != null) {
-                    break;
-                }
-            }
-
-            // test first condition, paper lines 5..7
-            if (clusterOfX == null && clusterOfY == null) {
-                // x and y not in any cluster, add to a new cluster
-                Set<Point2d> newCluster = new HashSet<>();
-                newCluster.add(x);
-                newCluster.add(y);
-                clusterList.add(newCluster);
-                // continue with for-loop
-                continue;
-            }
-
-            // test second condition, paper lines 8..12
-            if (clusterOfX != null && clusterOfY == null) {
-                // x in cluster and y does not belong to any cluster
-                if (dist <= dth) {
-                    clusterOfX.add(y);
-                }
-                // continue with for-loop
-                continue;
-            }
-
-            // test third condition, paper lines 13..17
-            if (clusterOfX == null && clusterOfY != null) {
-                // y in cluster and x does not belong to any cluster
-                if (dist <= dth) {
-                    clusterOfY.add(x);
-                }
-                // continue with for-loop
-                continue;
-            }
-
-            // test fourth condition, paper lines 18..26
-            if (clusterOfX != null && clusterOfY != null && clusterOfX != clusterOfY) {
-                // need to check if Cx and Cy can be merged
-                Point2d centroidCx = Point2d.centerOfMass(clusterOfX.toArray(new Point2d[0]));
-                Point2d centroidCy = Point2d.centerOfMass(clusterOfY.toArray(new Point2d[0]));
-                if (centroidCx.distance(centroidCy) <= dth) {
-                    // Merge both sets, remove one set from list
-                    clusterOfX.addAll(clusterOfY);
-                    clusterList.remove(clusterOfY);
-                }
-            }
-        }
-
-        // return cluster with maximum cardinality as result
-        Set<Point2d> maxCluster = clusterList.get(0);
-        for (int i = 1; i < clusterList.size(); i++) {
-            Set<Point2d> cluster = clusterList.get(i);
-            if (cluster.size() > maxCluster.size()) {
-                maxCluster = cluster;
-            }
-        }
-
-        return maxCluster;
-    }
-
-    /**
-     * Pairwise distance tuple class.
-     */
-    private static final class PairwiseDistanceTuple implements
-            Comparable<PairwiseDistanceTuple> {
-
-        /** The first point */
-        public Point2d x;
-
-        /** The second point */
-        public Point2d y;
-
-        /** The distance between both points */
-        public double d;
-
-        /**
-         * Creates a new instance of {@code PairwiseDistanceTuple}.
-         * <p>
-         * The distance between {@code x} and {@code y} is automatically set.
-         *
-         * @param x The first point.
-         * @param y The second point.
-         */
-        public PairwiseDistanceTuple(Point2d x, Point2d y) {
-            this.x = x;
-            this.y = y;
-            this.d = x.distance(y);
-        }
-
-        @Override
-        public int compareTo(PairwiseDistanceTuple o) {
-            return Double.compare(d, o.d);
-        }
-
-    }
-
 }
@@ -0,0 +1,280 @@
+package latmath.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import latmath.util.Point2d;
+import latmath.util.PositionEstimate;
+import latmath.util.PreciseStandardDeviation;
+import latmath.util.QuantileHistogram;
+import latmath.util.WelfordStandardDeviation;
+
+/**
+ * Accuracy metrics collected by {@code BasicLaterationAlgorithm.evaluate()}.
+ * <p>
+ * The position errors are always counted in a bounded-memory
+ * {@link QuantileHistogram}. The single error samples and estimated
+ * positions are only kept if {@code keepSamples} is set.
+ * <p>
+ * Instances are not thread-safe. In concurrent statistics mode every thread
+ * collects into its own instance and the instances are merged when the
+ * metrics are requested.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+final class EvaluationStatistics {
+
+    /** The number of runs (calls to evaluate() method) */
+    int n;
+
+    /** Number of failed localizations */
+    int localizationFailCount;
+
+    /** The absolute error for calculating MAE */
+    double absoluteError;
+
+    /** The maximum error */
+    double maximumError;
+
+    /** The square error for calculating MSE */
+    double squareError;
+
+    /** The square error for MMSE for calculating MSE */
+    double squareErrorMMSE;
+    double maxSquareErrorMMSE; // internal only
+
+    /** Whether all error samples and estimated positions are kept */
+    boolean keepSamples;
+
+    /** For securely calculating standard deviation (all samples) */
+    final PreciseStandardDeviation sdev;
+
+    /** Standard deviation without samples */
+    final WelfordStandardDeviation welford;
+
+    /** Distribution of the position errors */
+    final QuantileHistogram errorHistogram;
+
+    /** Estimated positions (for later evaluation, e.g. painting or logging) */
+    final List<Point2d> estimatedPositions;
+
+    /** Bias of estimator (e.g., if repeatedly positioning at same location) */
+    int estimationBiasCnt;
+    double estimationBiasX;
+    double estimationBiasY;
+
+    /** Runtime counter for this algorithm and the number of timed runs */
+    long runtime;
+    int runtimeCount;
+
+    /** Runtime distribution, null until the first runtime is recorded */
+    QuantileHistogram runtimeHistogram;
+
+    /** Runtime distribution per anchor count */
+    final Map<Integer, QuantileHistogram> runtimeHistogramV;
+
+    /** MAE per anchor count data */
+    final Map<Integer, MAEInfo> maeV;
+
+    static final class MAEInfo {
+        private int count = 0;
+        private double error = 0;
+        public void add(double e) {
+            error += e;
+            count++;
+        }
+        public double get() {
+            return count > 0 ? error / count : 0;
+        }
+    }
+
+    EvaluationStatistics(boolean keepSamples) {
+        this.keepSamples = keepSamples;
+        maeV = new HashMap<>();
+        runtimeHistogramV = new HashMap<>();
+        sdev = new PreciseStandardDeviation();
+        welford = new WelfordStandardDeviation();
+        errorHistogram = new QuantileHistogram();
+        estimatedPositions = new ArrayList<>();
+        reset();
+    }
+
+    void reset() {
+        n = localizationFailCount = 0;
+        maximumError = maxSquareErrorMMSE = Double.MIN_VALUE;
+        absoluteError = squareError = squareErrorMMSE = 0;
+        resetEstimationBias();
+        runtime = 0;
+        runtimeCount = 0;
+        runtimeHistogram = null;
+        runtimeHistogramV.clear();
+        maeV.clear();
+        sdev.reset();
+        welford.reset();
+        errorHistogram.reset();
+        estimatedPositions.clear();
+    }
+
+    /**
+     * Stops keeping the error samples and estimated positions and drops
+     * the ones collected so far.
+     */
+    void dropSamples() {
+        keepSamples = false;
+        sdev.reset();
+        estimatedPositions.clear();
+    }
+
+    double standardDeviation() {
+        return keepSamples ? sdev.standardDeviation() : welford.standardDeviation();
+    }
+
+    void resetEstimationBias() {
+        estimationBiasCnt = 0;
+        estimationBiasX = estimationBiasY = 0;
+    }
+
+    /**
+     * Accounts one localization, see
+     * {@link BasicLaterationAlgorithm#evaluate(Point2d[], double[], Point2d, Point2d)}.
+     */
+    double evaluate(Point2d[] anchors, double[] ranges,
+            Point2d estimatedPosition, Point2d actualPosition) {
+        double tmpError;
+        double tmpError2;
+
+        // also add null's to list (to reflect failed calculations
+        // and to stay in sync with actual position list)
+        if (keepSamples) {
+            estimatedPositions.add(estimatedPosition);
+        }
+
+        // account for failed localizations
+        if (estimatedPosition == null) {
+            localizationFailCount++;
+            return -1;
+        }
+        // in simulation this won't happen, but maybe in real world
+        // deployments because actual position isn't available
+        if (actualPosition == null) {
+            return -1;
+        }
+
+        // if estimated position is available, then calculate errors
+        tmpError = actualPosition.distance(estimatedPosition);
+        tmpError2 = PositionEstimate.calculateResidualError(anchors,
+                ranges, estimatedPosition) / anchors.length;
+        if (tmpError > maximumError) {
+            maximumError = tmpError;
+        }
+        if (tmpError2 > maxSquareErrorMMSE) {
+            maxSquareErrorMMSE = tmpError2;
+        }
+
+        // update MAE per anchor count
+        int c = anchors.length;
+        MAEInfo maeI = maeV.get(c);
+        if (maeI == null) {
+            maeI = new MAEInfo();
+            maeV.put(c, maeI);
+        }
+        maeI.add(tmpError);
+
+        // update accuracy metric counters
+        absoluteError += tmpError;
+        squareError += (tmpError * tmpError);
+        squareErrorMMSE += tmpError2;
+        estimationBiasCnt++;
+        estimationBiasX += estimatedPosition.x - actualPosition.x;
+        estimationBiasY += estimatedPosition.y - actualPosition.y;
+        if (keepSamples) {
+            sdev.addSample(tmpError);
+        }
+        welford.addSample(tmpError);
+        errorHistogram.add(tmpError);
+        n++;
+        return tmpError;
+    }
+
+    /**
+     * Records the runtime of one localization in the runtime histograms.
+     *
+     * @param runtime The runtime in nanoseconds.
+     * @param anchorCount The number of anchors or {@code -1} if unknown
+     *                    or not to be recorded per anchor count.
+     */
+    void recordRuntime(long runtime, int anchorCount) {
+        if (runtimeHistogram == null) {
+            runtimeHistogram = new QuantileHistogram();
+        }
+        runtimeHistogram.add(runtime);
+        if (anchorCount >= 0) {
+            QuantileHistogram h = runtimeHistogramV.get(anchorCount);
+            if (h == null) {
+                h = new QuantileHistogram();
+                runtimeHistogramV.put(anchorCount, h);
+            }
+            h.add(runtime);
+        }
+    }
+
+    /**
+     * Adds the metrics of another instance to this one.
+     *
+     * @param other The metrics to be added.
+     * @param samples Whether to merge the error samples and estimated
+     *                positions as well; skipping them keeps merging cheap
+     *                for the other metrics. If <code>other</code> does not
+     *                keep samples, this instance stops keeping them too.
+     */
+    void merge(EvaluationStatistics other, boolean samples) {
+        n += other.n;
+        localizationFailCount += other.localizationFailCount;
+        absoluteError += other.absoluteError;
+        maximumError = Math.max(maximumError, other.maximumError);
+        squareError += other.squareError;
+        squareErrorMMSE += other.squareErrorMMSE;
+        maxSquareErrorMMSE = Math.max(maxSquareErrorMMSE, other.maxSquareErrorMMSE);
+        estimationBiasCnt += other.estimationBiasCnt;
+        estimationBiasX += other.estimationBiasX;
+        estimationBiasY += other.estimationBiasY;
+        runtime += other.runtime;
+        runtimeCount += other.runtimeCount;
+        for (Map.Entry<Integer, MAEInfo> e : other.maeV.entrySet()) {
+            MAEInfo maeI = maeV.get(e.getKey());
+            if (maeI == null) {
+                maeI = new MAEInfo();
+                maeV.put(e.getKey(), maeI);
+            }
+            maeI.error += e.getValue().error;
+            maeI.count += e.getValue().count;
+        }
+        if (other.runtimeHistogram != null) {
+            if (runtimeHistogram == null) {
+                runtimeHistogram = new QuantileHistogram();
+            }
+            runtimeHistogram.merge(other.runtimeHistogram);
+        }
+        for (Map.Entry<Integer, QuantileHistogram> e : other.runtimeHistogramV.entrySet()) {
+            QuantileHistogram h = runtimeHistogramV.get(e.getKey());
+            if (h == null) {
+                h = new QuantileHistogram();
+                runtimeHistogramV.put(e.getKey(), h);
+            }
+            h.merge(e.getValue());
+        }
+        welford.merge(other.welford);
+        errorHistogram.merge(other.errorHistogram);
+        if (!other.keepSamples) {
+            dropSamples();
+        } else if (samples && keepSamples) {
+            for (double d : other.sdev.getSamples()) {
+                sdev.addSample(d);
+            }
+            estimatedPositions.addAll(other.estimatedPositions);
+        }
+    }
+
+}
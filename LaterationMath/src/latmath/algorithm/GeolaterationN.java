@@ -4,7 +4,6 @@ import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
@@ -14,11 +13,12 @@ import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 import latmath.errormodel.ErrorModel;
 import latmath.util.Circle;
-import latmath.util.IntersectionPoint2d;
-import latmath.util.LMath;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
-import latmath.util.QuickSelect;
+import latmath.util.PointGrid;
+import latmath.util.PointQuadtree;
 import latmath.util.Releasable;
+import latmath.util.Selection;
 import latmath.util.dialog.ConfigDialog;
 
 /**
@@ -59,6 +59,18 @@ public class GeolaterationN extends BasicLaterationAlgorithm implements Releasab
     /** Bilateration approx method */
     public static final int APPROX_2 = 2;
     
+    /** Number of intersections from which step 4 uses a grid */
+    private static final int GRID_LIMIT = 64;
+
+    /**
+     * Number of intersections up to which the distance sums of step 5b are
+     * calculated exactly, above they are approximated by a quadtree
+     */
+    private static final int EXACT_DISTANCE_SUM_LIMIT = 512;
+
+    /** Accuracy of approximated distance sums: relative error <= 1.35% */
+    private static final double DISTANCE_SUM_THETA = 0.3;
+
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
     
@@ -110,6 +122,11 @@ public class GeolaterationN extends BasicLaterationAlgorithm implements Releasab
         super.reset();
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
@@ -119,6 +136,50 @@ public class GeolaterationN extends BasicLaterationAlgorithm implements Releasab
                 weightApproxIntersection, finalPositionAlgorithm);
     }
 
+    /**
+     * Batch version of this lateration algorithm.
+     * <p>
+     * The configuration is read and the intersection buffers are borrowed
+     * once for the whole batch.
+     */
+    @Override
+    public int localizeBatch(double[] xs, double[] ys, double[] ranges,
+            int count, double[] estX, double[] estY) {
+        checkBatch(xs, ys, ranges, count, estX, estY);
+        int n = xs.length;
+        LocalizationWorkspace ws = LocalizationWorkspace.acquire(n);
+        double[] row = ws.getRanges(n);
+        double[] e = ws.getResult();
+        boolean approx = doApprox;
+        int approxM = approxMethod;
+        boolean filter1 = doFilter1;
+        boolean filter1Approx = doFilter1IncludeApprox;
+        int limit = filter1Limit;
+        boolean filter2 = doFilter2;
+        double factor = medianFactor;
+        double weightReal = weightRealIntersection;
+        double weightApprox = weightApproxIntersection;
+        int fpa = finalPositionAlgorithm;
+        int success = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(ranges, i * n, row, 0, n);
+                if (n > 2 && multilaterate(xs, ys, row, approx, approxM, filter1,
+                        filter1Approx, limit, filter2, factor, weightReal,
+                        weightApprox, fpa, ws, e)) {
+                    estX[i] = e[0];
+                    estY[i] = e[1];
+                    success++;
+                } else {
+                    estX[i] = estY[i] = Double.NaN;
+                }
+            }
+        } finally {
+            LocalizationWorkspace.release(ws);
+        }
+        return success;
+    }
+
     /**
      * Returns a string representation of this lateration algorithm.
      *
@@ -385,127 +446,205 @@ public class GeolaterationN extends BasicLaterationAlgorithm implements Releasab
         if (anchors.length != ranges.length) {
             return null;
         }
-
-        // step 1: calculate circle intersections
         int n = anchors.length;
-        int binom = LMath.binom(n, 2);
-        IntersectionPoint2d[][] intersections = new IntersectionPoint2d[binom][];
-
-        // build all k-permutations
-        int num = 0;
-        for (int i = 0; i < anchors.length-1; i++) {
-            for (int j = i+1; j < anchors.length; j++) {
-                // set weight for intersection to one, scale later
-                double weight = 1;
-                // Berechne Schnittpunkte mit aktueller Permutation
-                intersections[num] = IntersectionPoint2d.convertA(
-                        Circle.getIntersection(anchors[i],
-                        ranges[i], anchors[j],
-                        ranges[j]), weight);
-                // no intersection => try to get approximated intersection
-                if (doApprox && intersections[num] == null) {
-                    Point2d pft;
-                    if (approxMethod == APPROX_1) {
-                        pft = Circle.getIntersectionApprox(
-                            anchors[i], ranges[i],
-                            anchors[j], ranges[j]);
-                    } else {
-                        pft = Circle.getIntersectionApprox2(
-                            anchors[i], ranges[i],
-                            anchors[j], ranges[j]);
-                    }
-                    if (pft != null) {
-                        intersections[num] = new IntersectionPoint2d[] {
-                            IntersectionPoint2d.convert(pft, false, weight)
-                        };
-                    }
-                }
-                if (intersections[num] != null) {
-                    num++;
-                }
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            double[] result = ws.getResult();
+            if (!multilaterate(ws.getX(n), ws.getY(n), ranges, doApprox,
+                    approxMethod, doFilter1, doFilter1IncludeApprox,
+                    filter1Limit, doFilter2, medianFactor,
+                    weightRealIntersection, weightApproxIntersection,
+                    finalPositionAlgorithm, ws, result)) {
+                return null;
             }
+            return new Point2d(result[0], result[1]);
+        } finally {
+            releaseWorkspace(ws);
         }
+    }
 
-        // step 2: copy intersections into one array
-        int totalLength = 0;
-        int currentLength = 0;
-        for (int i = 0; i < num; i++) {
-            totalLength += intersections[i].length;
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Intersections are kept in the primitive buffers of the current
+     * thread's {@link LocalizationWorkspace} instead of one object per
+     * intersection.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param doApprox Use approximation for circle intersections.
+     * @param approxMethod The method to use for approximation of circle intersections.
+     * @param doFilter1 Use minimum circle containment filter.
+     * @param doFilter1IncludeApprox Filter also approximated circle intersections.
+     * @param filter1Limit Threshold for minimum circle containment filter.
+     * @param doFilter2 Use median filter.
+     * @param medianFactor Weighting factor for median filter.
+     * @param weightRealIntersection Weight scale of real intersection point.
+     * @param weightApproxIntersection Weight scale of approximated intersection point.
+     * @param finalPositionAlgorithm Algorithm for final position estimation
+     *                               after intersection building and filtering,
+     *                               must be either <code>CENTER_OF_MASS</code>
+     *                               or <code>GEOMETRIC_MEDIAN</code>.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if no position could
+     *         be calculated, e.g. localization failed.
+     */
+    public static boolean multilaterate(double[] xs, double[] ys, double[] ranges,
+            boolean doApprox, int approxMethod, boolean doFilter1, boolean doFilter1IncludeApprox, int filter1Limit,
+            boolean doFilter2, double medianFactor, double weightRealIntersection,
+            double weightApproxIntersection, int finalPositionAlgorithm,
+            double[] result) {
+        // step 0: sanity check
+        int n = ranges.length;
+        if (xs.length != n || ys.length != n) {
+            return false;
         }
-        IntersectionPoint2d[] points = new IntersectionPoint2d[totalLength];
-        for (int i = 0; i < num; i++) {
-            System.arraycopy(intersections[i], 0, points, currentLength, intersections[i].length);
-            currentLength += intersections[i].length;
+        LocalizationWorkspace ws = LocalizationWorkspace.acquire(n);
+        try {
+            return multilaterate(xs, ys, ranges, doApprox, approxMethod,
+                    doFilter1, doFilter1IncludeApprox, filter1Limit, doFilter2,
+                    medianFactor, weightRealIntersection,
+                    weightApproxIntersection, finalPositionAlgorithm,
+                    ws, result);
+        } finally {
+            LocalizationWorkspace.release(ws);
         }
+    }
+
+    /**
+     * Geolateration on primitive arrays with the buffers of the given
+     * workspace, which must have room for {@code n*(n-1)} intersections.
+     */
+    private static boolean multilaterate(double[] xs, double[] ys, double[] ranges,
+            boolean doApprox, int approxMethod, boolean doFilter1, boolean doFilter1IncludeApprox, int filter1Limit,
+            boolean doFilter2, double medianFactor, double weightRealIntersection,
+            double weightApproxIntersection, int finalPositionAlgorithm,
+            LocalizationWorkspace ws, double[] result) {
+        int n = ranges.length;
+        double[] pts = ws.getPoints();
+        boolean[] real = ws.getFlags();
+        double[] dist = ws.getValues();
+        double[] tmp = ws.getScratch();
+        int[] counts = ws.getCounts();
+        int[] survivors = ws.getIndices();
+
+        // step 1: calculate circle intersections
+        int approx = !doApprox ? Circle.APPROX_NONE
+                : approxMethod == APPROX_1 ? Circle.APPROX_NEAREST
+                : Circle.APPROX_GROWING;
+        int num = Circle.getIntersections(xs, ys, ranges, n, approx, pts, real);
 
         // step 3: filter intersections points: only keep points which are
         //         contained in anchor length - 2 circles.
         if (doFilter1) {
-            int limit = Math.max(anchors.length - filter1Limit, 0);
-            points = Circle.minimumCircleContainment(anchors, ranges, points,
-                    limit, doFilter1IncludeApprox);
+            int limit = Math.max(n - filter1Limit, 0);
+            int kept = Circle.minimumCircleContainment(xs, ys, ranges, n,
+                    pts, real, num, limit, doFilter1IncludeApprox, counts,
+                    survivors);
+            for (int k = 0; k < kept; k++) {
+                int i = survivors[k];
+                pts[2*k] = pts[2*i];
+                pts[2*k+1] = pts[2*i+1];
+                real[k] = real[i];
+            }
+            num = kept;
         }
         
         // step 4: if there are n*(n-1)/2 points which are very close together
         //          => no ranging error, take one of them as result
-        int closeCount = (anchors.length * (anchors.length - 1)) / 2;
-        for (int i = 0; i < points.length; i++) {
-            int currentCloseCount = 1;
-            for (int j = 0; j < points.length; j++) {
-                if (i != j && points[i].distance(points[j]) < 0.1) {
-                    currentCloseCount++;
+        int closeCount = (n * (n - 1)) / 2;
+        if (num >= closeCount) {
+            PointGrid grid = num > GRID_LIMIT ? new PointGrid(pts, num, 0.1) : null;
+            for (int i = 0; i < num; i++) {
+                int currentCloseCount = 1;
+                if (grid != null) {
+                    currentCloseCount += grid.countNeighbors(i, closeCount - 1);
+                } else {
+                    for (int j = 0; j < num; j++) {
+                        if (i != j && distance(pts, i, j) < 0.1) {
+                            currentCloseCount++;
+                        }
+                    }
+                }
+                if (currentCloseCount >= closeCount) {
+                    result[0] = pts[2*i];
+                    result[1] = pts[2*i+1];
+                    return true;
                 }
-            }
-            if (currentCloseCount >= closeCount) {
-                return points[i];
             }
         }
 
         // step 5a: only use second filter if enough points are remaining
-        if (points.length >= 3) {
+        if (num >= 3) {
             if (doFilter2) {
                 // step 5b: apply median filter on remaining points
-                double[] distance = new double[points.length];
-                for (int i = 0; i < distance.length; i++) {
-                    for (int j = 0; j < distance.length; j++) {
-                        if (i != j) {
-                            distance[i] += points[i].distance(points[j]);
+                if (num > EXACT_DISTANCE_SUM_LIMIT) {
+                    PointQuadtree tree = new PointQuadtree(pts, num);
+                    for (int i = 0; i < num; i++) {
+                        dist[i] = tree.sumOfDistances(i, DISTANCE_SUM_THETA);
+                    }
+                } else {
+                    for (int i = 0; i < num; i++) {
+                        double sum = 0;
+                        for (int j = 0; j < num; j++) {
+                            if (i != j) {
+                                sum += distance(pts, i, j);
+                            }
                         }
+                        dist[i] = sum;
                     }
                 }
 
-                Double[] copy = new Double[distance.length];
-                for (int i = 0; i < copy.length; i++) {
-                    copy[i] = distance[i];
-                }
-                double median = (Double) QuickSelect.select(copy, distance.length/2+1);
+                double median = Selection.median(dist, num, tmp);
 
-                ArrayList<IntersectionPoint2d> v = new ArrayList<>();
-                for (int i = 0; i < distance.length; i++) {
-                    if (distance[i] <= median * medianFactor) {
-                        v.add(points[i]);
+                int kept = 0;
+                for (int i = 0; i < num; i++) {
+                    if (dist[i] <= median * medianFactor) {
+                        pts[2*kept] = pts[2*i];
+                        pts[2*kept+1] = pts[2*i+1];
+                        real[kept++] = real[i];
                     }
                 }
-                points = v.toArray(new IntersectionPoint2d[0]);
+                num = kept;
             }
         }
         
         // step 6: calculate final position estimation with given algorithm
-        double[] masses = new double[points.length];
-        for (int i = 0; i < masses.length; i++) {
-            if (points[i].isRealIntersection()) {
-                masses[i] = weightRealIntersection * points[i].getWeight();
+        double[] masses = dist;
+        for (int i = 0; i < num; i++) {
+            if (real[i]) {
+                masses[i] = weightRealIntersection;
             } else {
-                masses[i] = weightApproxIntersection * points[i].getWeight();
+                masses[i] = weightApproxIntersection;
             }
         }
         if (finalPositionAlgorithm == CENTER_OF_MASS) {
-            return Point2d.centerOfMass(points, masses);
+            if (num == 0) {
+                return false;
+            }
+            double M = 0;
+            double x = 0, y = 0;
+            for (int i = 0; i < num; i++) {
+                x += pts[2*i] * masses[i];
+                y += pts[2*i+1] * masses[i];
+                M += masses[i];
+            }
+            result[0] = x / M;
+            result[1] = y / M;
+            return true;
         } else if (finalPositionAlgorithm == GEOMETRIC_MEDIAN) {
-            return Point2d.geometricMedian(points, masses);
+            return Point2d.geometricMedian(pts, masses, num, result);
         } else {
-            return null; // can never happen
+            return false; // can never happen
         }
     }
+
+    private static double distance(double[] pts, int i, int j) {
+        double dx = pts[2*i] - pts[2*j];
+        double dy = pts[2*i+1] - pts[2*j+1];
+        return Math.sqrt(dx*dx + dy*dy);
+    }
     
 }
@@ -21,10 +21,9 @@ import latmath.errormodel.ErrorModel;
 import latmath.util.ArrayUtils;
 import latmath.util.Circle;
 import latmath.util.IntersectionPoint2d;
-import latmath.util.LMath;
 import latmath.util.Point2d;
-import latmath.util.QuickSelect;
 import latmath.util.Releasable;
+import latmath.util.Selection;
 import latmath.util.dialog.ConfigDialog;
 import latmath.weighting.GammaWeigher;
 import latmath.weighting.Weighable;
@@ -393,58 +392,39 @@ public class GeolaterationNO extends BasicLaterationAlgorithm implements Releasa
             return null;
         }
 
-        // step 1: calculate circle intersections
+        // step 1+2: calculate circle intersections into one array, the
+        //           weights are set to one and scaled later
         int n = anchors.length;
-        int binom = LMath.binom(n, 2);
-        IntersectionPoint2d[][] intersections = new IntersectionPoint2d[binom][];
-
-        // build all k-permutations
-        int num = 0;
-        for (int i = 0; i < anchors.length-1; i++) {
-            for (int j = i+1; j < anchors.length; j++) {
-                // set weight for intersection to one, scale later
-                double weight = 1;
-                // Berechne Schnittpunkte mit aktueller Permutation
-                intersections[num] = IntersectionPoint2d.convertA(
-                        Circle.getIntersection(anchors[i],
-                        ranges[i], anchors[j],
-                        ranges[j]), weight);
-                // no intersection => try to get approximated intersection
-                if (doApprox && intersections[num] == null) {
-                    Point2d[] pft = Circle.getIntersectionsApprox(
-                            anchors[i], ranges[i],
-                            anchors[j], ranges[j]);
-                    if (pft != null) {
-                        intersections[num] = new IntersectionPoint2d[pft.length];
-                        for (int k = 0; k < pft.length; k++) {
-                            intersections[num][k] = IntersectionPoint2d.convert(pft[k], false, weight);
-                        }
-                    }
-                }
-                if (intersections[num] != null) {
-                    num++;
-                }
-            }
-        }
-
-        // step 2: copy intersections into one array
-        int totalLength = 0;
-        int currentLength = 0;
-        for (int i = 0; i < num; i++) {
-            totalLength += intersections[i].length;
-        }
-        IntersectionPoint2d[] points = new IntersectionPoint2d[totalLength];
-        for (int i = 0; i < num; i++) {
-            System.arraycopy(intersections[i], 0, points, currentLength, intersections[i].length);
-            currentLength += intersections[i].length;
+        int approx = doApprox ? Circle.APPROX_NEAREST_ALL : Circle.APPROX_NONE;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = anchors[i].x;
+            ys[i] = anchors[i].y;
         }
+        int max = Circle.getMaxIntersections(n, approx);
+        double[] pts = new double[2 * max];
+        boolean[] real = new boolean[max];
+        int num = Circle.getIntersections(xs, ys, ranges, n, approx, pts, real);
 
         // step 3: filter intersections points: only keep points which are
         //         contained in anchor length - 2 circles.
+        int[] survivors = new int[num];
+        int kept = num;
         if (doFilter1) {
             int limit = Math.max(anchors.length - filter1Limit, 0);
-            points = Circle.minimumCircleContainment(anchors, ranges, points,
-                    limit, doFilter1IncludeApprox);
+            kept = Circle.minimumCircleContainment(xs, ys, ranges, n, pts,
+                    real, num, limit, doFilter1IncludeApprox, new int[num],
+                    survivors);
+        } else {
+            for (int i = 0; i < num; i++) {
+                survivors[i] = i;
+            }
+        }
+        IntersectionPoint2d[] points = new IntersectionPoint2d[kept];
+        for (int k = 0; k < kept; k++) {
+            int i = survivors[k];
+            points[k] = new IntersectionPoint2d(pts[2*i], pts[2*i+1], real[i]);
         }
         
         // step 4: if there are n*(n-1)/2 points which are very close together
@@ -475,11 +455,7 @@ public class GeolaterationNO extends BasicLaterationAlgorithm implements Releasa
                     }
                 }
 
-                Double[] copy = new Double[distance.length];
-                for (int i = 0; i < copy.length; i++) {
-                    copy[i] = distance[i];
-                }
-                double median = (Double) QuickSelect.select(copy, distance.length/2+1);
+                double median = Selection.median(distance, distance.length, null);
 
                 ArrayList<IntersectionPoint2d> v = new ArrayList<>();
                 for (int i = 0; i < distance.length; i++) {
@@ -5,6 +5,7 @@ import java.awt.Frame;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -12,7 +13,7 @@ import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 import latmath.errormodel.ErrorModel;
 import latmath.util.Circle;
-import latmath.util.LMath;
+import latmath.util.MovingPointGrid;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
 import latmath.util.dialog.ConfigDialog;
@@ -171,72 +172,37 @@ public class IterativeClusteringBasedLocalization extends BasicLaterationAlgorit
         }
 
         // step 1: calculate circle intersections
-        int n = anchors.length;
-        int k = 2;
-        int[] permutations = new int[k];
-        int binom = LMath.binom(n, k);
-        Point2d[][] intersections = new Point2d[binom][];
-
-        // initialisation for calculating k-permutations
-        for (int i = 0; i < k; i++) {
-            permutations[i] = i;
-        }
-
-        // build all k-permutations
-        for (int i = 0; i < binom; i++) {
-            intersections[i] = 
-                    Circle.getIntersection(anchors[permutations[0]],
-                    ranges[permutations[0]], anchors[permutations[1]],
-                    ranges[permutations[1]]);
-            // build next permutation
-            if (i == binom - 1) break;
-            int j = k - 1;
-            while (j >= 0) {
-                if (!LMath.incCounter(permutations, j, n, k)) break;
-                j--;
-            }
-            for (int l = j+1; l < k; l++) {
-                permutations[l] = permutations[l-1] + 1;
-            }
-        }
-
-        // copy intersections into one array
-        int totalLength = 0;
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] == null) continue;
-            totalLength += intersections[i].length;
-        }
+        Point2d[] intersections = Circle.getIntersections(anchors, ranges);
 
         // check if any intersections available
-        if (totalLength == 0) {
+        if (intersections.length == 0) {
             return null;
         }
 
-        int currentLength = 0;
-        IcmPoint[] points = new IcmPoint[totalLength];
+        IcmPoint[] points = new IcmPoint[intersections.length];
         for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] == null) continue;
-            for (int j = 0; j < intersections[i].length; j++) {
-                points[currentLength] = new IcmPoint(intersections[i][j], currentLength);
-                currentLength++;
-            }
+            points[i] = new IcmPoint(intersections[i], i);
         }
 
         // step 2: adapt iterative clustering model (ICM)
         boolean iterate = true;
         // ICM step 1: define initiation range
         computeInitialAttractingBoundary(points);
+        // grid over the current locations of all unmerged points
+        MovingPointGrid grid = createGrid(points);
+        int[] found = new int[points.length];
         while (iterate) {
             // ICM step 2: determine moving direction
-            computeMovingDirection(points);
+            computeMovingDirection(points, grid, found);
             // ICM step 3: move all points according to current direction on step forward
             for (int i = 0; i < points.length; i++) {
                 if (points[i].merged) continue;
-                points[i].nodesInRange = getNodesInRange(points, i);
+                points[i].nodesInRange = getNodesInRange(points, i, grid, found);
             }
             for (int i = 0; i < points.length; i++) {
                 if (points[i].merged || points[i].attractingBoundary == 0) continue;
                 points[i].move(moveStep);
+                grid.move(i, points[i].currentLocation.x, points[i].currentLocation.y);
             }
             // ICM step 4: if merging condition is true, merge points
             for (int i = 0; i < points.length; i++) {
@@ -254,6 +220,7 @@ public class IterativeClusteringBasedLocalization extends BasicLaterationAlgorit
                     } else {
                         // merge points
                         if (!points[i].nodesInRange[0].merged) {
+                            grid.remove(points[i].nodesInRange[0].id);
                             points[i].merge(points[i].nodesInRange[0]);
                         } else {
                             // merged with other point before we could merge
@@ -263,36 +230,17 @@ public class IterativeClusteringBasedLocalization extends BasicLaterationAlgorit
                     }
                 } else {
                     // test if points can be merged
-                    double dShort = Double.MAX_VALUE;
-                    IcmPoint pShort = null;
                     for (int j = 0; j < points[i].nodesInRange.length; j++) {
                         if (points[i].nodesInRange[j].merged) continue;
                         double d = points[i].currentLocation.distance(points[i].nodesInRange[j].currentLocation);
                         if (d <= moveStep*Math.sqrt(2)) {
+                             grid.remove(points[i].nodesInRange[j].id);
                              points[i].merge(points[i].nodesInRange[j]);
                         }
-                        if (d < dShort) {
-                            dShort = d;
-                            pShort = points[i].nodesInRange[j];
-                        }
-                    }
-                    // merge points when distance between them is the
-                    // shortest in both points attracting boundary
-                    if (pShort != null && !pShort.merged && pShort.nodesInRange != null) {
-                        double dShort2 = Double.MAX_VALUE;
-                        IcmPoint pShort2 = null;
-                        for (int l = 0; l < pShort.nodesInRange.length; l++) {
-                            if (pShort.nodesInRange[l].merged) continue;
-                            double d = pShort.currentLocation.distance(pShort.nodesInRange[l].currentLocation);
-                            if (d < dShort2) {
-                                dShort2 = d;
-                                pShort2 = pShort.nodesInRange[l];
-                            }
-                        }
-                        if (pShort2 != null && pShort2 == points[i]) {
-                            //points[i].merge(pShort);
-                        }
                     }
+                    // merging points when distance between them is the
+                    // shortest in both points attracting boundary is
+                    // disabled, so the nearest points are not searched
                 }
             }
 
@@ -363,14 +311,38 @@ public class IterativeClusteringBasedLocalization extends BasicLaterationAlgorit
         }
     }
 
+    // builds grid over intersection points with about one point per cell
+    private static MovingPointGrid createGrid(IcmPoint[] points) {
+        int n = points.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            x[i] = points[i].currentLocation.x;
+            y[i] = points[i].currentLocation.y;
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double w = maxX - minX;
+        double h = maxY - minY;
+        double cell = Math.max(Math.sqrt(w * h / n), Math.max(w, h) / n);
+        return new MovingPointGrid(x, y, n, cell > 0 ? cell : 1);
+    }
+
     // compute moving direction of each point
-    private static void computeMovingDirection(IcmPoint[] points) {
+    private static void computeMovingDirection(IcmPoint[] points,
+            MovingPointGrid grid, int[] found) {
         for (int i = 0; i < points.length; i++) {
             if (points[i].merged) continue;
             int[] forceVector = new int[9]; // initial to 0's
-            for (int j = 0; j < points.length; j++) {
-                if (i != j && !points[j].merged && points[i].currentLocation.distance(
-                        points[j].currentLocation) <= points[i].attractingBoundary) {
+            Point2d loc = points[i].currentLocation;
+            int count = grid.query(loc.x, loc.y, points[i].attractingBoundary, found);
+            for (int k = 0; k < count; k++) {
+                int j = found[k];
+                if (i != j) {
                     int idx = points[i].getAttractingForceDirection(points[j]);
                     forceVector[idx-1] += points[j].weight;
                 }
@@ -385,26 +357,24 @@ public class IterativeClusteringBasedLocalization extends BasicLaterationAlgorit
         }
     }
 
-    private static IcmPoint[] getNodesInRange(IcmPoint[] points, int self) {
-        int count = 0;
-        IcmPoint[] result = null;
-        for (int i = 0; i < points.length; i++) {
-            if (points[i].merged) continue;
-            if (i != self && points[i].currentLocation.distance(
-                    points[self].currentLocation) <= points[self].attractingBoundary) {
-                count++;
+    // returns unmerged points in attracting boundary in order of their index
+    private static IcmPoint[] getNodesInRange(IcmPoint[] points, int self,
+            MovingPointGrid grid, int[] found) {
+        Point2d loc = points[self].currentLocation;
+        int count = grid.query(loc.x, loc.y, points[self].attractingBoundary, found);
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            if (found[i] != self) {
+                found[k++] = found[i];
             }
         }
-        if (count > 0) {
-            result = new IcmPoint[count];
-            count = 0;
-            for (int i = 0; i < points.length; i++) {
-                if (points[i].merged) continue;
-                if (i != self && points[i].currentLocation.distance(
-                        points[self].currentLocation) <= points[self].attractingBoundary) {
-                    result[count++] = points[i];
-                }
-            }
+        if (k == 0) {
+            return null;
+        }
+        Arrays.sort(found, 0, k);
+        IcmPoint[] result = new IcmPoint[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = points[found[i]];
         }
         return result;
     }
@@ -8,26 +8,24 @@ import latmath.util.ReflectionUtils;
 
 /**
  * A collection of all available lateration algorithms in this package.
+ * <p>
+ * The algorithms are described by {@link AlgorithmDescriptor}s which are
+ * read from the build-time index, so no algorithm is loaded or created
+ * before it is requested by {@link #createAlgorithm(String)} or
+ * {@link #getAlgorithms()}.
  *
- * @version 1.4, 2012-02-25
+ * @version 1.5, 2026-10-16
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
 public final class LaterationAlgorithmCollection {
 
-    private static final List<BasicLaterationAlgorithm> algorithms;
+    /** Descriptors of all algorithms, null until first requested */
+    private static List<AlgorithmDescriptor> descriptors;
+
+    /** Instances of all algorithms, null until first requested */
+    private static List<BasicLaterationAlgorithm> algorithms;
 
-    static {
-        algorithms = new ArrayList<>();
-        Class[] classes = ReflectionUtils.getClasses("latmath",
-                BasicLaterationAlgorithm.class);
-        for (Class clazz : classes) {
-            algorithms.add((BasicLaterationAlgorithm)
-                    ReflectionUtils.createObjectFromClass(clazz));
-        }
-        Collections.sort(algorithms, new BasicLaterationAlgorithmComparator());
-    }
-    
     private static class BasicLaterationAlgorithmComparator implements Comparator<BasicLaterationAlgorithm> {
         @Override
         public int compare(BasicLaterationAlgorithm o1, BasicLaterationAlgorithm o2) {
@@ -35,40 +33,137 @@ public final class LaterationAlgorithmCollection {
         }
     }
 
+    private static class AlgorithmDescriptorComparator implements Comparator<AlgorithmDescriptor> {
+        @Override
+        public int compare(AlgorithmDescriptor o1, AlgorithmDescriptor o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    }
+
     private LaterationAlgorithmCollection() {}
 
+    private static synchronized List<AlgorithmDescriptor> descriptors() {
+        if (descriptors == null) {
+            List<AlgorithmDescriptor> tmp = AlgorithmIndex.read();
+            if (tmp == null) {
+                // no index available, describe instances instead
+                tmp = new ArrayList<>();
+                for (BasicLaterationAlgorithm alg : algorithms()) {
+                    tmp.add(new AlgorithmDescriptor(alg));
+                }
+            }
+            Collections.sort(tmp, new AlgorithmDescriptorComparator());
+            descriptors = tmp;
+        }
+        return descriptors;
+    }
+
+    private static synchronized List<BasicLaterationAlgorithm> algorithms() {
+        if (algorithms == null) {
+            List<BasicLaterationAlgorithm> tmp = new ArrayList<>();
+            if (descriptors != null) {
+                for (AlgorithmDescriptor d : descriptors) {
+                    BasicLaterationAlgorithm alg = d.newInstance();
+                    if (alg != null) {
+                        tmp.add(alg);
+                    }
+                }
+            } else {
+                Class<?>[] classes = ReflectionUtils.getReleasableClasses(
+                        BasicLaterationAlgorithm.class);
+                for (Class<?> clazz : classes) {
+                    tmp.add((BasicLaterationAlgorithm)
+                            ReflectionUtils.createObjectFromClass(clazz));
+                }
+            }
+            Collections.sort(tmp, new BasicLaterationAlgorithmComparator());
+            algorithms = tmp;
+        }
+        return algorithms;
+    }
+
     /**
      * Register an additional lateration algorithm.
      *
      * @param algorithm The lateration algorithm to be added to the list.
      */
-    public static void registerLaterationAlgorithm(BasicLaterationAlgorithm algorithm) {
-        algorithms.add(algorithm);
+    public static synchronized void registerLaterationAlgorithm(BasicLaterationAlgorithm algorithm) {
+        descriptors();
+        algorithms().add(algorithm);
+        descriptors.add(new AlgorithmDescriptor(algorithm));
+    }
+
+    /**
+     * Returns the descriptors of all available lateration algorithms in
+     * this package, sorted by name.
+     * <p>
+     * Getting the descriptors does not load any algorithm class.
+     *
+     * @return The descriptors of all available lateration algorithms.
+     */
+    public static synchronized List<AlgorithmDescriptor> getDescriptors() {
+        return Collections.unmodifiableList(new ArrayList<>(descriptors()));
+    }
+
+    /**
+     * Returns the descriptor of the lateration algorithm with the given name.
+     *
+     * @param name The name of the algorithm, see {@code getName()}.
+     *
+     * @return The descriptor or {@code null} if no algorithm has the
+     *         given name.
+     */
+    public static synchronized AlgorithmDescriptor getDescriptor(String name) {
+        for (AlgorithmDescriptor d : descriptors()) {
+            if (d.getName().equals(name)) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a new instance of the lateration algorithm with the given
+     * name. Only the class of this algorithm is loaded.
+     *
+     * @param name The name of the algorithm, see {@code getName()}.
+     *
+     * @return The new instance or {@code null} if no algorithm has the
+     *         given name or the creation failed.
+     */
+    public static BasicLaterationAlgorithm createAlgorithm(String name) {
+        AlgorithmDescriptor d = getDescriptor(name);
+        return d != null ? d.newInstance() : null;
     }
 
     /**
      * Returns a list of all available lateration algorithms in this package.
+     * <p>
+     * The first call creates an instance of every algorithm, use
+     * {@link #getDescriptors()} and {@link #createAlgorithm(String)} if
+     * only some algorithms are needed.
      *
      * @return A list of all available lateration algorithms.
      */
     public static List<BasicLaterationAlgorithm> getAlgorithms() {
         return getAlgorithms(true);
     }
-    
+
     /**
      * Returns a list of all available lateration algorithms in this package.
-     * 
+     *
      * @param includeLBE {@code true} if Lower Bound Estimators should be included;
      *                   {@code false} otherwise.
-     * 
+     *
      * @return A list of all available lateration algorithms.
      */
-    public static List<BasicLaterationAlgorithm> getAlgorithms(boolean includeLBE) {
+    public static synchronized List<BasicLaterationAlgorithm> getAlgorithms(boolean includeLBE) {
+        descriptors();
         if (includeLBE) {
-            return algorithms;
+            return algorithms();
         } else {
             List<BasicLaterationAlgorithm> tmp = new ArrayList<>();
-            for (BasicLaterationAlgorithm alg : algorithms) {
+            for (BasicLaterationAlgorithm alg : algorithms()) {
                 if (!(alg instanceof LowerBoundEstimator)) {
                     tmp.add(alg);
                 }
@@ -7,6 +7,7 @@ import latmath.util.LMath;
 import latmath.util.Point2d;
 import latmath.util.PositionEstimate;
 import latmath.util.Releasable;
+import latmath.util.Selection;
 
 /**
  * Least Median of Squares (LMS).
@@ -154,8 +155,7 @@ public final class LeastMedianOfSquares extends BasicLaterationAlgorithm impleme
                     double residue = iPos[j].distance(anchors[i]) - ranges[i];
                     tmpMedian[i] = residue * residue;
                 }
-                Arrays.sort(tmpMedian);
-                medians[j] = tmpMedian[tmpMedian.length/2];
+                medians[j] = Selection.median(tmpMedian, N);
             } else {
                 // use max value in this case, won't be chosen as least median
                 medians[j] = Double.MAX_VALUE;
@@ -1,8 +1,7 @@
 package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
-import latmath.util.ArrayUtils;
-import latmath.util.Matrix;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
 import latmath.util.PositionEstimate;
 import latmath.util.Releasable;
@@ -18,17 +17,144 @@ public final class LinearLeastSquares extends BasicLaterationAlgorithm implement
     
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum condition number of A^T*W^2*A, above it the anchor geometry
+     * is treated as degenerate (e.g. all anchors on one line).
+     */
+    static final double MAX_CONDITION = 1e12;
+
+    /** Cache for the geometry of fixed anchor sets or {@code null} */
+    private transient AnchorGeometryCache geometryCache;
     
     @Override
     public String getName() {
         return "LLS";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Sets the cache for the geometry of fixed anchor sets.
+     * <p>
+     * With a cache, the pseudo-inverse of the linearized system is only
+     * calculated once per anchor set. The cache may be shared by several
+     * algorithms; call {@link AnchorGeometryCache#invalidate()} when the
+     * anchor layout changes.
+     *
+     * @param geometryCache The cache or {@code null} to disable caching.
+     */
+    public void setGeometryCache(AnchorGeometryCache geometryCache) {
+        this.geometryCache = geometryCache;
+    }
+
+    /**
+     * Returns the cache for the geometry of fixed anchor sets.
+     *
+     * @return The cache or {@code null} if caching is disabled.
+     */
+    public AnchorGeometryCache getGeometryCache() {
+        return geometryCache;
+    }
+
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
-        PositionEstimate pe = multilaterate(anchors, ranges);
-        return pe != null ? pe.getLocation() : null;
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            if (multilaterateCached(ws.getX(n), ws.getY(n), ranges, geometryCache, e) < 0) {
+                return null;
+            }
+            return new Point2d(e[0], e[1]);
+        } finally {
+            releaseWorkspace(ws);
+        }
+    }
+
+    /**
+     * Batch version of this lateration algorithm.
+     * <p>
+     * The matrix A only depends on the anchor positions, so the
+     * pseudo-inverse (A^T*A)^-1 * A^T is calculated once for the whole
+     * batch and each measurement only costs one matrix-vector product.
+     */
+    @Override
+    public int localizeBatch(double[] xs, double[] ys, double[] ranges,
+            int count, double[] estX, double[] estY) {
+        checkBatch(xs, ys, ranges, count, estX, estY);
+        int n = xs.length;
+        int m = n - 1;
+        double[] p0 = new double[Math.max(m, 0)];
+        double[] p1 = new double[p0.length];
+        double[] k = new double[p0.length];
+        if (n < 3 || !pseudoInverse(xs, ys, p0, p1, k)) {
+            for (int i = 0; i < count; i++) {
+                estX[i] = estY[i] = Double.NaN;
+            }
+            return 0;
+        }
+        for (int i = 0, off = 0; i < count; i++, off += n) {
+            double rm = ranges[off + m];
+            double x = 0, y = 0;
+            for (int j = 0; j < m; j++) {
+                double rj = ranges[off + j];
+                double b = k[j] + 0.5 * (rm * rm - rj * rj);
+                x += p0[j] * b;
+                y += p1[j] * b;
+            }
+            estX[i] = x;
+            estY[i] = y;
+        }
+        return count;
+    }
+
+    /**
+     * Calculates the unweighted pseudo-inverse (A^T*A)^-1 * A^T of the
+     * linearized system and the anchor dependent part of vector b.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param p0 The first row of the pseudo-inverse (output).
+     * @param p1 The second row of the pseudo-inverse (output).
+     * @param k The anchor dependent part of vector b (output).
+     *
+     * @return {@code true} on success; {@code false} if A^T*A is singular
+     *         or ill-conditioned.
+     */
+    static boolean pseudoInverse(double[] xs, double[] ys, double[] p0,
+            double[] p1, double[] k) {
+        int m = xs.length - 1;
+        double xm = xs[m];
+        double ym = ys[m];
+        double a00 = 0, a01 = 0, a11 = 0;
+        for (int i = 0; i < m; i++) {
+            double ax = xs[i] - xm;
+            double ay = ys[i] - ym;
+            a00 += ax * ax;
+            a01 += ax * ay;
+            a11 += ay * ay;
+            k[i] = 0.5 * (xs[i] * xs[i] - xm * xm + ys[i] * ys[i] - ym * ym);
+        }
+        if (!isWellConditioned(a00, a01, a11)) {
+            // Matrix was (nearly) singular => no inverse
+            return false;
+        }
+        double det = a00 * a11 - a01 * a01;
+        double i00 = a11 / det;
+        double i01 = -a01 / det;
+        double i11 = a00 / det;
+        for (int i = 0; i < m; i++) {
+            double ax = xs[i] - xm;
+            double ay = ys[i] - ym;
+            p0[i] = i00 * ax + i01 * ay;
+            p1[i] = i01 * ax + i11 * ay;
+        }
+        return true;
     }
 
 
@@ -51,16 +177,13 @@ public final class LinearLeastSquares extends BasicLaterationAlgorithm implement
      *
      * @param anchors The anchor/reference nodes.
      * @param ranges The measured distances to the anchor/reference nodes.
-     * @param weights The weight of each anchor/reference node.
      *
      * @return The estimated position of the mobile node to be located or
      *         <code>null</code> if no position could be calculated, e.g.
      *         localization failed.
      */
     public static PositionEstimate multilaterate(Point2d[] anchors, double[] ranges) {
-        double[] weights = new double[anchors.length];
-        ArrayUtils.fill(weights, 1);
-        return multilaterate(anchors, ranges, weights);
+        return multilaterate(anchors, ranges, null);
     }
 
     /**
@@ -69,54 +192,186 @@ public final class LinearLeastSquares extends BasicLaterationAlgorithm implement
      * This might be useful if one is only interested in the result and not
      * the additional features of the <code>BasicLaterationAlgorithm</code>
      * class.
+     * <p>
+     * The weight matrix is diagonal, so A^T*W^2*A and A^T*W^2*b are
+     * accumulated as scalars in O(n) and the 2x2 system is solved in closed
+     * form.
      *
      * @param anchors The anchor/reference nodes.
      * @param ranges The measured distances to the anchor/reference nodes.
-     * @param weights The weight of each anchor/reference node.
+     * @param weights The weight of each anchor/reference node or
+     *                {@code null} if all weights are one.
      *
      * @return The estimated position of the mobile node to be located or
      *         <code>null</code> if no position could be calculated, e.g.
      *         localization failed.
      */
     public static PositionEstimate multilaterate(Point2d[] anchors, double[] ranges, double[] weights) {
+        int n = anchors.length;
+        if (n < 3) {
+            return null;
+        }
         // Solve equation of form W*A*x = W*b
-        double e0;
-        int m = anchors.length - 1;
-        Point2d e = new Point2d();
-        double[][] b = new double[m][1];
-        double[][] a = new double[m][2];
-        double[][] w = new double[m][m];
+        int m = n - 1;
+        double xm = anchors[m].x;
+        double ym = anchors[m].y;
+        double rm = ranges[m];
+        double a00 = 0, a01 = 0, a11 = 0, b0 = 0, b1 = 0;
         for (int i = 0; i < m; i++) {
-            a[i][0] = (anchors[i].x - anchors[m].x);
-            a[i][1] = (anchors[i].y - anchors[m].y);
-            b[i][0] = 0.5 * (anchors[i].x * anchors[i].x - anchors[m].x * anchors[m].x +
-                    anchors[i].y * anchors[i].y - anchors[m].y * anchors[m].y +
-                    ranges[m] * ranges[m] - ranges[i] * ranges[i]);
-            for (int j = 0; j < anchors.length - 1; j++) {
-                w[i][j] = (i == j) ? (weights[i] * weights[i]) : 0;
-            }
+            double ax = anchors[i].x - xm;
+            double ay = anchors[i].y - ym;
+            double b = 0.5 * (anchors[i].x * anchors[i].x - xm * xm
+                    + anchors[i].y * anchors[i].y - ym * ym
+                    + rm * rm - ranges[i] * ranges[i]);
+            double w2 = weights != null ? weights[i] * weights[i] : 1;
+            a00 += w2 * ax * ax;
+            a01 += w2 * ax * ay;
+            a11 += w2 * ay * ay;
+            b0 += w2 * ax * b;
+            b1 += w2 * ay * b;
         }
 
         // Solve with closed form solution: x = (A^T*W^2*A)^-1 * A^T * W^2 * b
-        Matrix mA = new Matrix(a);
-        Matrix mB = new Matrix(b);
-        Matrix mW2 = new Matrix(w);
-        Matrix mAT = mA.transpose();
-        Matrix tmp = mAT.times(mW2);
-        tmp = tmp.times(mA);
-        tmp = tmp.inverse();
-        if (tmp == null) {
-            // Matrix was singular => no inverse
+        if (!isWellConditioned(a00, a01, a11)) {
+            // Matrix was (nearly) singular => no inverse
             return null;
         }
-        tmp = tmp.times(mAT);
-        tmp = tmp.times(mW2);
-        tmp = tmp.times(mB);
-        e.x = tmp.cell(0, 0);
-        e.y = tmp.cell(1, 0);
+        double det = a00 * a11 - a01 * a01;
+        Point2d e = new Point2d((a11 * b0 - a01 * b1) / det,
+                (a00 * b1 - a01 * b0) / det);
 
-        e0 = PositionEstimate.calculateResidualError(anchors, ranges, weights, e);
+        double e0 = weights != null
+                ? PositionEstimate.calculateResidualError(anchors, ranges, weights, e)
+                : PositionEstimate.calculateResidualError(anchors, ranges, e);
         return new PositionEstimate(e, e0);
     }
 
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Does not allocate any memory.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return The residual error of the estimated position or {@code -1}
+     *         if no position could be calculated, e.g. localization failed.
+     */
+    public static double multilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] result) {
+        return multilaterate(xs, ys, ranges, null, result);
+    }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays using a
+     * cache for the geometry of fixed anchor sets.
+     * <p>
+     * On a cache hit, only a lookup key is allocated and the position costs
+     * one matrix-vector product.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param cache The geometry cache or {@code null} to calculate the
+     *              position without caching.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return The residual error of the estimated position or {@code -1}
+     *         if no position could be calculated, e.g. localization failed.
+     */
+    public static double multilaterateCached(double[] xs, double[] ys,
+            double[] ranges, AnchorGeometryCache cache, double[] result) {
+        if (cache == null) {
+            return multilaterate(xs, ys, ranges, null, result);
+        }
+        int n = xs.length;
+        if (ys.length != n || ranges.length != n || n < 3) {
+            return -1;
+        }
+        return cache.get(xs, ys, null).solve(ranges, result);
+    }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Does not allocate any memory: the weight matrix is diagonal, so
+     * A^T*W^2*A and A^T*W^2*b are accumulated as scalars and the 2x2 system
+     * is solved in closed form.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param weights The weight of each anchor/reference node or
+     *                {@code null} if all weights are one.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return The residual error of the estimated position or {@code -1}
+     *         if no position could be calculated, e.g. localization failed.
+     */
+    public static double multilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] weights, double[] result) {
+        int n = xs.length;
+        if (ys.length != n || ranges.length != n || n < 3) {
+            return -1;
+        }
+        // Solve equation of form W*A*x = W*b
+        int m = n - 1;
+        double xm = xs[m];
+        double ym = ys[m];
+        double rm = ranges[m];
+        double a00 = 0, a01 = 0, a11 = 0, b0 = 0, b1 = 0;
+        for (int i = 0; i < m; i++) {
+            double ax = xs[i] - xm;
+            double ay = ys[i] - ym;
+            double b = 0.5 * (xs[i] * xs[i] - xm * xm + ys[i] * ys[i] - ym * ym
+                    + rm * rm - ranges[i] * ranges[i]);
+            double w2 = weights != null ? weights[i] * weights[i] : 1;
+            a00 += w2 * ax * ax;
+            a01 += w2 * ax * ay;
+            a11 += w2 * ay * ay;
+            b0 += w2 * ax * b;
+            b1 += w2 * ay * b;
+        }
+
+        // Solve with closed form solution: x = (A^T*W^2*A)^-1 * A^T * W^2 * b
+        if (!isWellConditioned(a00, a01, a11)) {
+            // Matrix was (nearly) singular => no inverse
+            return -1;
+        }
+        double det = a00 * a11 - a01 * a01;
+        double x = (a11 * b0 - a01 * b1) / det;
+        double y = (a00 * b1 - a01 * b0) / det;
+        result[0] = x;
+        result[1] = y;
+
+        double error = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double residual = Math.sqrt(dx * dx + dy * dy) - ranges[i];
+            error += (weights != null ? weights[i] : 1) * residual * residual;
+        }
+        return error;
+    }
+
+    /**
+     * Tests the condition of the symmetric positive semi-definite matrix
+     * [a00 a01; a01 a11], e.g. A^T*W^2*A.
+     *
+     * @param a00 The upper left element.
+     * @param a01 The off-diagonal element.
+     * @param a11 The lower right element.
+     *
+     * @return {@code true} if the matrix is regular and its condition number
+     *         is at most {@link #MAX_CONDITION}.
+     */
+    static boolean isWellConditioned(double a00, double a01, double a11) {
+        double det = a00 * a11 - a01 * a01;
+        // largest eigenvalue, the smallest one is det/max
+        double max = 0.5 * (a00 + a11) + Math.hypot(0.5 * (a00 - a11), a01);
+        return det > 0 && max <= MAX_CONDITION * (det / max);
+    }
+
 }
@@ -43,7 +43,8 @@ import latmath.util.dialog.ConfigDialog;
  * @author  Marcel Kyas <marcel.kyas@fu-berlin.de>
  * @since   LatMath 1.0
  */
-public final class MLEGamma extends BasicLaterationAlgorithm implements Releasable {
+public final class MLEGamma extends BasicLaterationAlgorithm
+        implements Releasable, WarmStartable {
 
     private static final Logger logger =
         Logger.getLogger("latmath.algorithm.MLEGamma");
@@ -66,6 +67,12 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
      * 
      */
     protected double offset = 3.31060119642765;
+
+    /**
+     * Maximize the log-likelihood with the Newton trust-region solver
+     * instead of the simplex optimizer.
+     */
+    protected boolean logSpace = false;
     
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
@@ -74,14 +81,24 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
     public String getName() {
         return "MLE Gamma(" +String.format(Locale.ENGLISH, "%.2f", shape)+ ", "
                 + String.format(Locale.ENGLISH, "%.2f", rate) + ") + "
-                + String.format(Locale.ENGLISH, "%.2f", offset);
+                + String.format(Locale.ENGLISH, "%.2f", offset)
+                + (logSpace ? ", log-space" : "");
     }
 
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
         PositionEstimate pe =
-            MLEGamma.multilaterate(anchors, ranges, shape, rate, offset);
+            MLEGamma.multilaterate(anchors, ranges, shape, rate, offset,
+                                   logSpace);
+        return pe != null ? pe.getLocation() : null;
+    }
+
+    @Override
+    public Point2d localize(Point2d[] anchors, double[] ranges, Point2d start) {
+        PositionEstimate pe =
+            MLEGamma.multilaterate(anchors, ranges, shape, rate, offset,
+                                   logSpace, start);
         return pe != null ? pe.getLocation() : null;
     }
 
@@ -180,6 +197,22 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
         tmp.add(lContainer);
         tmp.add(cbEnableLogging);
         content.add(tmp);
+
+        // Add next control
+        tmp = new JPanel();
+        tmp.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+        // Create control
+        final JCheckBox cbLogSpace = new JCheckBox();
+        cbLogSpace.setSelected(logSpace);
+        // Create label and add control
+        lContainer = new JPanel();
+        lContainer.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+        lContainer.setPreferredSize(new Dimension(lWidth, 30));
+        label = new JLabel("Log-likelihood Newton solver:");
+        lContainer.add(label);
+        tmp.add(lContainer);
+        tmp.add(cbLogSpace);
+        content.add(tmp);
         
         final ConfigDialog dialog = new ConfigDialog(parent, true);
 
@@ -191,6 +224,7 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
                 shape = (Double) spShape.getValue();
                 rate = (Double) spRate.getValue();
                 loggingEnabled = cbEnableLogging.isSelected();
+                logSpace = cbLogSpace.isSelected();
                 dialog.dispose();
             }
         };
@@ -232,6 +266,12 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
 
 
         public static final double value(int i, double[] point, Point2d[] anchors, double[] ranges, double shape, double rate, double offset) {
+            final double c = Math.pow(rate, shape) / Gamma.gamma(shape);
+            return value(i, point, anchors, ranges, shape, rate, offset, c);
+        }
+
+
+        private static double value(int i, double[] point, Point2d[] anchors, double[] ranges, double shape, double rate, double offset, double c) {
             final double distance =
                 Math.sqrt((anchors[i].x - point[0]) * (anchors[i].x - point[0]) +
                           (anchors[i].y - point[1]) * (anchors[i].y - point[1]));
@@ -255,7 +295,6 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
                 }
                 return 0.0;
             }
-            final double c = Math.pow(rate, shape) / Gamma.gamma(shape);
             final double probability =
                 c * Math.pow(x, shape - 1.0) * Math.exp(-rate * x);
             return probability;
@@ -267,7 +306,7 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
             double result = 1.0;
             for (int i = 0; i < this.anchors.length; i++) {
                 final double probability =
-                    LikelihoodFunction.value(i, point, this.anchors, this.ranges, this.shape, this.rate, this.offset);
+                    LikelihoodFunction.value(i, point, this.anchors, this.ranges, this.shape, this.rate, this.offset, this.gamma);
                 result *= probability;
             }
             if (MLEGamma.loggingEnabled) {
@@ -347,6 +386,99 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
         }
     }
 
+    /**
+     * Log-likelihood of the measured ranges at a position.
+     * <p>
+     * Summing the log densities instead of multiplying the densities does
+     * not underflow for many anchors, and the constant part of the
+     * densities is calculated once. The value is negative infinity where
+     * the likelihood is zero, i.e. if the position is farther than range
+     * plus offset from any anchor. The log-likelihood tends to negative
+     * infinity at this boundary for shapes greater than one, so a solver
+     * increasing the value never leaves the feasible region.
+     */
+    public static class LogLikelihoodFunction implements MultivariateFunction {
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] zs;
+        private final double shape;
+        private final double rate;
+        private final double constant;
+
+        public LogLikelihoodFunction(Point2d[] anchors, double[] ranges,
+                                     double shape, double rate, double offset) {
+            int n = anchors.length;
+            this.xs = new double[n];
+            this.ys = new double[n];
+            this.zs = new double[n];
+            for (int i = 0; i < n; i++) {
+                this.xs[i] = anchors[i].x;
+                this.ys[i] = anchors[i].y;
+                this.zs[i] = ranges[i] + offset;
+            }
+            this.shape = shape;
+            this.rate = rate;
+            this.constant =
+                n * (shape * Math.log(rate) - Gamma.logGamma(shape));
+        }
+
+        @Override
+        public double value(double[] point) {
+            return value(point[0], point[1], null);
+        }
+
+        /**
+         * Computes the log-likelihood and optionally its derivatives.
+         *
+         * @param x The x coordinate of the position.
+         * @param y The y coordinate of the position.
+         * @param derivatives Receives the gradient (x, y) and the Hessian
+         *                    (xx, xy, yy) of the log-likelihood if not
+         *                    {@code null}, at least 5 long.
+         *
+         * @return The log-likelihood, negative infinity if the likelihood
+         *         is zero.
+         */
+        public double value(double x, double y, double[] derivatives) {
+            final double k = this.shape - 1.0;
+            double sum = 0.0;
+            double gx = 0.0, gy = 0.0, hxx = 0.0, hxy = 0.0, hyy = 0.0;
+            for (int i = 0; i < this.xs.length; i++) {
+                final double dx = x - this.xs[i];
+                final double dy = y - this.ys[i];
+                final double distance = Math.sqrt(dx * dx + dy * dy);
+                final double z = this.zs[i] - distance;
+                if (z <= 0.0) {
+                    return Double.NEGATIVE_INFINITY;
+                }
+                sum += k * Math.log(z) - this.rate * z;
+                if (derivatives == null || distance == 0.0) {
+                    continue;
+                }
+                // d/dp of ln f(z) = -(k/z - rate) * u with u = (p - a)/|p - a|
+                final double ux = dx / distance;
+                final double uy = dy / distance;
+                final double c = k / z - this.rate;
+                gx -= c * ux;
+                gy -= c * uy;
+                final double radial = k / (z * z);
+                final double tangential = c / distance;
+                hxx -= radial * ux * ux + tangential * (1.0 - ux * ux);
+                hxy -= (radial - tangential) * ux * uy;
+                hyy -= radial * uy * uy + tangential * (1.0 - uy * uy);
+            }
+            if (derivatives != null) {
+                derivatives[0] = gx;
+                derivatives[1] = gy;
+                derivatives[2] = hxx;
+                derivatives[3] = hxy;
+                derivatives[4] = hyy;
+            }
+            return sum + this.constant;
+        }
+    }
+
+
     private static final double defaultEpsilon = 1e-2;
     private static final int defaultIterations = 250;
     
@@ -458,6 +590,215 @@ public final class MLEGamma extends BasicLaterationAlgorithm implements Releasab
 									    bestResult.getPosition()));
     }
 
+    /**
+     * Static call to this lateration algorithm.
+     * <p>
+     * If <code>logSpace</code> is set, the log-likelihood is maximized from
+     * each initial guess with a Newton trust-region solver using the exact
+     * gradient and Hessian, see {@link LogLikelihoodFunction}. If the
+     * likelihood is zero at all initial guesses, the simplex optimizer is
+     * used instead.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param logSpace {@code true} to maximize the log-likelihood with the
+     *                 Newton trust-region solver.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated, e.g.
+     *         localization failed.
+     */
+    public static PositionEstimate multilaterate(Point2d[] anchors,
+                                                 double[] ranges, double shape,
+                                                 double rate, double offset,
+                                                 boolean logSpace) {
+        if (!logSpace) {
+            return multilaterate(anchors, ranges, shape, rate, offset);
+        }
+        // sanity check
+        if (anchors.length != ranges.length) {
+            return null;
+        }
+
+        PositionEstimate pe = LinearLeastSquares.multilaterate(anchors, ranges);
+        Point2d[] guessPoints = new Point2d[] {
+            Point2d.centerOfMass(anchors),
+            pe != null ? pe.getLocation() : null,
+            MinMax.multilaterate(anchors, ranges)
+        };
+
+        LogLikelihoodFunction function =
+            new LogLikelihoodFunction(anchors, ranges, shape, rate, offset);
+        double[] point = new double[2];
+        double[] best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Point2d guessPoint : guessPoints) {
+            if (guessPoint == null) {
+                continue;
+            }
+            double value = maximize(function, guessPoint.x, guessPoint.y, point);
+            if (value > bestValue) {
+                bestValue = value;
+                best = point.clone();
+            }
+        }
+        if (best == null) {
+            // zero likelihood at all initial guesses
+            return multilaterate(anchors, ranges, shape, rate, offset);
+        }
+
+        Point2d position = new Point2d(best[0], best[1]);
+        return new PositionEstimate(position,
+                                    PositionEstimate.calculateResidualError(anchors,
+                                                                            ranges,
+                                                                            position));
+    }
+
+    /**
+     * Static call to this lateration algorithm starting the optimization
+     * from the given position only.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param logSpace {@code true} to maximize the log-likelihood with the
+     *                 Newton trust-region solver.
+     * @param start The starting point of the optimization.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if the likelihood is zero at the result.
+     */
+    public static PositionEstimate multilaterate(Point2d[] anchors,
+                                                 double[] ranges, double shape,
+                                                 double rate, double offset,
+                                                 boolean logSpace,
+                                                 Point2d start) {
+        // sanity check
+        if (anchors.length != ranges.length) {
+            return null;
+        }
+
+        Point2d position;
+        if (logSpace) {
+            LogLikelihoodFunction function =
+                new LogLikelihoodFunction(anchors, ranges, shape, rate, offset);
+            double[] point = new double[2];
+            if (maximize(function, start.x, start.y, point) == Double.NEGATIVE_INFINITY) {
+                return null;
+            }
+            position = new Point2d(point[0], point[1]);
+        } else {
+            MLEGamma.ResultPair result = multilaterate(start, anchors, ranges,
+                                                       shape, rate, offset);
+            if (!(result.getLikelihood() > 0.0)) {
+                return null;
+            }
+            position = result.getPosition();
+        }
+        return new PositionEstimate(position,
+                                    PositionEstimate.calculateResidualError(anchors,
+                                                                            ranges,
+                                                                            position));
+    }
+
+    /** Maximum number of log-likelihood evaluations per initial guess */
+    private static final int MAX_NEWTON_EVALUATIONS = 100;
+
+    /** The Newton solver stops at steps shorter than this */
+    private static final double NEWTON_STEP_TOLERANCE = 1e-6;
+
+    /**
+     * Maximizes the log-likelihood from an initial guess.
+     * <p>
+     * Levenberg-Marquardt style trust-region Newton method: the step solves
+     * <code>(mu*I - H) * s = g</code>, where <code>mu</code> keeps the
+     * matrix positive definite, shrinks on good steps and grows on steps
+     * not increasing the log-likelihood as predicted.
+     *
+     * @param function The log-likelihood function.
+     * @param x The x coordinate of the initial guess.
+     * @param y The y coordinate of the initial guess.
+     * @param result Receives the position (x, y) of the maximum found.
+     *
+     * @return The log-likelihood at the result, negative infinity if the
+     *         likelihood is zero at the initial guess.
+     */
+    private static double maximize(LogLikelihoodFunction function, double x,
+                                   double y, double[] result) {
+        double[] d = new double[5];
+        double[] dTrial = new double[5];
+        double value = function.value(x, y, d);
+        result[0] = x;
+        result[1] = y;
+        if (value == Double.NEGATIVE_INFINITY) {
+            return value;
+        }
+
+        double mu = 0.0;
+        for (int evaluations = 1; evaluations < MAX_NEWTON_EVALUATIONS;) {
+            final double gx = d[0];
+            final double gy = d[1];
+            // A = -H, positive definite near a maximum
+            final double a00 = -d[2];
+            final double a01 = -d[3];
+            final double a11 = -d[4];
+            final double scale = Math.max(Math.abs(a00) + Math.abs(a11), 1e-12);
+            final double lambdaMin = 0.5 * (a00 + a11)
+                - Math.sqrt(0.25 * (a00 - a11) * (a00 - a11) + a01 * a01);
+            if (lambdaMin + mu < 1e-9 * scale) {
+                mu = 1e-3 * scale - lambdaMin;
+            }
+
+            boolean accepted = false;
+            double sx = 0.0, sy = 0.0;
+            while (!accepted && evaluations < MAX_NEWTON_EVALUATIONS) {
+                final double b00 = a00 + mu;
+                final double b11 = a11 + mu;
+                final double det = b00 * b11 - a01 * a01;
+                sx = (b11 * gx - a01 * gy) / det;
+                sy = (b00 * gy - a01 * gx) / det;
+                final double predicted = gx * sx + gy * sy
+                    - 0.5 * (sx * (a00 * sx + a01 * sy) + sy * (a01 * sx + a11 * sy));
+                if (!(predicted > 0.0)) {
+                    // no further increase possible
+                    return value;
+                }
+                final double trial = function.value(x + sx, y + sy, dTrial);
+                evaluations++;
+                final double rho = (trial - value) / predicted;
+                if (rho >= 1e-4) {
+                    accepted = true;
+                    x += sx;
+                    y += sy;
+                    value = trial;
+                    double[] t = d;
+                    d = dTrial;
+                    dTrial = t;
+                    if (rho > 0.75) {
+                        mu *= 0.25;
+                    }
+                } else {
+                    mu = Math.max(4.0 * mu, 1e-3 * scale);
+                }
+                if (Math.sqrt(sx * sx + sy * sy)
+                        <= NEWTON_STEP_TOLERANCE * (1.0 + Math.abs(x) + Math.abs(y))) {
+                    // converged, or the trust region collapsed
+                    break;
+                }
+            }
+            result[0] = x;
+            result[1] = y;
+            if (!accepted || Math.sqrt(sx * sx + sy * sy)
+                    <= NEWTON_STEP_TOLERANCE * (1.0 + Math.abs(x) + Math.abs(y))) {
+                break;
+            }
+        }
+        if (MLEGamma.loggingEnabled) {
+            MLEGamma.logger.fine("    Newton result: (" + x + ", " + y
+                                 + "), log-likelihood: " + value);
+        }
+        return value;
+    }
+
     private final static MLEGamma.ResultPair multilaterate(Point2d guessPoint,
 							   Point2d[] anchors,
 							   double[] ranges,
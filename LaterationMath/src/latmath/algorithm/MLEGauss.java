@@ -38,7 +38,7 @@ import latmath.util.dialog.ConfigDialog;
  * @author  Marcel Kyas <marcel.kyas@fu-berlin.de>
  * @since   LatMath 1.0
  */
-public final class MLEGauss extends BasicLaterationAlgorithm {
+public final class MLEGauss extends BasicLaterationAlgorithm implements WarmStartable {
 
     private static final Logger logger =
         Logger.getLogger("latmath.algorithm.MLEGauss");
@@ -71,6 +71,14 @@ public final class MLEGauss extends BasicLaterationAlgorithm {
         return pe != null ? pe.getLocation() : null;
     }
 
+    @Override
+    public Point2d localize(Point2d[] anchors, double[] ranges, Point2d start) {
+        PositionEstimate pe =
+            MLEGauss.multilaterate(anchors, ranges, this.median, this.deviation,
+                                   start);
+        return pe != null ? pe.getLocation() : null;
+    }
+
     /**
      * Returns a string representation of this lateration algorithm.
      *
@@ -342,6 +350,38 @@ public final class MLEGauss extends BasicLaterationAlgorithm {
 									    bestResult.getPosition()));
     }
 
+    /**
+     * Static call to this lateration algorithm starting the optimization
+     * from the given position only.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param start The starting point of the optimization.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated, e.g.
+     *         localization failed.
+     */
+    public static PositionEstimate multilaterate(Point2d[] anchors,
+                                                 double[] ranges, double median,
+                                                 double deviation,
+                                                 Point2d start) {
+        // sanity check
+        if (anchors.length != ranges.length) {
+            return null;
+        }
+
+        MLEGauss.ResultPair result = multilaterate(start, anchors, ranges,
+                                                   median, deviation);
+        if (result == null) {
+            return null;
+        }
+        return new PositionEstimate(result.getPosition(),
+                                    PositionEstimate.calculateResidualError(anchors,
+                                                                            ranges,
+                                                                            result.getPosition()));
+    }
+
     private final static MLEGauss.ResultPair multilaterate(Point2d guessPoint,
 							   Point2d[] anchors,
 							   double[] ranges,
@@ -11,10 +11,11 @@ import javax.swing.JSpinner;
 import javax.swing.SpinnerNumberModel;
 import latmath.errormodel.ErrorModel;
 import latmath.util.ArrayUtils;
-import latmath.util.Matrix;
+import latmath.util.Mat2;
 import latmath.util.Point2d;
 import latmath.util.PositionEstimate;
 import latmath.util.Releasable;
+import latmath.util.Vec2;
 import latmath.util.dialog.ConfigDialog;
 
 /**
@@ -24,7 +25,8 @@ import latmath.util.dialog.ConfigDialog;
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
-public final class MLEGaussian extends BasicLaterationAlgorithm implements Releasable {
+public final class MLEGaussian extends BasicLaterationAlgorithm
+        implements Releasable, WarmStartable {
 
     /** Gaussian MF by M2 */
     private double mean = 2.43;
@@ -46,6 +48,12 @@ public final class MLEGaussian extends BasicLaterationAlgorithm implements Relea
         return pe != null ? pe.getLocation() : null;
     }
 
+    @Override
+    public Point2d localize(Point2d[] anchors, double[] ranges, Point2d start) {
+        PositionEstimate pe = multilaterate(anchors, ranges, mean, sdev, start);
+        return pe != null ? pe.getLocation() : null;
+    }
+
     /**
      * Returns a string representation of this lateration algorithm.
      *
@@ -160,9 +168,6 @@ public final class MLEGaussian extends BasicLaterationAlgorithm implements Relea
             ranges[i] = Math.max(ranges[i] - mean, 0.01);
         }
         
-        // Starting point of optimization: s0 = (u0, v0)
-        Point2d s0;
-
         // Fill weight matrix
         double[] weights = new double[anchors.length];
         ArrayUtils.fill(weights, 1/sdev);
@@ -185,77 +190,14 @@ public final class MLEGaussian extends BasicLaterationAlgorithm implements Relea
         // 3. Min-Max
         sPoint[2] = MinMax.multilaterate(anchors, ranges); // might be null
         
-        // precalc inverse covariance matrix/weight matrix W^-1,
-        // entries are 1/variance = 1/(sdev*sdev)
-        double[][] w = new double[anchors.length][anchors.length];
-        for (int i = 0; i < anchors.length; i++) {
-            w[i][i] = (weights[i] * weights[i]);
-        }
-        Matrix mWI = new Matrix(w);
-
-        valueLoop:
         for (int j = 0; j < sPoint.length; j++) {
-
-            s0 = sPoint[j];
-            if (s0 == null) {
+            if (sPoint[j] == null) {
                 continue;
             }
-
-            double e0, e1;
-            int iterations = 0;
-            double epsilon = 0.001;
-            Point2d r0 = new Point2d();
-
-            do {
-                // initial squared error
-                e0 = PositionEstimate.calculateResidualError(anchors, ranges, weights, s0);
-
-                // 2. Solve equation of form W*A*x = W*b
-                double[][] b = new double[anchors.length][1];
-                double[][] a = new double[anchors.length][2];
-                for (int i = 0; i < anchors.length; i++) {
-                    double dist = s0.distance(anchors[i]);
-                    if (dist == 0) {
-                        // avoid NaN
-                        continue valueLoop;
-                    }
-                    a[i][0] = (s0.x - anchors[i].x) / dist;
-                    a[i][1] = (s0.y - anchors[i].y) / dist;
-                    b[i][0] = (ranges[i] - dist) + (a[i][0] * s0.x + a[i][1] * s0.y);
-                }
-
-                // Solve with closed form solution: x = (A^T * W^-1 * A)^-1 * A^T * W^-1 * b
-                Matrix mA = new Matrix(a);
-                Matrix mB = new Matrix(b);
-                Matrix mAT = mA.transpose();
-                Matrix tmp = mAT.times(mWI);
-                tmp = tmp.times(mA);
-                tmp = tmp.inverse();
-                if (tmp == null) {
-                    // Matrix was singular => no inverse
-                    break;
-                }
-                tmp = tmp.times(mAT);
-                tmp = tmp.times(mWI);
-                tmp = tmp.times(mB);
-                r0.x = tmp.cell(0, 0);
-                r0.y = tmp.cell(1, 0);
-
-                // new squared error
-                e1 = PositionEstimate.calculateResidualError(anchors, ranges, weights, r0);
-                if (e0 - e1 < epsilon) {
-                    break;
-                }
-
-                // Set refined position for next step
-                s0.x = r0.x;
-                s0.y = r0.y;
-                iterations++;
-
-            } while (iterations <= 10);
+            double e0 = refine(anchors, ranges, weights, sPoint[j]);
 
             // check if new result is better than last one
-            if (e0 < minResidualError) {
+            if (e0 >= 0 && e0 < minResidualError) {
                 minResidualError = e0;
                 minResidualErrorIdx = j;
             }
@@ -269,4 +211,107 @@ public final class MLEGaussian extends BasicLaterationAlgorithm implements Relea
         }
     }
 
+    /**
+     * Static call to this lateration algorithm starting the optimization
+     * from the given position only.
+     * <p>
+     * Unlike {@link #multilaterate(Point2d[], double[], double, double)}
+     * the ranges are not modified.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param mean The mean of the normal distribution.
+     * @param sdev The standard deviation of the normal distribution.
+     * @param start The starting point of the optimization, not modified.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated, e.g.
+     *         localization failed.
+     */
+    public static PositionEstimate multilaterate(Point2d[] anchors,
+            double[] ranges, double mean, double sdev, Point2d start) {
+        // sanity check
+        if (anchors.length != ranges.length || anchors.length < 3) {
+            return null;
+        }
+
+        double[] corrected = new double[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            corrected[i] = Math.max(ranges[i] - mean, 0.01);
+        }
+        double[] weights = new double[anchors.length];
+        ArrayUtils.fill(weights, 1/sdev);
+
+        Point2d s0 = new Point2d(start.x, start.y);
+        double e0 = refine(anchors, corrected, weights, s0);
+        return e0 >= 0 ? new PositionEstimate(s0, e0) : null;
+    }
+
+    /**
+     * Weighted Gauss-Newton refinement of a starting point.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The corrected distances to the anchor/reference nodes.
+     * @param weights The weights of the ranges, the inverse covariance
+     *                matrix W^-1 has the squared weights on its diagonal.
+     * @param s0 The starting point, overwritten with the refined position.
+     *
+     * @return The weighted residual error of the refined position or
+     *         {@code -1} if an iterate coincides with an anchor.
+     */
+    private static double refine(Point2d[] anchors, double[] ranges,
+            double[] weights, Point2d s0) {
+        double e0, e1;
+        int iterations = 0;
+        double epsilon = 0.001;
+        Point2d r0 = new Point2d();
+        Mat2 atwa = new Mat2();
+        Vec2 atwb = new Vec2();
+        Vec2 x = new Vec2();
+
+        do {
+            // initial squared error
+            e0 = PositionEstimate.calculateResidualError(anchors, ranges, weights, s0);
+
+            // 2. Solve equation of form W*A*x = W*b,
+            //    accumulate A^T * W^-1 * A and A^T * W^-1 * b
+            atwa.setZero();
+            atwb.setZero();
+            for (int i = 0; i < anchors.length; i++) {
+                double dist = s0.distance(anchors[i]);
+                if (dist == 0) {
+                    // avoid NaN
+                    return -1;
+                }
+                double ax = (s0.x - anchors[i].x) / dist;
+                double ay = (s0.y - anchors[i].y) / dist;
+                double b = (ranges[i] - dist) + (ax * s0.x + ay * s0.y);
+                double w = weights[i] * weights[i];
+                atwa.addOuter(ax, ay, w);
+                atwb.addScaled(w * b, ax, ay);
+            }
+
+            // Solve with closed form solution: x = (A^T * W^-1 * A)^-1 * A^T * W^-1 * b
+            if (!atwa.solve(atwb, x)) {
+                // Matrix was singular => no inverse
+                break;
+            }
+            r0.x = x.x;
+            r0.y = x.y;
+
+            // new squared error
+            e1 = PositionEstimate.calculateResidualError(anchors, ranges, weights, r0);
+            if (e0 - e1 < epsilon) {
+                break;
+            }
+
+            // Set refined position for next step
+            s0.x = r0.x;
+            s0.y = r0.y;
+            iterations++;
+
+        } while (iterations <= 10);
+        return e0;
+    }
+
 }
@@ -1,6 +1,7 @@
 package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
 
@@ -21,10 +22,50 @@ public class MinMax extends BasicLaterationAlgorithm implements Releasable {
         return "MIN-MAX";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
-        return multilaterate(anchors, ranges);
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            if (!multilaterate(ws.getX(n), ws.getY(n), ranges, e)) {
+                return null;
+            }
+            return new Point2d(e[0], e[1]);
+        } finally {
+            releaseWorkspace(ws);
+        }
+    }
+
+    /**
+     * Batch version of this lateration algorithm.
+     * <p>
+     * Works directly on the primitive arrays without any temporary objects.
+     */
+    @Override
+    public int localizeBatch(double[] xs, double[] ys, double[] ranges,
+            int count, double[] estX, double[] estY) {
+        checkBatch(xs, ys, ranges, count, estX, estY);
+        int n = xs.length;
+        if (n < 3) {
+            for (int i = 0; i < count; i++) {
+                estX[i] = estY[i] = Double.NaN;
+            }
+            return 0;
+        }
+        double[] e = new double[2];
+        for (int i = 0; i < count; i++) {
+            multilaterate(xs, ys, ranges, i * n, e);
+            estX[i] = e[0];
+            estY[i] = e[1];
+        }
+        return count;
     }
 
     /**
@@ -70,4 +111,55 @@ public class MinMax extends BasicLaterationAlgorithm implements Releasable {
         }
 	return new Point2d(west * 0.5 + east * 0.5, north * 0.5 + south * 0.5);
     }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Does not allocate any memory.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if no position could
+     *         be calculated, e.g. localization failed.
+     */
+    public static boolean multilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] result) {
+        // step 0: sanity check
+        if (xs.length != ranges.length || ys.length != ranges.length
+                || ranges.length == 0) {
+            return false;
+        }
+        multilaterate(xs, ys, ranges, 0, result);
+        return true;
+    }
+
+    /**
+     * Min-Max on primitive arrays.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances.
+     * @param off The offset of the first range in <code>ranges</code>.
+     * @param result The estimated position (x, y), at least 2 long.
+     */
+    static void multilaterate(double[] xs, double[] ys, double[] ranges,
+            int off, double[] result) {
+        double north = ys[0] - ranges[off],
+               west = xs[0] - ranges[off],
+               east = xs[0] + ranges[off],
+               south = ys[0] + ranges[off];
+
+        for (int i = 1; i < xs.length; ++i) {
+            double r = ranges[off + i];
+            north = Math.max(north, ys[i] - r);
+            west = Math.max(west, xs[i] - r);
+            east = Math.min(east, xs[i] + r);
+            south = Math.min(south, ys[i] + r);
+        }
+        result[0] = west * 0.5 + east * 0.5;
+        result[1] = north * 0.5 + south * 0.5;
+    }
 }
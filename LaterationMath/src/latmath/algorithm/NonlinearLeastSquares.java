@@ -1,8 +1,10 @@
 package latmath.algorithm;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import latmath.errormodel.ErrorModel;
-import latmath.util.ArrayUtils;
-import latmath.util.Matrix;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
 import latmath.util.PositionEstimate;
 import latmath.util.Releasable;
@@ -14,7 +16,8 @@ import latmath.util.Releasable;
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
-public final class NonlinearLeastSquares extends BasicLaterationAlgorithm implements Releasable {
+public final class NonlinearLeastSquares extends BasicLaterationAlgorithm
+        implements Releasable, WarmStartable {
     
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
@@ -24,11 +27,419 @@ public final class NonlinearLeastSquares extends BasicLaterationAlgorithm implem
         return "NLLS";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
-        PositionEstimate pe = multilaterate(anchors, ranges);
-        return pe != null ? pe.getLocation() : null;
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            if (multilaterate(ws.getX(n), ws.getY(n), ranges, e) < 0) {
+                return null;
+            }
+            return new Point2d(e[0], e[1]);
+        } finally {
+            releaseWorkspace(ws);
+        }
+    }
+
+    @Override
+    public Point2d localize(Point2d[] anchors, double[] ranges, Point2d start) {
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            if (multilaterate(ws.getX(n), ws.getY(n), ranges, start.x, start.y, e) < 0) {
+                return null;
+            }
+            return new Point2d(e[0], e[1]);
+        } finally {
+            releaseWorkspace(ws);
+        }
+    }
+
+    /**
+     * Batch version of this lateration algorithm.
+     * <p>
+     * The linear least squares pseudo-inverse and the centroid of the
+     * anchors (two of the three starting points) only depend on the anchor
+     * positions and are therefore calculated once for the whole batch.
+     */
+    @Override
+    public int localizeBatch(double[] xs, double[] ys, double[] ranges,
+            int count, double[] estX, double[] estY) {
+        checkBatch(xs, ys, ranges, count, estX, estY);
+        int n = xs.length;
+        if (n < 3) {
+            for (int i = 0; i < count; i++) {
+                estX[i] = estY[i] = Double.NaN;
+            }
+            return 0;
+        }
+        int m = n - 1;
+        double[] p0 = new double[m];
+        double[] p1 = new double[m];
+        double[] k = new double[m];
+        boolean llsAvailable = LinearLeastSquares.pseudoInverse(xs, ys, p0, p1, k);
+        double cx = 0, cy = 0;
+        for (int j = 0; j < n; j++) {
+            cx += xs[j];
+            cy += ys[j];
+        }
+        cx /= n;
+        cy /= n;
+
+        double[] s = new double[2];
+        double[] best = new double[2];
+        int success = 0;
+        for (int i = 0, off = 0; i < count; i++, off += n) {
+            double minResidualError = Double.MAX_VALUE;
+            boolean found = false;
+            for (int j = 0; j < 3; j++) {
+                if (j == 0) {
+                    // 1. Linear least squares result
+                    if (!llsAvailable) {
+                        continue;
+                    }
+                    double rm = ranges[off + m];
+                    s[0] = s[1] = 0;
+                    for (int l = 0; l < m; l++) {
+                        double rl = ranges[off + l];
+                        double b = k[l] + 0.5 * (rm * rm - rl * rl);
+                        s[0] += p0[l] * b;
+                        s[1] += p1[l] * b;
+                    }
+                } else if (j == 1) {
+                    // 2. Centroid
+                    s[0] = cx;
+                    s[1] = cy;
+                } else {
+                    // 3. Min-Max
+                    MinMax.multilaterate(xs, ys, ranges, off, s);
+                }
+                double e0 = refine(xs, ys, ranges, off, s);
+                if (e0 >= 0 && e0 < minResidualError) {
+                    minResidualError = e0;
+                    best[0] = s[0];
+                    best[1] = s[1];
+                    found = true;
+                }
+            }
+            if (found) {
+                estX[i] = best[0];
+                estY[i] = best[1];
+                success++;
+            } else {
+                estX[i] = estY[i] = Double.NaN;
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Does not allocate any memory: the starting points are calculated on
+     * primitive values and the normal equations of each Gauss-Newton step
+     * are accumulated as scalars.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return The residual error of the estimated position or {@code -1}
+     *         if no position could be calculated, e.g. localization failed.
+     */
+    public static double multilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] result) {
+        // sanity check
+        int n = xs.length;
+        if (ys.length != n || ranges.length != n || n < 3) {
+            return -1;
+        }
+
+        // Try different starting points and choose the one with the smallest
+        // residual error as result
+        double minResidualError = Double.MAX_VALUE;
+        double bestX = 0, bestY = 0;
+        boolean found = false;
+        for (int j = 0; j < 3; j++) {
+            if (j == 0) {
+                // 1. Linear least squares result
+                if (LinearLeastSquares.multilaterate(xs, ys, ranges, result) < 0) {
+                    continue;
+                }
+            } else if (j == 1) {
+                // 2. Centroid
+                double cx = 0, cy = 0;
+                for (int i = 0; i < n; i++) {
+                    cx += xs[i];
+                    cy += ys[i];
+                }
+                result[0] = cx / n;
+                result[1] = cy / n;
+            } else {
+                // 3. Min-Max
+                MinMax.multilaterate(xs, ys, ranges, 0, result);
+            }
+            double e0 = refine(xs, ys, ranges, 0, result);
+            if (e0 >= 0 && e0 < minResidualError) {
+                minResidualError = e0;
+                bestX = result[0];
+                bestY = result[1];
+                found = true;
+            }
+        }
+
+        if (!found) {
+            return -1;
+        }
+        result[0] = bestX;
+        result[1] = bestY;
+        return minResidualError;
+    }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays which
+     * refines a single given starting point.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param startX The x coordinate of the starting point.
+     * @param startY The y coordinate of the starting point.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return The residual error of the estimated position or {@code -1}
+     *         if no position could be calculated, e.g. the starting point
+     *         coincides with an anchor.
+     */
+    public static double multilaterate(double[] xs, double[] ys,
+            double[] ranges, double startX, double startY, double[] result) {
+        // sanity check
+        int n = xs.length;
+        if (ys.length != n || ranges.length != n || n < 3) {
+            return -1;
+        }
+        result[0] = startX;
+        result[1] = startY;
+        return refine(xs, ys, ranges, 0, result);
+    }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays which
+     * refines the three starting points concurrently.
+     * <p>
+     * Gives the same result as
+     * {@link #multilaterate(double[], double[], double[], double[])}. The
+     * refinements run as tasks of the given pool or, if called from a task
+     * of any pool, of the current pool. This only pays off for many anchors,
+     * for a few anchors the task overhead exceeds the refinement costs.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param result The estimated position (x, y), at least 2 long.
+     * @param pool The pool running the refinements when not called from a
+     *             pool, may only be {@code null} when called from a pool.
+     *
+     * @return The residual error of the estimated position or {@code -1}
+     *         if no position could be calculated, e.g. localization failed.
+     *
+     * @throws IllegalArgumentException If the pool is {@code null} and this
+     *                                  method is not called from a pool.
+     */
+    public static double multilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] result, ForkJoinPool pool) {
+        if (pool == null && !ForkJoinTask.inForkJoinPool()) {
+            throw new IllegalArgumentException("no pool to run the refinements");
+        }
+        // sanity check
+        int n = xs.length;
+        if (ys.length != n || ranges.length != n || n < 3) {
+            return -1;
+        }
+        MultiStart task = new MultiStart(xs, ys, ranges);
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        return task.best(result);
+    }
+
+    /**
+     * Refines all starting points as concurrent tasks.
+     */
+    private static final class MultiStart extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] ranges;
+
+        /** Starting points, refined positions and their residual errors */
+        private final double[][] points = new double[3][2];
+        private final double[] errors = {-1, -1, -1};
+
+        MultiStart(double[] xs, double[] ys, double[] ranges) {
+            this.xs = xs;
+            this.ys = ys;
+            this.ranges = ranges;
+        }
+
+        @Override
+        protected void compute() {
+            // 1. Linear least squares result
+            boolean lls = LinearLeastSquares.multilaterate(xs, ys, ranges, points[0]) >= 0;
+            // 2. Centroid
+            int n = xs.length;
+            double cx = 0, cy = 0;
+            for (int i = 0; i < n; i++) {
+                cx += xs[i];
+                cy += ys[i];
+            }
+            points[1][0] = cx / n;
+            points[1][1] = cy / n;
+            // 3. Min-Max
+            MinMax.multilaterate(xs, ys, ranges, 0, points[2]);
+
+            if (lls) {
+                invokeAll(new Refine(0), new Refine(1), new Refine(2));
+            } else {
+                invokeAll(new Refine(1), new Refine(2));
+            }
+        }
+
+        /**
+         * Copies the refined position with the smallest residual error.
+         */
+        double best(double[] result) {
+            double minResidualError = Double.MAX_VALUE;
+            int bestIdx = -1;
+            for (int j = 0; j < 3; j++) {
+                if (errors[j] >= 0 && errors[j] < minResidualError) {
+                    minResidualError = errors[j];
+                    bestIdx = j;
+                }
+            }
+            if (bestIdx < 0) {
+                return -1;
+            }
+            result[0] = points[bestIdx][0];
+            result[1] = points[bestIdx][1];
+            return minResidualError;
+        }
+
+        private final class Refine extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int j;
+
+            Refine(int j) {
+                this.j = j;
+            }
+
+            @Override
+            protected void compute() {
+                errors[j] = refine(xs, ys, ranges, 0, points[j]);
+            }
+        }
+    }
+
+    /**
+     * Gauss-Newton refinement of a starting point on primitive arrays.
+     * <p>
+     * The normal equations are accumulated as scalars, so no memory is
+     * allocated.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances.
+     * @param off The offset of the first range in <code>ranges</code>.
+     * @param s The starting point, overwritten with the refined position.
+     *
+     * @return The residual error of the refined position or {@code -1} if
+     *         the starting point coincides with an anchor.
+     */
+    static double refine(double[] xs, double[] ys, double[] ranges, int off,
+            double[] s) {
+        int n = xs.length;
+        double sx = s[0];
+        double sy = s[1];
+        double e0, e1;
+        int iterations = 0;
+        double epsilon = 0.001;
+
+        do {
+            // initial squared error
+            e0 = residualError(xs, ys, ranges, off, sx, sy);
+
+            // accumulate A^T*A and A^T*b
+            double a00 = 0, a01 = 0, a11 = 0, b0 = 0, b1 = 0;
+            for (int i = 0; i < n; i++) {
+                double dx = sx - xs[i];
+                double dy = sy - ys[i];
+                double dist = Math.sqrt(dx * dx + dy * dy);
+                if (dist == 0) {
+                    // avoid NaN
+                    return -1;
+                }
+                double ax = dx / dist;
+                double ay = dy / dist;
+                double b = (ranges[off + i] - dist) + (ax * sx + ay * sy);
+                a00 += ax * ax;
+                a01 += ax * ay;
+                a11 += ay * ay;
+                b0 += ax * b;
+                b1 += ay * b;
+            }
+
+            // Solve with closed form solution: x = (A^T*A)^-1 * A^T * b
+            double det = a00 * a11 - a01 * a01;
+            if (det == 0) {
+                // Matrix was singular => no inverse
+                break;
+            }
+            double rx = (a11 * b0 - a01 * b1) / det;
+            double ry = (a00 * b1 - a01 * b0) / det;
+
+            // new squared error
+            e1 = residualError(xs, ys, ranges, off, rx, ry);
+            if (e0 - e1 < epsilon) {
+                break;
+            }
+
+            // Set refined position for next step
+            sx = rx;
+            sy = ry;
+            iterations++;
+
+        } while (iterations <= 10);
+
+        s[0] = sx;
+        s[1] = sy;
+        return e0;
+    }
+
+    private static double residualError(double[] xs, double[] ys,
+            double[] ranges, int off, double x, double y) {
+        double error = 0;
+        for (int i = 0; i < xs.length; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double residual = Math.sqrt(dx * dx + dy * dy) - ranges[off + i];
+            error += residual * residual;
+        }
+        return error;
     }
 
     /**
@@ -61,102 +472,17 @@ public final class NonlinearLeastSquares extends BasicLaterationAlgorithm implem
             return null;
         }
 
-        // Starting point of optimization: s0 = (u0, v0)
-        Point2d s0;
-
-        // Fill weight matrix
-        double[] weights = new double[anchors.length];
-        ArrayUtils.fill(weights, 1);
-
-        // Try different starting points and choose the one with the smallest
-        // residual error as result
-        Point2d[] sPoint = new Point2d[3];
-        double minResidualError = Double.MAX_VALUE;
-        int minResidualErrorIdx = -1;
-
-        // Take the following points as starting point of optimization:
-        //
-        // 1. Linear least squares result
-        PositionEstimate pe = LinearLeastSquares.multilaterate(anchors, ranges, weights);
-        sPoint[0] = pe != null ? pe.getLocation() : null; // might be null
-
-        // 2. Centroid
-        sPoint[1] = Point2d.centerOfMass(anchors, weights);
-        
-        // 3. Min-Max
-        sPoint[2] = MinMax.multilaterate(anchors, ranges); // might be null
-        
-        valueLoop:
-        for (int j = 0; j < sPoint.length; j++) {
-
-            s0 = sPoint[j];
-            if (s0 == null) {
-                continue;
-            }
-
-            double e0, e1;
-            int iterations = 0;
-            double epsilon = 0.001;
-            Point2d r0 = new Point2d();
-
-            do {
-                // initial squared error
-                e0 = PositionEstimate.calculateResidualError(anchors, ranges, weights, s0);
-
-                // 2. Solve equation of form A*x = b, A is A.length x 2
-                double[][] b = new double[anchors.length][1];
-                double[][] a = new double[anchors.length][2];
-                for (int i = 0; i < anchors.length; i++) {
-                    double dist = s0.distance(anchors[i]);
-                    if (dist == 0) {
-                        // avoid NaN
-                        continue valueLoop;
-                    }
-                    a[i][0] = (s0.x - anchors[i].x) / dist;
-                    a[i][1] = (s0.y - anchors[i].y) / dist;
-                    b[i][0] = (ranges[i] - dist) + (a[i][0] * s0.x + a[i][1] * s0.y);
-                }
-
-                // Solve with closed form solution: x = (A^T*A)^-1 * A^T * b
-                Matrix mA = new Matrix(a);
-                Matrix mB = new Matrix(b);
-                Matrix mAT = mA.transpose();
-                Matrix tmp = mAT.times(mA);
-                tmp = tmp.inverse();
-                if (tmp == null) {
-                    // Matrix was singular => no inverse
-                    break;
-                }
-                tmp = tmp.times(mAT);
-                tmp = tmp.times(mB);
-                r0.x = tmp.cell(0, 0);
-                r0.y = tmp.cell(1, 0);
-
-                // new squared error
-                e1 = PositionEstimate.calculateResidualError(anchors, ranges, weights, r0);
-                if (e0 - e1 < epsilon) {
-                    break;
-                }
-
-                // Set refined position for next step
-                s0.x = r0.x;
-                s0.y = r0.y;
-                iterations++;
-
-            } while (iterations <= 10);
-
-            // check if new result is better than last one
-            if (e0 < minResidualError) {
-                minResidualError = e0;
-                minResidualErrorIdx = j;
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            double e0 = multilaterate(ws.getX(n), ws.getY(n), ranges, e);
+            if (e0 < 0) {
+                return null;
             }
-        }
-
-        if (minResidualErrorIdx != -1) {
-            return new PositionEstimate(sPoint[minResidualErrorIdx],
-                    minResidualError);
-        } else {
-            return null;
+            return new PositionEstimate(new Point2d(e[0], e[1]), e0);
+        } finally {
+            releaseWorkspace(ws);
         }
     }
 
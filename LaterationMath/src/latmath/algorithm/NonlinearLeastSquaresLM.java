@@ -1,9 +1,10 @@
 package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
-import latmath.util.Matrix;
+import latmath.util.Mat2;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
+import latmath.util.Vec2;
 
 /**
  * Multilateration using nonlinear least squares solution based on the
@@ -17,7 +18,8 @@ import latmath.util.Releasable;
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
-public final class NonlinearLeastSquaresLM extends BasicLaterationAlgorithm implements Releasable {
+public final class NonlinearLeastSquaresLM extends BasicLaterationAlgorithm
+        implements Releasable, WarmStartable {
     
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
@@ -33,6 +35,11 @@ public final class NonlinearLeastSquaresLM extends BasicLaterationAlgorithm impl
         return multilaterate(anchors, ranges);
     }
 
+    @Override
+    public Point2d localize(Point2d[] anchors, double[] ranges, Point2d start) {
+        return multilaterate(anchors, ranges, start);
+    }
+
     /**
      * Returns a string representation of this lateration algorithm.
      *
@@ -62,9 +69,30 @@ public final class NonlinearLeastSquaresLM extends BasicLaterationAlgorithm impl
         if (anchors.length != ranges.length || anchors.length < 3) {
             return null;
         }
+        return multilaterate(anchors, ranges, Point2d.centerOfMass(anchors));
+    }
+
+    /**
+     * Static call to this lateration algorithm starting the optimization
+     * from the given position instead of the centroid of the anchors.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param start The starting point of the optimization, not modified.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated, e.g.
+     *         localization failed.
+     */
+    public static Point2d multilaterate(Point2d[] anchors, double[] ranges,
+            Point2d start) {
+        // sanity check
+        if (anchors.length != ranges.length || anchors.length < 3) {
+            return null;
+        }
 
         // Starting point of optimization: s0 = (u0, v0)
-        Point2d s0 = Point2d.centerOfMass(anchors);
+        Point2d s0 = new Point2d(start.x, start.y);
         
         // Define some parameters
         int k = 0;              // number of iterations
@@ -72,63 +100,62 @@ public final class NonlinearLeastSquaresLM extends BasicLaterationAlgorithm impl
         double tau = 0.001;     // threshold in position change between steps
         double rho = 0.05;
         Point2d r0 = new Point2d();
+        Mat2 jtj = new Mat2();
+        Vec2 jtr = new Vec2();
+        Vec2 deltaLM = new Vec2();
         
         iterLoop:
         do {
-            // Calculate vector R(p_k) and Jacobian J(p_k):
-            double[][] r = new double[anchors.length][1];
-            double[][] j = new double[anchors.length][2];
+            // Accumulate J^T * J and J^T * R from the residual error vector
+            // R(p_k) and the Jacobian J(p_k):
+            jtj.setZero();
+            jtr.setZero();
+            double mf = 0;
             for (int i = 0; i < anchors.length; i++) {
                 double dist = s0.distance(anchors[i]);
                 if (dist == 0) {
                     break iterLoop;
                 }
-                j[i][0] = (s0.x - anchors[i].x) / dist;
-                j[i][1] = (s0.y - anchors[i].y) / dist;
-                r[i][0] = ranges[i] - dist;
+                double jx = (s0.x - anchors[i].x) / dist;
+                double jy = (s0.y - anchors[i].y) / dist;
+                double r = ranges[i] - dist;
+                jtj.addOuter(jx, jy, 1);
+                jtr.addScaled(r, jx, jy);
+                mf += r * r;
             }
-            
-            // Build matrices out of arrays:
-            Matrix mR = new Matrix(r);  // residual error vector
-            Matrix mJ = new Matrix(j);  // estimate of the Jacobian
-            Matrix mJT = mJ.transpose();
+            mf *= 0.5;                              // merit function
             
             // Update mu_k:
-            Matrix tmp = mJT.times(mR);             // J^T * R
-            mu_k = rho * Math.sqrt(tmp.cell(0, 0) * tmp.cell(0, 0) + tmp.cell(1, 0) * tmp.cell(1, 0));
+            mu_k = rho * jtr.length();
             
             // Calculate Levenberg-Marquardt direction:
-            Matrix tmp2 = mJT.times(mJ);            // J^T * J
-            Matrix mI = new Matrix(tmp2.cols());    // will be 2x2 identity matrix
-            mI = mI.times(mu_k);                    // mul with scalar mu_k
-            Matrix deltaLM = tmp2.add(mI);
-            deltaLM = deltaLM.inverse();            // (J^T * J + mu_k * I)^-1
-            deltaLM = deltaLM.times(tmp);           // (J^T * J + mu_k * I)^-1 * J^T * R
+            // (J^T * J + mu_k * I)^-1 * J^T * R
+            if (!jtj.addDiagonal(mu_k).solve(jtr, deltaLM)) {
+                break;
+            }
             
             // Find sufficient decrease (Armijo rule):
             int t = 0;
             double alpha;
-            Matrix mMF = mR.transpose().times(0.5).times(mR); // merit function
+            double slope = jtr.dot(deltaLM);
             while (true) {
                 alpha = Math.pow(0.5, t);
-                r0.x = s0.x + alpha * deltaLM.cell(0, 0);
-                r0.y = s0.y + alpha * deltaLM.cell(1, 0);
+                r0.x = s0.x + alpha * deltaLM.x;
+                r0.y = s0.y + alpha * deltaLM.y;
                 
                 // Calculate left side of equation:
-                r = new double[anchors.length][1];
+                double left = 0;
                 for (int i = 0; i < anchors.length; i++) {
-                    r[i][0] = ranges[i] - r0.distance(anchors[i]);
+                    double r = ranges[i] - r0.distance(anchors[i]);
+                    left += r * r;
                 }
-                mR = new Matrix(r);
-                Matrix left = mR.transpose().times(0.5);
-                left = left.times(mR);  // 1x1 matrix
+                left *= 0.5;
                 
                 // Calculate right side of equation:
-                Matrix right = tmp.transpose().times(0.0001 * alpha).times(deltaLM);
-                right = mMF.add(right); // 1x1 matrix
+                double right = mf + 0.0001 * alpha * slope;
                 
                 // Break loop if (left <= right) => alpha found
-                if (left.cell(0, 0) <= right.cell(0, 0)) {
+                if (left <= right) {
                     break;
                 }
                 t++;
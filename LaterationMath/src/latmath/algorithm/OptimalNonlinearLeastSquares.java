@@ -2,10 +2,11 @@ package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
 import latmath.util.ArrayUtils;
-import latmath.util.Matrix;
+import latmath.util.Mat2;
 import latmath.util.Point2d;
 import latmath.util.PositionEstimate;
 import latmath.util.Releasable;
+import latmath.util.Vec2;
 
 /**
  * Multilateration using nonlinear least squares solution.
@@ -90,39 +91,38 @@ public final class OptimalNonlinearLeastSquares extends BasicLaterationAlgorithm
         int iterations = 0;
         double epsilon = 0.001;
         Point2d r0 = new Point2d();
+        Mat2 ata = new Mat2();
+        Vec2 atb = new Vec2();
+        Vec2 x = new Vec2();
 
         iterLoop:
         do {
             // initial squared error
             e0 = PositionEstimate.calculateResidualError(anchors, ranges, weights, s0);
 
-            // 2. Solve equation of form A*x = b, A is A.length x 2
-            double[][] b = new double[anchors.length][1];
-            double[][] a = new double[anchors.length][2];
+            // 2. Solve equation of form A*x = b, A is A.length x 2,
+            //    accumulate A^T*A and A^T*b
+            ata.setZero();
+            atb.setZero();
             for (int i = 0; i < anchors.length; i++) {
                 double dist = s0.distance(anchors[i]);
                 if (dist == 0) {
                     break iterLoop;
                 }
-                a[i][0] = (s0.x - anchors[i].x) / dist;
-                a[i][1] = (s0.y - anchors[i].y) / dist;
-                b[i][0] = (ranges[i] - dist) + (a[i][0] * s0.x + a[i][1] * s0.y);
+                double ax = (s0.x - anchors[i].x) / dist;
+                double ay = (s0.y - anchors[i].y) / dist;
+                double b = (ranges[i] - dist) + (ax * s0.x + ay * s0.y);
+                ata.addOuter(ax, ay, 1);
+                atb.addScaled(b, ax, ay);
             }
 
             // Solve with closed form solution: x = (A^T*A)^-1 * A^T * b
-            Matrix mA = new Matrix(a);
-            Matrix mB = new Matrix(b);
-            Matrix mAT = mA.transpose();
-            Matrix tmp = mAT.times(mA);
-            tmp = tmp.inverse();
-            if (tmp == null) {
+            if (!ata.solve(atb, x)) {
                 // Matrix was singular => no inverse
                 break;
             }
-            tmp = tmp.times(mAT);
-            tmp = tmp.times(mB);
-            r0.x = tmp.cell(0, 0);
-            r0.y = tmp.cell(1, 0);
+            r0.x = x.x;
+            r0.y = x.y;
 
             // new squared error
             e1 = PositionEstimate.calculateResidualError(anchors, ranges, weights, r0);
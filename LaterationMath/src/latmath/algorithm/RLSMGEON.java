@@ -2,7 +2,7 @@ package latmath.algorithm;
 
 import java.util.LinkedList;
 import java.util.List;
-import latmath.algorithm.filter.RobustFilter;
+import latmath.algorithm.filter.BlockedRobustFilter;
 import latmath.errormodel.ErrorModel;
 import latmath.util.ArrayUtils;
 import latmath.util.LMath;
@@ -121,7 +121,7 @@ public final class RLSMGEON extends BasicLaterationAlgorithm implements Releasab
         // apply robust median filter to this array of intermediate
         // position estimates
         if (pts.length > 1) {
-            RobustFilter filter = new RobustFilter(pts);
+            BlockedRobustFilter filter = new BlockedRobustFilter(pts);
             pts = filter.filter();
         }
 
@@ -0,0 +1,300 @@
+package latmath.algorithm;
+
+import latmath.errormodel.ErrorModel;
+import latmath.util.Point2d;
+
+/**
+ * Localization of one moving node (tag) from consecutive range
+ * measurements.
+ * <p>
+ * The session keeps the previous position estimate and its covariance. If
+ * the algorithm is {@link WarmStartable}, each fix starts the optimization
+ * from the previous position only and skips the algorithm's own starting
+ * points. The warm result is accepted if it is consistent with the
+ * previous fix:
+ * <ul>
+ * <li>the residual error per degree of freedom does not exceed
+ *     {@value #RESIDUAL_GATE} times its running mean, i.e. the optimization
+ *     did not get stuck in a local minimum after a jump of the node;</li>
+ * <li>the Mahalanobis distance of the position change, with the sum of
+ *     both covariances plus the process noise, is within the 99% gate of
+ *     the chi-squared distribution.</li>
+ * </ul>
+ * Otherwise, and for the first fix, the algorithm runs from scratch by
+ * {@link BasicLaterationAlgorithm#safeLocalize safeLocalize()}.
+ * <p>
+ * The covariance of an estimate is the Gauss-Newton approximation
+ * <code>sigma^2 * (J^T*J)^-1</code> with the Jacobian <code>J</code> of the
+ * distances and the residual variance <code>sigma^2</code>.
+ * <p>
+ * Instances are not thread-safe, use one session per node.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class TrackingSession {
+
+    /** Default process noise (squared distance units per fix) */
+    public static final double DEFAULT_PROCESS_NOISE = 0.01;
+
+    /** Maximum ratio of residual variance to its running mean */
+    public static final double RESIDUAL_GATE = 4.0;
+
+    /** 99% quantile of the chi-squared distribution with 2 degrees of freedom */
+    private static final double MAHALANOBIS_GATE = 9.21;
+
+    /** Weight of a new residual variance in the running mean */
+    private static final double SMOOTHING = 0.1;
+
+    private final BasicLaterationAlgorithm algorithm;
+
+    private double processNoise = DEFAULT_PROCESS_NOISE;
+
+    /** Previous estimate, its covariance and the mean residual variance */
+    private boolean valid;
+    private double x;
+    private double y;
+    private final double[] covariance = new double[3];
+    private double variance;
+
+    private int warmStarts;
+    private int coldStarts;
+
+    /**
+     * Creates a new instance of <code>TrackingSession</code>.
+     *
+     * @param algorithm The lateration algorithm, warm-started if it is
+     *                  {@link WarmStartable}.
+     *
+     * @throws IllegalArgumentException If the algorithm is {@code null} or
+     *                                  a {@link LowerBoundEstimator}, which
+     *                                  does not estimate positions.
+     */
+    public TrackingSession(BasicLaterationAlgorithm algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("no lateration algorithm");
+        }
+        if (algorithm instanceof LowerBoundEstimator) {
+            throw new IllegalArgumentException("cannot track with lower bound estimator "
+                    + algorithm.getName());
+        }
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Localizes the node from new range measurements of real data.
+     * <p>
+     * Algorithms which need the actual position, e.g. optimal anchor
+     * selection, must be run by
+     * {@link #update(Point2d[], double[], Point2d, ErrorModel, int, int)}.
+     *
+     * @param anchors The anchor/reference nodes, at least 3.
+     * @param ranges The measured distances to the anchor/reference nodes,
+     *               not modified.
+     *
+     * @return The estimated position of the node or <code>null</code> if no
+     *         position could be calculated, the previous estimate is kept
+     *         in this case.
+     */
+    public Point2d update(Point2d[] anchors, double[] ranges) {
+        return update(anchors, ranges, null, null, -1, -1);
+    }
+
+    /**
+     * Localizes the node from new range measurements of a simulation.
+     * <p>
+     * The actual position, error model and playing field are only passed
+     * to the algorithm when it runs from scratch.
+     *
+     * @param anchors The anchor/reference nodes, at least 3.
+     * @param ranges The measured distances to the anchor/reference nodes,
+     *               not modified.
+     * @param actualPosition The actual location of the node or
+     *                       <code>null</code> if running with real data.
+     * @param errorModel The current error model used for simulation or
+     *                   <code>null</code> if running with real data.
+     * @param width The width of the playing field used for simulation or
+     *              <code>-1</code> if running with real data.
+     * @param height The height of the playing field used for simulation or
+     *              <code>-1</code> if running with real data.
+     *
+     * @return The estimated position of the node or <code>null</code> if no
+     *         position could be calculated, the previous estimate is kept
+     *         in this case.
+     */
+    public Point2d update(Point2d[] anchors, double[] ranges,
+            Point2d actualPosition, ErrorModel errorModel, int width, int height) {
+        if (anchors == null || ranges == null
+                || anchors.length != ranges.length || anchors.length < 3) {
+            return null;
+        }
+        double[] cov = new double[3];
+
+        if (valid && algorithm instanceof WarmStartable) {
+            Point2d p = ((WarmStartable) algorithm).localize(anchors, ranges,
+                    new Point2d(x, y));
+            if (p != null) {
+                double s2 = covariance(anchors, ranges, p, cov);
+                if (s2 >= 0 && isConsistent(p, s2, cov)) {
+                    warmStarts++;
+                    store(p, cov);
+                    variance += SMOOTHING * (s2 - variance);
+                    return p;
+                }
+            }
+        }
+
+        coldStarts++;
+        Point2d p = algorithm.safeLocalize(anchors, ranges.clone(),
+                actualPosition, errorModel, width, height);
+        if (p == null) {
+            return null;
+        }
+        double s2 = covariance(anchors, ranges, p, cov);
+        if (s2 >= 0) {
+            store(p, cov);
+            variance = s2;
+        } else {
+            // undetermined covariance, do not warm start from this fix
+            valid = false;
+        }
+        return p;
+    }
+
+    /**
+     * Forgets the previous estimate, e.g. if the node was switched off.
+     */
+    public void reset() {
+        valid = false;
+    }
+
+    /**
+     * Returns the previous position estimate.
+     *
+     * @return The previous position estimate or <code>null</code> if there
+     *         is none.
+     */
+    public Point2d getEstimate() {
+        return valid ? new Point2d(x, y) : null;
+    }
+
+    /**
+     * Returns the covariance of the previous position estimate.
+     *
+     * @return The covariance entries xx, xy and yy or <code>null</code> if
+     *         there is no previous estimate.
+     */
+    public double[] getCovariance() {
+        return valid ? covariance.clone() : null;
+    }
+
+    /**
+     * Returns the process noise added to the covariance of the position
+     * change between two fixes.
+     *
+     * @return The process noise in squared distance units.
+     */
+    public double getProcessNoise() {
+        return processNoise;
+    }
+
+    /**
+     * Sets the process noise added to the covariance of the position change
+     * between two fixes, i.e. the expected squared movement of the node per
+     * fix and coordinate.
+     *
+     * @param processNoise The process noise in squared distance units.
+     *
+     * @throws IllegalArgumentException If the process noise is negative.
+     */
+    public void setProcessNoise(double processNoise) {
+        if (!(processNoise >= 0)) {
+            throw new IllegalArgumentException("negative process noise");
+        }
+        this.processNoise = processNoise;
+    }
+
+    /**
+     * Returns the number of fixes accepted from a warm start.
+     *
+     * @return The number of warm-started fixes.
+     */
+    public int getWarmStarts() {
+        return warmStarts;
+    }
+
+    /**
+     * Returns the number of fixes calculated from scratch.
+     *
+     * @return The number of fixes calculated from scratch.
+     */
+    public int getColdStarts() {
+        return coldStarts;
+    }
+
+    private void store(Point2d p, double[] cov) {
+        valid = true;
+        x = p.x;
+        y = p.y;
+        System.arraycopy(cov, 0, covariance, 0, 3);
+    }
+
+    /**
+     * Tests if a warm-started estimate is consistent with the previous one.
+     */
+    private boolean isConsistent(Point2d p, double s2, double[] cov) {
+        if (s2 > RESIDUAL_GATE * variance + processNoise) {
+            return false;
+        }
+        double c00 = covariance[0] + cov[0] + processNoise;
+        double c01 = covariance[1] + cov[1];
+        double c11 = covariance[2] + cov[2] + processNoise;
+        double det = c00 * c11 - c01 * c01;
+        if (!(det > 0)) {
+            return false;
+        }
+        double dx = p.x - x;
+        double dy = p.y - y;
+        double d2 = (c11 * dx * dx - 2 * c01 * dx * dy + c00 * dy * dy) / det;
+        return d2 <= MAHALANOBIS_GATE;
+    }
+
+    /**
+     * Calculates the covariance <code>s2 * (J^T*J)^-1</code> of a position
+     * with the residual variance <code>s2</code>.
+     *
+     * @return The residual variance or {@code -1} if <code>J^T*J</code> is
+     *         singular or ill-conditioned.
+     */
+    private static double covariance(Point2d[] anchors, double[] ranges,
+            Point2d p, double[] cov) {
+        int n = anchors.length;
+        double error = 0;
+        double a00 = 0, a01 = 0, a11 = 0;
+        for (int i = 0; i < n; i++) {
+            double dx = p.x - anchors[i].x;
+            double dy = p.y - anchors[i].y;
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            double residual = dist - ranges[i];
+            error += residual * residual;
+            if (dist == 0) {
+                continue;
+            }
+            double ax = dx / dist;
+            double ay = dy / dist;
+            a00 += ax * ax;
+            a01 += ax * ay;
+            a11 += ay * ay;
+        }
+        if (!LinearLeastSquares.isWellConditioned(a00, a01, a11)) {
+            return -1;
+        }
+        double s2 = error / (n - 2);
+        double det = a00 * a11 - a01 * a01;
+        cov[0] = s2 * a11 / det;
+        cov[1] = -s2 * a01 / det;
+        cov[2] = s2 * a00 / det;
+        return s2;
+    }
+
+}
@@ -1,6 +1,7 @@
 package latmath.algorithm;
 
 import latmath.errormodel.ErrorModel;
+import latmath.util.LocalizationWorkspace;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
 
@@ -21,10 +22,25 @@ public final class Trilateration extends BasicLaterationAlgorithm implements Rel
         return "Trilateration";
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public Point2d localize(Point2d[] anchors, double[] ranges,
             Point2d actualPosition, ErrorModel errorModel, int width, int height) {
-        return trilaterate(anchors, ranges);
+        LocalizationWorkspace ws = acquireWorkspace(anchors);
+        try {
+            int n = anchors.length;
+            double[] e = ws.getResult();
+            if (!trilaterate(ws.getX(n), ws.getY(n), ranges, e)) {
+                return null;
+            }
+            return new Point2d(e[0], e[1]);
+        } finally {
+            releaseWorkspace(ws);
+        }
     }
 
     /**
@@ -83,13 +99,41 @@ public final class Trilateration extends BasicLaterationAlgorithm implements Rel
      */
     public static Point2d trilaterate(Point2d v1, double r1, Point2d v2,
             double r2, Point2d v3, double r3) {
-        // copy values because we might swap coordinates
-        double v1x = v1.x;
-        double v1y = v1.y;
-        double v2x = v2.x;
-        double v2y = v2.y;
-        double v3x = v3.x;
-        double v3y = v3.y;
+        double[] e = new double[2];
+        if (!trilaterate(v1.x, v1.y, r1, v2.x, v2.y, r2, v3.x, v3.y, r3, e)) {
+            return null;
+        }
+        return new Point2d(e[0], e[1]);
+    }
+
+    /**
+     * Static call to this lateration algorithm on primitive arrays.
+     * <p>
+     * Does not allocate any memory. If more than 3 anchor nodes are passed
+     * to this method, the first three anchors will be taken for localization.
+     *
+     * @param xs The x coordinates of the anchor/reference nodes.
+     * @param ys The y coordinates of the anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes.
+     * @param result The estimated position (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if no position could
+     *         be calculated, e.g. localization failed.
+     */
+    public static boolean trilaterate(double[] xs, double[] ys,
+            double[] ranges, double[] result) {
+        if (xs == null || ys == null || ranges == null || ranges.length < 3
+                || xs.length != ranges.length || ys.length != ranges.length) {
+            return false;
+        }
+        return trilaterate(xs[0], ys[0], ranges[0], xs[1], ys[1], ranges[1],
+                xs[2], ys[2], ranges[2], result);
+    }
+
+    private static boolean trilaterate(double v1x, double v1y, double r1,
+            double v2x, double v2y, double r2, double v3x, double v3y,
+            double r3, double[] result) {
+        // swap coordinates if needed
         if (v2x == v3x) {
             double tmpX = v2x;
             double tmpY = v2y;
@@ -103,7 +147,7 @@ public final class Trilateration extends BasicLaterationAlgorithm implements Rel
         }
         // still equal, than exit => all have same x-coordinate
         if (v2x == v3x) {
-            return null;
+            return false;
         }
         double r2Squared = r2*r2;
         double v2xSquared = v2x*v2x;
@@ -112,11 +156,13 @@ public final class Trilateration extends BasicLaterationAlgorithm implements Rel
         double t = (v1x*v1x - v2xSquared + v1y*v1y - v2ySquared + r2Squared - r1*r1) / 2.0;
         double div = (((v1y - v2y)*(v3x - v2x)) - ((v3y - v2y)*(v1x - v2x)));
         if (div == 0) {
-            return null;
+            return false;
         }
         double y = ((t * (v3x - v2x) - s * (v1x - v2x))) / div;
         double x =  (s - y * (v3y - v2y)) / (v3x - v2x);
-        return new Point2d(x, y);
+        result[0] = x;
+        result[1] = y;
+        return true;
     }
 
 }
@@ -0,0 +1,34 @@
+package latmath.algorithm;
+
+import latmath.util.Point2d;
+
+/**
+ * Interface of iterative lateration algorithms which can start the
+ * optimization from a given position instead of their own starting points,
+ * e.g. from the previous position of a moving node.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ * @see     TrackingSession
+ */
+public interface WarmStartable {
+
+    /**
+     * Runs the localization algorithm from a single starting point.
+     * <p>
+     * Only the given starting point is refined, the algorithm's own
+     * starting points (e.g. linear least squares, centroid or Min-Max) are
+     * skipped.
+     *
+     * @param anchors The anchor/reference nodes.
+     * @param ranges The measured distances to the anchor/reference nodes,
+     *               not modified.
+     * @param start The starting point of the optimization.
+     *
+     * @return The estimated position of the mobile node to be located or
+     *         <code>null</code> if no position could be calculated from the
+     *         starting point.
+     */
+    Point2d localize(Point2d[] anchors, double[] ranges, Point2d start);
+
+}
@@ -3,7 +3,6 @@ package latmath.algorithm;
 import latmath.errormodel.ErrorModel;
 import latmath.util.ArrayUtils;
 import latmath.util.Circle;
-import latmath.util.LMath;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
 import latmath.weighting.GammaWeigher;
@@ -81,56 +80,12 @@ public class WeightedCentroid extends BasicLaterationAlgorithm implements Releas
         }
 
         // step 1: calculate circle intersections
-        int n = anchors.length;
-        int k = 2;
-        int[] permutations = new int[k];
-        int binom = LMath.binom(n, k);
-        Point2d[][] intersections = new Point2d[binom][];
-
-        // initialisation for calculating k-permutations
-        for (int i = 0; i < permutations.length; i++) {
-            permutations[i] = i;
-        }
-
-        // build all k-permutations
-        for (int i = 0; i < binom; i++) {
-            intersections[i] =
-                    Circle.getIntersection(anchors[permutations[0]],
-                    ranges[permutations[0]], anchors[permutations[1]],
-                    ranges[permutations[1]]);
-            // build next permutation
-            if (i == binom - 1) break;
-            int j = k - 1;
-            while (j >= 0) {
-                if (!LMath.incCounter(permutations, j, n, k)) break;
-                j--;
-            }
-            for (int l = j+1; l < k; l++) {
-                permutations[l] = permutations[l-1] + 1;
-            }
-        }
-
-        // copy intersections into one array
-        int totalLength = 0;
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] == null) continue;
-            totalLength += intersections[i].length;
-        }
+        Point2d[] points = Circle.getIntersections(anchors, ranges);
 
         // check if any intersections available
-        if (totalLength == 0) {
+        if (points.length == 0) {
             return null;
         }
-
-        // execute the copying
-        int currentLength = 0;
-        Point2d[] points = new Point2d[totalLength];
-        for (int i = 0; i < intersections.length; i++) {
-            if (intersections[i] == null) continue;
-            for (int j = 0; j < intersections[i].length; j++) {
-                points[currentLength++] = intersections[i][j];
-            }
-        }
         
         // calculate weight for points
         double[] masses = new double[points.length];
@@ -0,0 +1,379 @@
+package latmath.algorithm.filter;
+
+import java.util.Arrays;
+import java.util.Random;
+import latmath.util.Point2d;
+import latmath.util.Selection;
+
+/**
+ * Robust median filter with memory linear in the number of points.
+ * <p>
+ * Gives the same results as {@link RobustFilter}, but never stores all
+ * pairwise distances. Distances are recomputed in blocks of point pairs
+ * whenever they are needed:
+ * <ul>
+ * <li>up to 2^20 pairs, all distances are stored once and
+ *     the median is selected in place;</li>
+ * <li>above, the median is found by histogram passes over the distances,
+ *     each narrowing the range of the median to one of 4096
+ *     buckets, until the remaining values fit into the buffer;</li>
+ * <li>the points to be dropped are counted in one more pass.</li>
+ * </ul>
+ * Distances which are not finite, e.g. of NaN points, are ordered behind
+ * all finite distances, infinite before NaN.
+ * Optionally the median is estimated from a random sample of pairs, which
+ * saves all but the last pass.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class BlockedRobustFilter {
+
+    /** Edge length of the square blocks of point pairs */
+    private static final int BLOCK = 256;
+
+    /** Maximum number of distances stored at once */
+    private static final int MAX_STORED = 1 << 20;
+
+    /** Number of histogram buckets per pass */
+    private static final int BUCKETS = 4096;
+
+    private final Point2d[] pts;
+
+    private final int samples;
+
+    private final Random random;
+
+    /** Coordinates of the points */
+    private double[] x;
+    private double[] y;
+
+    /**
+     * Creates a new instance of <code>BlockedRobustFilter</code> using the
+     * exact median of all pairwise distances.
+     *
+     * @param pts The points to be filtered.
+     */
+    public BlockedRobustFilter(Point2d[] pts) {
+        this(pts, 0, null);
+    }
+
+    /**
+     * Creates a new instance of <code>BlockedRobustFilter</code> estimating
+     * the median from randomly sampled pairs.
+     * <p>
+     * If there are not more pairs than samples, the exact median is used.
+     *
+     * @param pts The points to be filtered.
+     * @param samples The number of sampled pairs, <code>0</code> for the
+     *                exact median.
+     * @param random The random number generator for sampling, may be
+     *               {@code null} if <code>samples</code> is <code>0</code>.
+     *
+     * @throws IllegalArgumentException If the number of samples is negative
+     *                                  or no random number generator is
+     *                                  given for sampling.
+     */
+    public BlockedRobustFilter(Point2d[] pts, int samples, Random random) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("negative number of samples");
+        }
+        if (samples > 0 && random == null) {
+            throw new IllegalArgumentException("no random number generator");
+        }
+        this.pts = pts;
+        this.samples = samples;
+        this.random = random;
+    }
+
+    /**
+     * Runs the filter procedure and returns the remaining "filtered" points.
+     *
+     * @return The remaining "filtered" points.
+     */
+    public Point2d[] filter() {
+        int n = pts.length;
+        if (n < 2) {
+            return pts.clone();
+        }
+        x = new double[n];
+        y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = pts[i].x;
+            y[i] = pts[i].y;
+        }
+
+        long N = (long) n * (n-1) / 2;
+        double median = samples > 0 && samples < N ? sampledMedian()
+                : exactMedian(N);
+        final double MEDV = 2 * median;
+
+        // count the distances >= MEDV for both points of each pair
+        final int[] dropCounter = new int[n];
+        run(new Pass() {
+            @Override
+            void accept(int i, int j, double[] row, int m) {
+                int c = 0;
+                for (int k = 0; k < m; k++) {
+                    if (row[k] >= MEDV) {
+                        c++;
+                        dropCounter[j+k]++;
+                    }
+                }
+                dropCounter[i] += c;
+            }
+        });
+
+        int num = 0;
+        for (int i = 0; i < n; i++) {
+            if (dropCounter[i] <= n/2) {
+                num++;
+            }
+        }
+        Point2d[] filtered = new Point2d[num];
+        num = 0;
+        for (int i = 0; i < n; i++) {
+            if (dropCounter[i] <= n/2) {
+                filtered[num++] = pts[i];
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Selects the median (rank <code>N/2+1</code>) of all pairwise distances.
+     */
+    private double exactMedian(long N) {
+        final long rank = N/2 + 1;
+        if (N <= MAX_STORED) {
+            final double[] v = new double[(int) N];
+            run(new Pass() {
+                int num = 0;
+                @Override
+                void accept(int i, int j, double[] row, int m) {
+                    System.arraycopy(row, 0, v, num, m);
+                    num += m;
+                }
+            });
+            return Selection.select(v, (int) N, (int) rank);
+        }
+
+        // narrow the range of the median, level l keeps the values in
+        // bucket chosen[l] of the histogram with origin lo[l] and scale[l]
+        double[] bbox = boundingBox();
+        double extent = Math.hypot(bbox[2] - bbox[0], bbox[3] - bbox[1]);
+        final Levels levels = new Levels();
+        levels.add(0, extent > 0 && extent < Double.POSITIVE_INFINITY
+                ? BUCKETS / extent : 0);
+        final long[] count = new long[BUCKETS];
+        final double[] min = new double[BUCKETS];
+        final double[] max = new double[BUCKETS];
+        // number of finite, infinite and NaN distances
+        final long[] counts = new long[3];
+        long below = 0;
+        long remaining = Long.MAX_VALUE;
+        while (true) {
+            Arrays.fill(count, 0);
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+            final boolean first = levels.size == 1;
+            run(new Pass() {
+                @Override
+                void accept(int i, int j, double[] row, int m) {
+                    int last = levels.size - 1;
+                    for (int k = 0; k < m; k++) {
+                        double d = row[k];
+                        if (!(d < Double.POSITIVE_INFINITY)) {
+                            if (first) {
+                                counts[d > 0 ? 1 : 2]++;
+                            }
+                        } else if (levels.contains(d, last)) {
+                            int b = levels.bucket(d, last);
+                            count[b]++;
+                            min[b] = Math.min(min[b], d);
+                            max[b] = Math.max(max[b], d);
+                        }
+                    }
+                }
+            });
+            if (first) {
+                for (long c : count) {
+                    counts[0] += c;
+                }
+                if (rank > counts[0]) {
+                    return nonFinite(rank, counts);
+                }
+            }
+            int b = 0;
+            while (below + count[b] < rank) {
+                below += count[b++];
+            }
+            if (min[b] == max[b]) {
+                return min[b];
+            }
+            levels.choose(b);
+            double scale = BUCKETS / (max[b] - min[b]);
+            if (count[b] <= MAX_STORED || count[b] >= remaining
+                    || !(scale < Double.POSITIVE_INFINITY)) {
+                // small enough or the bucket cannot be split any further
+                remaining = count[b];
+                break;
+            }
+            remaining = count[b];
+            levels.add(min[b], scale);
+        }
+
+        // collect the remaining values and select
+        final double[] v = new double[(int) remaining];
+        final int[] num = new int[1];
+        run(new Pass() {
+            @Override
+            void accept(int i, int j, double[] row, int m) {
+                for (int k = 0; k < m; k++) {
+                    double d = row[k];
+                    if (d < Double.POSITIVE_INFINITY
+                            && levels.contains(d, levels.size)) {
+                        v[num[0]++] = d;
+                    }
+                }
+            }
+        });
+        return Selection.select(v, num[0], (int) (rank - below));
+    }
+
+    /**
+     * Returns the non-finite distance with the given rank behind all
+     * finite distances, infinite distances come before NaN.
+     */
+    private static double nonFinite(long rank, long[] counts) {
+        return rank <= counts[0] + counts[1] ? Double.POSITIVE_INFINITY
+                : Double.NaN;
+    }
+
+    /**
+     * Estimates the median of all pairwise distances from random pairs.
+     */
+    private double sampledMedian() {
+        int n = x.length;
+        double[] v = new double[samples];
+        for (int s = 0; s < samples; s++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n - 1);
+            if (j >= i) {
+                j++;
+            }
+            double dx = x[i] - x[j];
+            double dy = y[i] - y[j];
+            v[s] = Math.sqrt(dx*dx + dy*dy);
+        }
+        return Selection.median(v, samples);
+    }
+
+    /**
+     * Returns the bounding box of the points with finite coordinates as
+     * min x, min y, max x, max y.
+     */
+    private double[] boundingBox() {
+        double[] bbox = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                         Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < x.length; i++) {
+            if (Double.isNaN(x[i] - x[i]) || Double.isNaN(y[i] - y[i])) {
+                continue; // NaN or infinite
+            }
+            bbox[0] = Math.min(bbox[0], x[i]);
+            bbox[1] = Math.min(bbox[1], y[i]);
+            bbox[2] = Math.max(bbox[2], x[i]);
+            bbox[3] = Math.max(bbox[3], y[i]);
+        }
+        return bbox;
+    }
+
+    /**
+     * Passes the distances of all pairs <code>i &lt; j</code> to the given
+     * consumer, block by block and row by row within each block.
+     */
+    private void run(Pass pass) {
+        int n = x.length;
+        double[] row = new double[BLOCK];
+        for (int bi = 0; bi < n; bi += BLOCK) {
+            int ei = Math.min(bi + BLOCK, n);
+            for (int bj = bi; bj < n; bj += BLOCK) {
+                int ej = Math.min(bj + BLOCK, n);
+                for (int i = bi; i < ei; i++) {
+                    int j0 = Math.max(bj, i+1);
+                    if (j0 >= ej) {
+                        continue;
+                    }
+                    double xi = x[i];
+                    double yi = y[i];
+                    for (int j = j0; j < ej; j++) {
+                        double dx = xi - x[j];
+                        double dy = yi - y[j];
+                        row[j-j0] = Math.sqrt(dx*dx + dy*dy);
+                    }
+                    pass.accept(i, j0, row, ej - j0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Consumer of pairwise distances.
+     */
+    private abstract static class Pass {
+
+        /**
+         * Accepts the distances of point <code>i</code> to the points
+         * <code>j, ..., j+m-1</code>.
+         *
+         * @param i The index of the first point.
+         * @param j The index of the first second point.
+         * @param row The distances.
+         * @param m The number of distances.
+         */
+        abstract void accept(int i, int j, double[] row, int m);
+
+    }
+
+    /**
+     * Histogram levels narrowing the range of the median.
+     */
+    private static final class Levels {
+
+        private double[] lo = new double[8];
+        private double[] scale = new double[8];
+        private int[] chosen = new int[8];
+        private int size;
+
+        void add(double lo, double scale) {
+            if (size == chosen.length) {
+                this.lo = Arrays.copyOf(this.lo, 2 * size);
+                this.scale = Arrays.copyOf(this.scale, 2 * size);
+                this.chosen = Arrays.copyOf(chosen, 2 * size);
+            }
+            this.lo[size] = lo;
+            this.scale[size++] = scale;
+        }
+
+        void choose(int b) {
+            chosen[size-1] = b;
+        }
+
+        int bucket(double d, int level) {
+            int b = (int) ((d - lo[level]) * scale[level]);
+            return Math.max(0, Math.min(BUCKETS - 1, b));
+        }
+
+        /** Tests if a value is in the chosen buckets of the first levels */
+        boolean contains(double d, int levels) {
+            for (int l = 0; l < levels; l++) {
+                if (bucket(d, l) != chosen[l]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -4,7 +4,7 @@ import java.util.LinkedList;
 import java.util.List;
 import latmath.util.LMath;
 import latmath.util.Point2d;
-import latmath.util.QuickSelect;
+import latmath.util.Selection;
 
 /**
  * Robust median filter. Removes all intermediate position estimates x_j that
@@ -40,16 +40,13 @@ public final class RobustFilter {
     public Point2d[] filter() {
         int N = LMath.binom(pts.length, 2);
         double[] v = new double[N];
-        Double[] vC = new Double[N];
         for (int i = 0; i < pts.length-1; i++) {
             for (int j = i+1; j < pts.length; j++) {
-                int idx = toIndex(i, j, pts.length);
-                v[idx] = pts[i].distance(pts[j]);
-                vC[idx] = v[idx];
+                v[toIndex(i, j, pts.length)] = pts[i].distance(pts[j]);
             }
         }
 
-        double MEDV = 2 * (Double) QuickSelect.select(vC, vC.length/2+1);
+        double MEDV = 2 * Selection.median(v, N, null);
         List<Point2d> filtered = new LinkedList<>();
 
         for (int i = 0; i < pts.length; i++) {
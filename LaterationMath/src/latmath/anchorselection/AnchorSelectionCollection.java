@@ -17,9 +17,8 @@ public final class AnchorSelectionCollection {
 
     static {
         selAlgs = new ArrayList<>();
-        Class[] classes = ReflectionUtils.getClasses("latmath",
-                AnchorSelection.class);
-        for (Class clazz : classes) {
+        Class<?>[] classes = ReflectionUtils.getReleasableClasses(AnchorSelection.class);
+        for (Class<?> clazz : classes) {
             selAlgs.add((AnchorSelection)
                     ReflectionUtils.createObjectFromClass(clazz));
         }
@@ -1,26 +1,36 @@
 package latmath.filter;
 
-import java.util.Arrays;
-import java.util.ArrayList;
+import latmath.util.Selection;
 
 public class MedianFilter {
 
     private int size;
     private int flush;
     private int flushLimit;
-    private ArrayList list;
+
+    // ring buffer of the last values, oldest value at index first
+    private double[] values;
+    private double[] work;
+    private int first;
+    private int count;
 
     public MedianFilter(int size, int flushLimit) {
         this.size = size;
         this.flushLimit = flushLimit;
-        list = new ArrayList(size);
+        values = new double[size];
+        work = new double[size];
     }
 
     public void add(double d) {
-        list.add(d);
         flush = 0;
-        if (list.size() > size) {
-            list.remove(0);
+        if (size == 0) {
+            return;
+        }
+        if (count < size) {
+            values[(first + count++) % size] = d;
+        } else {
+            values[first] = d;
+            first = (first + 1) % size;
         }
     }
 
@@ -28,26 +38,23 @@ public class MedianFilter {
         flush++;
         if (flush > flushLimit) {
             flush = 0;
-            list.clear();
+            first = 0;
+            count = 0;
         }
     }
 
     public double getMedian() {
-        if (list.isEmpty()) {
+        if (count == 0) {
             return -1.0;
         }
-        Double[] values = (Double[]) ((ArrayList) list.clone()).toArray(new Double[0]);
-        Arrays.sort(values);
-        return values[values.length/2];
+        return Selection.median(values, count, work);
     }
 
     public double getMedian4() {
-        if (list.isEmpty()) {
+        if (count == 0) {
             return -1.0;
         }
-        Double[] values = (Double[]) ((ArrayList) list.clone()).toArray(new Double[0]);
-        Arrays.sort(values);
-        return values[values.length/4];
+        return Selection.select(values, count, count/4 + 1, work);
     }
 
 }
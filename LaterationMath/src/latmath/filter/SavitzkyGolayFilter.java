@@ -3,6 +3,7 @@ package latmath.filter;
 import java.util.ArrayList;
 import java.util.List;
 import latmath.util.LUDecomposition;
+import latmath.util.Mat3;
 import latmath.util.Matrix;
 
 /**
@@ -53,14 +54,29 @@ public class SavitzkyGolayFilter {
             }
         }
 
-        double[][] b2 = new double[degree + 1][1];
-        b2[0][0] = 1;
-        Matrix bm = new Matrix(b2);
-        LUDecomposition ludec = new LUDecomposition(matrix);
-        bm = ludec.solve(bm);
-        double[] b = new double[bm.getArray().length];
-        for (int i = 0; i < b.length; i++) {
-            b[i] = bm.cell(i, 0);
+        double[] b;
+        if (degree == 2) {
+            // quadratic fit (default): solve the 3x3 system directly
+            Mat3 m3 = new Mat3();
+            for (int i = 0; i <= degree; i++) {
+                for (int j = 0; j <= degree; j++) {
+                    m3.set(i, j, a[i][j]);
+                }
+            }
+            b = new double[] {1, 0, 0};
+            if (!m3.solve(b, b)) {
+                throw new RuntimeException("Matrix is singular.");
+            }
+        } else {
+            double[][] b2 = new double[degree + 1][1];
+            b2[0][0] = 1;
+            Matrix bm = new Matrix(b2);
+            LUDecomposition ludec = new LUDecomposition(matrix);
+            bm = ludec.solve(bm);
+            b = new double[bm.getArray().length];
+            for (int i = 0; i < b.length; i++) {
+                b[i] = bm.cell(i, 0);
+            }
         }
 
         coeffs = new double[nl + nr + 1];
@@ -30,6 +30,10 @@ public class GeometricMedianLocationFilter implements LocationFilter, Releasable
     private int resetSize = 5;
     private transient int currentResetSize = 0;
     private transient Queue<Point2d> window;
+    private transient double[] coords;
+    private transient double[] result;
+    /** Last median, used as start of the next calculation */
+    private transient Point2d median;
     
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
@@ -51,6 +55,7 @@ public class GeometricMedianLocationFilter implements LocationFilter, Releasable
             if (this.currentResetSize == this.resetSize) {
                 currentResetSize = 0;
                 window.clear();
+                median = null;
             }
             return;
         }
@@ -63,9 +68,21 @@ public class GeometricMedianLocationFilter implements LocationFilter, Releasable
     @Override
     public Point2d get() {
 	if (this.window.size() > 0) {
-            Point2d[] points = new Point2d[window.size()];
-            window.toArray(points);
-            return Point2d.geometricMedian(points);
+            // consecutive windows differ in one point only, so the last
+            // median is a good start for the next one
+            if (coords == null || coords.length < 2 * windowSize) {
+                coords = new double[2 * windowSize];
+                result = new double[2];
+            }
+            int n = 0;
+            for (Point2d p : window) {
+                coords[2*n] = p.x;
+                coords[2*n+1] = p.y;
+                n++;
+            }
+            Point2d.geometricMedian(coords, null, n, median, result);
+            median = new Point2d(result[0], result[1]);
+            return new Point2d(median.x, median.y);
 	} else {
 	    return null;
 	}
@@ -17,9 +17,8 @@ public final class LocationFilterCollection {
 
     static {
         filters = new ArrayList<>();
-        Class[] classes = ReflectionUtils.getClasses("latmath",
-                LocationFilter.class);
-        for (Class clazz : classes) {
+        Class<?>[] classes = ReflectionUtils.getReleasableClasses(LocationFilter.class);
+        for (Class<?> clazz : classes) {
             filters.add((LocationFilter)
                     ReflectionUtils.createObjectFromClass(clazz));
         }
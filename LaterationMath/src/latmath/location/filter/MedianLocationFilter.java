@@ -1,7 +1,6 @@
 package latmath.location.filter;
 
 import java.util.Queue;
-import java.util.Arrays;
 import java.util.ArrayDeque;
 
 import java.awt.Dimension;
@@ -16,6 +15,7 @@ import javax.swing.SpinnerNumberModel;
 import latmath.util.dialog.ConfigDialog;
 import latmath.util.Point2d;
 import latmath.util.Releasable;
+import latmath.util.Selection;
 
 /**
  * Location filter based on Median filter.
@@ -29,6 +29,7 @@ public class MedianLocationFilter implements LocationFilter, Releasable {
     private int windowSize;
     private transient Queue<Double> windowX;
     private transient Queue<Double> windowY;
+    private transient double[] values;
     
     /** serial version UID - don't change, will make saved files invalid */
     private static final long serialVersionUID = 1L;
@@ -65,13 +66,20 @@ public class MedianLocationFilter implements LocationFilter, Releasable {
 	    windowY.poll();
 	}
 	if (this.windowX.size() > 0) {
-	    Double[] array = new Double[this.windowX.size()];
-	    windowX.toArray(array);
-	    Arrays.sort(array);
-	    double x = array[windowX.size() / 2];
-	    windowY.toArray(array);
-	    Arrays.sort(array);
-	    double y = array[windowY.size() / 2];
+	    int n = windowX.size();
+	    if (values == null || values.length < n) {
+		values = new double[n];
+	    }
+	    int i = 0;
+	    for (double x : windowX) {
+		values[i++] = x;
+	    }
+	    double x = Selection.median(values, n);
+	    i = 0;
+	    for (double y : windowY) {
+		values[i++] = y;
+	    }
+	    double y = Selection.median(values, n);
 	    return new Point2d(x, y);
 	} else {
 	    return null;
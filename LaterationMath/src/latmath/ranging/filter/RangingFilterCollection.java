@@ -17,9 +17,8 @@ public final class RangingFilterCollection {
 
     static {
         filters = new ArrayList<>();
-        Class[] classes = ReflectionUtils.getClasses("latmath",
-                RangingFilter.class);
-        for (Class clazz : classes) {
+        Class<?>[] classes = ReflectionUtils.getReleasableClasses(RangingFilter.class);
+        for (Class<?> clazz : classes) {
             filters.add((RangingFilter)
                     ReflectionUtils.createObjectFromClass(clazz));
         }
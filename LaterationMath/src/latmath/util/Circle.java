@@ -1,19 +1,154 @@
 package latmath.util;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * A simple circle math library.
  *
- * @version 1.0, 2011-08-02
+ * @version 1.1, 2026-10-16
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
 public final class Circle {
 
+    /** No approximation if two circles do not intersect */
+    public static final int APPROX_NONE = 0;
+
+    /**
+     * Approximation by the middle of the nearest points of two circles, see
+     * {@link #getIntersectionApprox(Point2d, double, Point2d, double)}
+     */
+    public static final int APPROX_NEAREST = 1;
+
+    /**
+     * Approximation by equally growing circles, see
+     * {@link #getIntersectionApprox2(Point2d, double, Point2d, double)}
+     */
+    public static final int APPROX_GROWING = 2;
+
+    /**
+     * Approximation by the middle and the nearest points of two circles, see
+     * {@link #getIntersectionsApprox(Point2d, double, Point2d, double)}
+     */
+    public static final int APPROX_NEAREST_ALL = 3;
+
     /** private constructor */
     private Circle() {}
 
+    /**
+     * Returns the maximum number of intersections of all pairs of
+     * <code>n</code> circles.
+     *
+     * @param n The number of circles.
+     * @param approxMethod The approximation method, one of the
+     *                     <code>APPROX_*</code> constants.
+     *
+     * @return The maximum number of intersections.
+     */
+    public static int getMaxIntersections(int n, int approxMethod) {
+        int pairs = n * (n - 1) / 2;
+        return approxMethod == APPROX_NEAREST_ALL ? 3 * pairs : 2 * pairs;
+    }
+
+    /**
+     * Calculates the intersections of all pairs of circles.
+     * <p>
+     * The pairs are processed in the order (0,1), (0,2), ..., (1,2), ...
+     * and the intersections are stored as coordinate pairs (x, y) in
+     * <code>pts</code>, exactly as calling
+     * {@link #getIntersection(double, double, double, double, double, double, double[], int)}
+     * and the selected approximation for every pair. No objects are created,
+     * so this is the method of choice for many circles.
+     *
+     * @param xs The x coordinates of the centers.
+     * @param ys The y coordinates of the centers.
+     * @param ranges The radii of the circles.
+     * @param n The number of circles, i.e. the number of used array elements.
+     * @param approxMethod The approximation method for circles without
+     *                     intersection, one of the <code>APPROX_*</code>
+     *                     constants.
+     * @param pts The array receiving the intersections, needs room for
+     *            {@link #getMaxIntersections(int, int)} points.
+     * @param real The array receiving {@code true} for real and
+     *             {@code false} for approximated intersections or
+     *             {@code null} if not needed.
+     *
+     * @return The number of intersections.
+     *
+     * @throws IllegalArgumentException If the approximation method is unknown.
+     */
+    public static int getIntersections(double[] xs, double[] ys,
+            double[] ranges, int n, int approxMethod, double[] pts,
+            boolean[] real) {
+        if (approxMethod < APPROX_NONE || approxMethod > APPROX_NEAREST_ALL) {
+            throw new IllegalArgumentException("unknown approximation method");
+        }
+        int num = 0;
+        for (int i = 0; i < n - 1; i++) {
+            double x1 = xs[i];
+            double y1 = ys[i];
+            double r1 = ranges[i];
+            for (int j = i + 1; j < n; j++) {
+                int off = 2 * num;
+                int count = getIntersection(x1, y1, r1, xs[j], ys[j],
+                        ranges[j], pts, off);
+                boolean isReal = count > 0;
+                if (!isReal) {
+                    switch (approxMethod) {
+                        case APPROX_NEAREST:
+                            count = getIntersectionApprox(x1, y1, r1, xs[j],
+                                    ys[j], ranges[j], pts, off) ? 1 : 0;
+                            break;
+                        case APPROX_GROWING:
+                            count = getIntersectionApprox2(x1, y1, r1, xs[j],
+                                    ys[j], ranges[j], pts, off) ? 1 : 0;
+                            break;
+                        case APPROX_NEAREST_ALL:
+                            count = getIntersectionsApprox(x1, y1, r1, xs[j],
+                                    ys[j], ranges[j], pts, off) ? 3 : 0;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                if (real != null) {
+                    for (int k = 0; k < count; k++) {
+                        real[num + k] = isReal;
+                    }
+                }
+                num += count;
+            }
+        }
+        return num;
+    }
+
+    /**
+     * Returns the (real) intersections of all pairs of circles in the
+     * order of {@link #getIntersections(double[], double[], double[], int, int, double[], boolean[])}.
+     *
+     * @param m The centers of the circles.
+     * @param r The radii of the circles.
+     *
+     * @return The intersections, may be empty.
+     */
+    public static Point2d[] getIntersections(Point2d[] m, double[] r) {
+        int n = m.length;
+        LocalizationWorkspace ws = LocalizationWorkspace.acquire(n);
+        try {
+            ws.load(m);
+            double[] pts = ws.getPoints();
+            int num = getIntersections(ws.getX(n), ws.getY(n), r, n,
+                    APPROX_NONE, pts, null);
+            Point2d[] res = new Point2d[num];
+            for (int i = 0; i < num; i++) {
+                res[i] = new Point2d(pts[2*i], pts[2*i+1]);
+            }
+            return res;
+        } finally {
+            LocalizationWorkspace.release(ws);
+        }
+    }
+
     /**
      * Returns the intersections of two circles.
      * 
@@ -26,18 +161,51 @@ public final class Circle {
      *         there is no (exact) intersection.
      */
     public static Point2d[] getIntersection(Point2d p1, double r1, Point2d p2, double r2) {
-        
-        double d = Math.hypot(p2.x - p1.x, p2.y - p1.y);
+        double[] out = new double[4];
+        int count = getIntersection(p1.x, p1.y, r1, p2.x, p2.y, r2, out, 0);
+        if (count == 0) {
+            return null;
+        }
+        Point2d[] res = new Point2d[count];
+        res[0] = new Point2d(out[0], out[1]);
+        if (count == 2) {
+            res[1] = new Point2d(out[2], out[3]);
+        }
+        return res;
+    }
+
+    /**
+     * Calculates the intersections of two circles given by primitive values.
+     * <p>
+     * The intersections are stored as coordinate pairs (x, y) starting at
+     * <code>out[off]</code>, so the array must have room for four values.
+     *
+     * @param x1 The x coordinate of the center of the first circle.
+     * @param y1 The y coordinate of the center of the first circle.
+     * @param r1 The radius of the first circle.
+     * @param x2 The x coordinate of the center of the second circle.
+     * @param y2 The y coordinate of the center of the second circle.
+     * @param r2 The radius of the second circle.
+     * @param out The array receiving the intersections.
+     * @param off The offset of the first value in <code>out</code>.
+     *
+     * @return The number of intersections: 0 if there is no (exact)
+     *         intersection, 1 if the circles touch or 2 otherwise.
+     */
+    public static int getIntersection(double x1, double y1, double r1,
+            double x2, double y2, double r2, double[] out, int off) {
+
+        double d = Math.hypot(x2 - x1, y2 - y1);
 
         // no solutions, the circles are separate || the circles are coincident
         // => infinite number of solutions possible
         if (r1+r2 < d || d == 0) {
-            return null;
+            return 0;
         }
 
         // no solutions because one circle is contained within the other
         if (Math.abs(r1-r2) > d) {
-            return null;
+            return 0;
         }
 
         double r1r1 = r1*r1;
@@ -47,26 +215,63 @@ public final class Circle {
         // resulting in a negative sqrt => NaN, so take abs before!!!
         double h = Math.sqrt(Math.abs(r1r1 - a*a));
 
-        double dx = (p2.x - p1.x) / d;
-        double dy = (p2.y - p1.y) / d;
-        double p3x = p1.x + a * dx;
-        double p3y = p1.y + a * dy;
+        double dx = (x2 - x1) / d;
+        double dy = (y2 - y1) / d;
+        double p3x = x1 + a * dx;
+        double p3y = y1 + a * dy;
 
         dx *= h;
         dy *= h;
         double p4x = p3x + dy;
         double p4y = p3y - dx;
 
-        Point2d[] res = new Point2d[p4x == p3x && p4y == p3y ? 1 : 2];
-
-        res[0] = new Point2d(p4x, p4y);
-        if (res.length == 2) {
-            p4x = p3x - dy;
-            p4y = p3y + dx;
-            res[1] = new Point2d(p4x, p4y);
+        out[off] = p4x;
+        out[off + 1] = p4y;
+        if (p4x == p3x && p4y == p3y) {
+            return 1;
         }
+        out[off + 2] = p3x - dy;
+        out[off + 3] = p3y + dx;
+        return 2;
+    }
 
-        return res;
+    /**
+     * Calculates the center of the intersections of two circles given by
+     * primitive values, i.e. the point where the common chord crosses the
+     * line through both centers.
+     * <p>
+     * Summing up this center once per intersection gives the same result as
+     * summing up the intersections themselves, which allows calculating
+     * centroids of intersections without storing them.
+     *
+     * @param x1 The x coordinate of the center of the first circle.
+     * @param y1 The y coordinate of the center of the first circle.
+     * @param r1 The radius of the first circle.
+     * @param x2 The x coordinate of the center of the second circle.
+     * @param y2 The y coordinate of the center of the second circle.
+     * @param r2 The radius of the second circle.
+     * @param out The array receiving the center (x, y).
+     * @param off The offset of the first value in <code>out</code>.
+     *
+     * @return The number of intersections: 0 if there is no (exact)
+     *         intersection, 1 if the circles touch or 2 otherwise.
+     */
+    public static int getIntersectionCenter(double x1, double y1, double r1,
+            double x2, double y2, double r2, double[] out, int off) {
+        double d = Math.hypot(x2 - x1, y2 - y1);
+        if (r1+r2 < d || d == 0 || Math.abs(r1-r2) > d) {
+            return 0;
+        }
+        double r1r1 = r1*r1;
+        double a = (r1r1 - r2*r2 + d*d) / (2*d);
+        double h = Math.sqrt(Math.abs(r1r1 - a*a));
+        double dx = (x2 - x1) / d;
+        double dy = (y2 - y1) / d;
+        double p3x = x1 + a * dx;
+        double p3y = y1 + a * dy;
+        out[off] = p3x;
+        out[off + 1] = p3y;
+        return (p3x + dy * h == p3x && p3y - dx * h == p3y) ? 1 : 2;
     }
 
     /**
@@ -85,50 +290,104 @@ public final class Circle {
      *         <code>null</code> if p1 equals p2.
      */
     public static Point2d getIntersectionApprox(Point2d p1, double r1, Point2d p2, double r2) {
+        double[] out = new double[2];
+        if (!getIntersectionApprox(p1.x, p1.y, r1, p2.x, p2.y, r2, out, 0)) {
+            return null;
+        }
+        return new Point2d(out[0], out[1]);
+    }
+
+    /**
+     * Calculates an approximated intersection of two circles given by
+     * primitive values, see {@link #getIntersectionApprox(Point2d, double, Point2d, double)}.
+     *
+     * @param x1 The x coordinate of the center of the first circle.
+     * @param y1 The y coordinate of the center of the first circle.
+     * @param r1 The radius of the first circle.
+     * @param x2 The x coordinate of the center of the second circle.
+     * @param y2 The y coordinate of the center of the second circle.
+     * @param r2 The radius of the second circle.
+     * @param out The array receiving the approximated intersection (x, y).
+     * @param off The offset of the first value in <code>out</code>.
+     *
+     * @return {@code true} on success; {@code false} if both centers are equal.
+     */
+    public static boolean getIntersectionApprox(double x1, double y1, double r1,
+            double x2, double y2, double r2, double[] out, int off) {
+        return getNearestPoints(x1, y1, r1, x2, y2, r2, out, off, false);
+    }
+
+    /**
+     * Calculates the middle of the nearest points of two circles on the line
+     * through their centers and, if <code>all</code> is set, also the two
+     * nearest points.
+     */
+    private static boolean getNearestPoints(double x1, double y1, double r1,
+            double x2, double y2, double r2, double[] out, int off,
+            boolean all) {
         // calculate distance between center of circles
-        double dist = p1.distance(p2);
+        double dx = (x2 - x1);
+        double dy = (y2 - y1);
+        double dist = Math.sqrt(dx * dx + dy * dy);
         // if distance is zero => infinite number of solutions
-        if (dist == 0) return null;
+        if (dist == 0) return false;
 
         // calculate intersection of line through center of circles
         // with both circles => four intersection points
         double dr1 = r1/dist;
         double dr2 = r2/dist;
-        double dx = (p2.x - p1.x);
-        double dy = (p2.y - p1.y);
         double dxp1 = dr1 * dx;
         double dyp1 = dr1 * dy;
         double dxp2 = dr2 * dx;
         double dyp2 = dr2 * dy;
 
-        Point2d p11 = new Point2d(p1.x + dxp1, p1.y + dyp1);
-        Point2d p12 = new Point2d(p1.x - dxp1, p1.y - dyp1);
-        Point2d p21 = new Point2d(p2.x + dxp2, p2.y + dyp2);
-        Point2d p22 = new Point2d(p2.x - dxp2, p2.y - dyp2);
-        
+        double p11x = x1 + dxp1, p11y = y1 + dyp1;
+        double p12x = x1 - dxp1, p12y = y1 - dyp1;
+        double p21x = x2 + dxp2, p21y = y2 + dyp2;
+        double p22x = x2 - dxp2, p22y = y2 - dyp2;
+
         // find nearest pair of intersection points belonging
         // to different circles
-        dist = p11.distance(p21);
-        Point2d n1 = p11, n2 = p21;
-        double dt = p11.distance(p22);
+        dist = distance(p11x, p11y, p21x, p21y);
+        double n1x = p11x, n1y = p11y, n2x = p21x, n2y = p21y;
+        double dt = distance(p11x, p11y, p22x, p22y);
         if (dt < dist) {
             dist = dt;
-            n2 = p22;
+            n2x = p22x;
+            n2y = p22y;
         }
-        dt = p12.distance(p21);
+        dt = distance(p12x, p12y, p21x, p21y);
         if (dt < dist) {
             dist = dt;
-            n1 = p12;
-            n2 = p21;
+            n1x = p12x;
+            n1y = p12y;
+            n2x = p21x;
+            n2y = p21y;
         }
-        dt = p12.distance(p22);
+        dt = distance(p12x, p12y, p22x, p22y);
         if (dt < dist) {
-            n1 = p12;
-            n2 = p22;
+            n1x = p12x;
+            n1y = p12y;
+            n2x = p22x;
+            n2y = p22y;
         }
 
         // return middle of line between two nearest points as result
-        return new Point2d((n1.x + n2.x) / 2, (n1.y + n2.y) / 2);
+        out[off] = (n1x + n2x) / 2;
+        out[off + 1] = (n1y + n2y) / 2;
+        if (all) {
+            out[off + 2] = n1x;
+            out[off + 3] = n1y;
+            out[off + 4] = n2x;
+            out[off + 5] = n2y;
+        }
+        return true;
+    }
+
+    private static double distance(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx*dx + dy*dy);
     }
 
     /**
@@ -143,55 +402,42 @@ public final class Circle {
      *         <code>null</code> if p1 equals p2.
      */
     public static Point2d[] getIntersectionsApprox(Point2d p1, double r1, Point2d p2, double r2) {
-        // calculate distance between center of circles
-        double dist = p1.distance(p2);
-        // if distance is zero => infinite number of solutions
-        if (dist == 0) return null;
-
-        // calculate intersection of line through center of circles
-        // with both circles => four intersection points
-        double dr1 = r1/dist;
-        double dr2 = r2/dist;
-        double dx = (p2.x - p1.x);
-        double dy = (p2.y - p1.y);
-        double dxp1 = dr1 * dx;
-        double dyp1 = dr1 * dy;
-        double dxp2 = dr2 * dx;
-        double dyp2 = dr2 * dy;
-
-        Point2d p11 = new Point2d(p1.x + dxp1, p1.y + dyp1);
-        Point2d p12 = new Point2d(p1.x - dxp1, p1.y - dyp1);
-        Point2d p21 = new Point2d(p2.x + dxp2, p2.y + dyp2);
-        Point2d p22 = new Point2d(p2.x - dxp2, p2.y - dyp2);
-        
-        // find nearest pair of intersection points belonging
-        // to different circles
-        dist = p11.distance(p21);
-        Point2d n1 = p11, n2 = p21;
-        double dt = p11.distance(p22);
-        if (dt < dist) {
-            dist = dt;
-            n2 = p22;
-        }
-        dt = p12.distance(p21);
-        if (dt < dist) {
-            dist = dt;
-            n1 = p12;
-            n2 = p21;
-        }
-        dt = p12.distance(p22);
-        if (dt < dist) {
-            n1 = p12;
-            n2 = p22;
+        double[] out = new double[6];
+        if (!getIntersectionsApprox(p1.x, p1.y, r1, p2.x, p2.y, r2, out, 0)) {
+            return null;
         }
-
-        // return middle of line between two nearest points as result and
+        // middle of line between two nearest points as result and
         // also the two points
         return new Point2d[] {
-            new Point2d((n1.x + n2.x) / 2, (n1.y + n2.y) / 2), n1, n2
+            new Point2d(out[0], out[1]), new Point2d(out[2], out[3]),
+            new Point2d(out[4], out[5])
         };
     }
-    
+
+    /**
+     * Calculates approximated intersections of two circles given by
+     * primitive values, see {@link #getIntersectionsApprox(Point2d, double, Point2d, double)}.
+     * <p>
+     * The middle of the nearest points and the two nearest points are
+     * stored as coordinate pairs (x, y) starting at <code>out[off]</code>,
+     * so the array must have room for six values.
+     *
+     * @param x1 The x coordinate of the center of the first circle.
+     * @param y1 The y coordinate of the center of the first circle.
+     * @param r1 The radius of the first circle.
+     * @param x2 The x coordinate of the center of the second circle.
+     * @param y2 The y coordinate of the center of the second circle.
+     * @param r2 The radius of the second circle.
+     * @param out The array receiving the approximated intersections.
+     * @param off The offset of the first value in <code>out</code>.
+     *
+     * @return {@code true} on success; {@code false} if both centers are equal.
+     */
+    public static boolean getIntersectionsApprox(double x1, double y1, double r1,
+            double x2, double y2, double r2, double[] out, int off) {
+        return getNearestPoints(x1, y1, r1, x2, y2, r2, out, off, true);
+    }
+
     /**
      * Returns an approximated intersection of the two circles as found in
      * paper "A Low-Complexity Geometric Bilateration Method for Localization
@@ -207,11 +453,39 @@ public final class Circle {
      *         <code>null</code> if p1 equals p2.
      */
     public static Point2d getIntersectionApprox2(Point2d p1, double r1, Point2d p2, double r2) {
+        double[] out = new double[4];
+        if (!getIntersectionApprox2(p1.x, p1.y, r1, p2.x, p2.y, r2, out, 0)) {
+            return null;
+        }
+        return new Point2d(out[0], out[1]);
+    }
+
+    /**
+     * Calculates an approximated intersection of two circles given by
+     * primitive values, see {@link #getIntersectionApprox2(Point2d, double, Point2d, double)}.
+     * <p>
+     * The array is also used as scratch space and must have room for four
+     * values starting at <code>out[off]</code>.
+     *
+     * @param x1 The x coordinate of the center of the first circle.
+     * @param y1 The y coordinate of the center of the first circle.
+     * @param r1 The radius of the first circle.
+     * @param x2 The x coordinate of the center of the second circle.
+     * @param y2 The y coordinate of the center of the second circle.
+     * @param r2 The radius of the second circle.
+     * @param out The array receiving the approximated intersection (x, y).
+     * @param off The offset of the first value in <code>out</code>.
+     *
+     * @return {@code true} on success; {@code false} if both centers are
+     *         equal or no approximation could be found.
+     */
+    public static boolean getIntersectionApprox2(double x1, double y1, double r1,
+            double x2, double y2, double r2, double[] out, int off) {
         // calculate distance between center of circles
-        double dist = p1.distance(p2);
+        double dist = distance(x1, y1, x2, y2);
         // if distance is zero => infinite number of solutions
         if (dist == 0) {
-            return null;
+            return false;
         }
 
         // take first circle and calculate new radius for this circle
@@ -228,11 +502,19 @@ public final class Circle {
         double r2n = Math.abs(dist - r1) + 0.000001;
         
         // Use CCI procedure to calculate intersection points
-        Point2d n1 = getIntersection(p1, r1n, p2, r2)[0];
-        Point2d n2 = getIntersection(p1, r1, p2, r2n)[0];
+        if (getIntersection(x1, y1, r1n, x2, y2, r2, out, off) == 0) {
+            return false;
+        }
+        double n1x = out[off];
+        double n1y = out[off + 1];
+        if (getIntersection(x1, y1, r1, x2, y2, r2n, out, off) == 0) {
+            return false;
+        }
 
         // return middle of line between points as result
-        return new Point2d((n1.x + n2.x) / 2, (n1.y + n2.y) / 2);
+        out[off] = (n1x + out[off]) / 2;
+        out[off + 1] = (n1y + out[off + 1]) / 2;
+        return true;
     }
     
     /**
@@ -306,24 +588,106 @@ public final class Circle {
      */
     public static IntersectionPoint2d[] minimumCircleContainment(Point2d[] m,
             double[] r, IntersectionPoint2d[] pts, int min, boolean useApprox) {
-        int minApprox = Math.max(min - 2, 0);
-        ArrayList<IntersectionPoint2d> v = new ArrayList<>();
-        for (int i = 0; i < pts.length; i++) {
-            int minC = 0;
-            for (int j = 0; j < m.length; j++) {
-                if (m[j].distance(pts[i]) <= r[j] + 0.01) {
-                    minC++;
-                }
+        int n = m.length;
+        int num = pts.length;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int j = 0; j < n; j++) {
+            xs[j] = m[j].x;
+            ys[j] = m[j].y;
+        }
+        double[] p = new double[2 * num];
+        boolean[] real = new boolean[num];
+        for (int i = 0; i < num; i++) {
+            p[2*i] = pts[i].x;
+            p[2*i+1] = pts[i].y;
+            real[i] = pts[i].isRealIntersection();
+        }
+        int[] survivors = new int[num];
+        int kept = minimumCircleContainment(xs, ys, r, n, p, real, num, min,
+                useApprox, new int[num], survivors);
+        IntersectionPoint2d[] res = new IntersectionPoint2d[kept];
+        for (int k = 0; k < kept; k++) {
+            res[k] = pts[survivors[k]];
+        }
+        return res;
+    }
+
+    /**
+     * Counts for every point the number of circles containing it, allowing
+     * a tolerance of 0.01 on the radius.
+     * <p>
+     * Squared distances are compared to precomputed squared radii, so no
+     * square roots are needed.
+     *
+     * @param xs The x coordinates of the centers.
+     * @param ys The y coordinates of the centers.
+     * @param ranges The radii of the circles.
+     * @param n The number of circles.
+     * @param pts The points as pairs (x, y).
+     * @param num The number of points.
+     * @param counts The array receiving the number of containing circles
+     *               per point.
+     */
+    public static void countContainment(double[] xs, double[] ys,
+            double[] ranges, int n, double[] pts, int num, int[] counts) {
+        Arrays.fill(counts, 0, num, 0);
+        for (int j = 0; j < n; j++) {
+            double cx = xs[j];
+            double cy = ys[j];
+            double t = ranges[j] + 0.01;
+            if (!(t >= 0)) {
+                continue;
             }
-            if (pts[i].isRealIntersection()) {
-                if (minC >= min) {
-                    v.add(pts[i]);
+            double t2 = t * t;
+            for (int i = 0; i < num; i++) {
+                double dx = cx - pts[2*i];
+                double dy = cy - pts[2*i+1];
+                if (dx*dx + dy*dy <= t2) {
+                    counts[i]++;
                 }
-            } else if (!useApprox || minC >= minApprox) {
-                v.add(pts[i]);
             }
         }
-        return v.toArray(new IntersectionPoint2d[0]);
+    }
+
+    /**
+     * Only keeps points which are contained in <code>min</code> circles or
+     * points which are approximated, on primitive arrays.
+     * <p>
+     * Approximated points are kept if <code>useApprox</code> is not set or
+     * if they are contained in <code>min - 2</code> circles.
+     *
+     * @param xs The x coordinates of the centers.
+     * @param ys The y coordinates of the centers.
+     * @param ranges The radii of the circles.
+     * @param n The number of circles.
+     * @param pts The points as pairs (x, y).
+     * @param real {@code true} for real and {@code false} for approximated
+     *             points or {@code null} if all points are real.
+     * @param num The number of points.
+     * @param min The number of minimum contained circles for a point.
+     * @param useApprox Also test approximated points?
+     * @param counts Buffer for <code>num</code> containment counts, see
+     *               {@link #countContainment(double[], double[], double[], int, double[], int, int[])}.
+     * @param survivors The array receiving the indices of the kept points
+     *                  in ascending order.
+     *
+     * @return The number of kept points.
+     */
+    public static int minimumCircleContainment(double[] xs, double[] ys,
+            double[] ranges, int n, double[] pts, boolean[] real, int num,
+            int min, boolean useApprox, int[] counts, int[] survivors) {
+        countContainment(xs, ys, ranges, n, pts, num, counts);
+        int minApprox = Math.max(min - 2, 0);
+        int kept = 0;
+        for (int i = 0; i < num; i++) {
+            boolean keep = real == null || real[i] ? counts[i] >= min
+                    : !useApprox || counts[i] >= minApprox;
+            if (keep) {
+                survivors[kept++] = i;
+            }
+        }
+        return kept;
     }
 
 }
@@ -0,0 +1,239 @@
+package latmath.util;
+
+/**
+ * Calculation of the weighted geometric median (Fermat-Weber point) of
+ * points given as coordinate pairs in a primitive array.
+ * <p>
+ * The solver uses Weiszfeld's algorithm with the following improvements:
+ * <ul>
+ * <li>Over-relaxed steps (Ostresh), falling back to a plain step if the
+ *     objective does not decrease, which roughly halves the number of
+ *     iterations.</li>
+ * <li>Iterates which coincide with sample points are handled as proposed
+ *     by Vardi and Zhang, so the optimality of a sample point is detected
+ *     without the O(n^2) test of all sample points. Only the sample point
+ *     nearest to the iterate is tested, whenever it changes.</li>
+ * <li>The iteration can be warm-started, e.g. from the median of the
+ *     previous call in a sliding window.</li>
+ * <li>One pass over the points per iteration and no memory allocation.</li>
+ * </ul>
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class GeometricMedian {
+
+    /** Maximum number of iterations */
+    public static final int MAX_ITERATIONS = 100;
+
+    /** Convergence tolerance relative to the mean distance to the points */
+    private static final double TOLERANCE = 1e-7;
+
+    /** Over-relaxation factor, Weiszfeld steps are descent steps up to 2 */
+    private static final double OVERRELAXATION = 1.8;
+
+    private GeometricMedian() {}
+
+    /**
+     * Calculates the geometric median starting from the weighted centroid.
+     *
+     * @param pts The coordinates of the sample points as pairs (x, y).
+     * @param weights The weight of each point or {@code null} for equal
+     *                weights.
+     * @param n The number of sample points.
+     * @param result The geometric median (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if there are no points.
+     *         If the weights sum up to zero or a coordinate is not finite,
+     *         the result is (NaN, NaN).
+     */
+    public static boolean compute(double[] pts, double[] weights, int n,
+            double[] result) {
+        if (n == 0) {
+            return false;
+        }
+        double mx = 0, my = 0, M = 0;
+        for (int i = 0; i < n; i++) {
+            double w = weights != null ? weights[i] : 1;
+            mx += pts[2*i] * w;
+            my += pts[2*i+1] * w;
+            M += w;
+        }
+        mx /= M;
+        my /= M;
+        if (!isFinite(mx) || !isFinite(my)) {
+            // no finite start position, the median is undefined as well
+            result[0] = Double.NaN;
+            result[1] = Double.NaN;
+            return true;
+        }
+        iterate(pts, weights, n, mx, my, result);
+        return true;
+    }
+
+    /**
+     * Calculates the geometric median starting from the given position.
+     *
+     * @param pts The coordinates of the sample points as pairs (x, y).
+     * @param weights The weight of each point or {@code null} for equal
+     *                weights.
+     * @param n The number of sample points.
+     * @param startX The x coordinate of the start position, e.g. a previous
+     *               median of similar points.
+     * @param startY The y coordinate of the start position.
+     * @param result The geometric median (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if there are no points.
+     *         If the start position is not finite, the weighted centroid is
+     *         used instead, see {@link #compute(double[], double[], int, double[])}.
+     */
+    public static boolean compute(double[] pts, double[] weights, int n,
+            double startX, double startY, double[] result) {
+        if (n == 0) {
+            return false;
+        }
+        if (!isFinite(startX) || !isFinite(startY)) {
+            return compute(pts, weights, n, result);
+        }
+        iterate(pts, weights, n, startX, startY, result);
+        return true;
+    }
+
+    /**
+     * Runs the over-relaxed Weiszfeld iteration from a finite start position.
+     */
+    private static void iterate(double[] pts, double[] weights, int n,
+            double startX, double startY, double[] result) {
+        double x = startX;
+        double y = startY;
+        double lambda = OVERRELAXATION;
+        double prevF = Double.POSITIVE_INFINITY;
+        double prevTx = x, prevTy = y;
+        int tested = -1;
+
+        for (int iteration = 0; iteration <= MAX_ITERATIONS; iteration++) {
+            // objective, Weiszfeld sums, weight of coinciding points and
+            // the nearest other point in one pass
+            double f = 0, M = 0;
+            double sx = 0, sy = 0, sw = 0;
+            double rx = 0, ry = 0;
+            double eta = 0;
+            double dmin = Double.POSITIVE_INFINITY;
+            int nearest = -1;
+            for (int i = 0; i < n; i++) {
+                double w = weights != null ? weights[i] : 1;
+                double px = pts[2*i];
+                double py = pts[2*i+1];
+                double dx = px - x;
+                double dy = py - y;
+                double d = Math.sqrt(dx*dx + dy*dy);
+                M += w;
+                if (d == 0) {
+                    eta += w;
+                    continue;
+                }
+                f += w * d;
+                double wd = w / d;
+                sx += wd * px;
+                sy += wd * py;
+                sw += wd;
+                rx += wd * dx;
+                ry += wd * dy;
+                if (d < dmin) {
+                    dmin = d;
+                    nearest = i;
+                }
+            }
+
+            // over-relaxed step went uphill => plain step instead
+            if (f > prevF) {
+                x = prevTx;
+                y = prevTy;
+                lambda = 1;
+                prevF = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            if (Double.isNaN(f)) {
+                // a coordinate or weight is NaN
+                x = y = Double.NaN;
+                break;
+            }
+            if (sw == 0) {
+                // all points coincide with the iterate
+                break;
+            }
+
+            // Weiszfeld target, modified if the iterate is a sample point
+            double tx = sx / sw;
+            double ty = sy / sw;
+            if (eta > 0) {
+                double r = Math.sqrt(rx*rx + ry*ry);
+                if (r <= eta) {
+                    break; // iterate is optimal
+                }
+                double s = eta / r;
+                tx = (1 - s) * tx + s * x;
+                ty = (1 - s) * ty + s * y;
+            }
+
+            // Weiszfeld steps approach an optimal sample point very slowly,
+            // so test the nearest one whenever it changes
+            if (nearest != tested) {
+                tested = nearest;
+                if (isOptimal(pts, weights, n, nearest)) {
+                    x = pts[2*nearest];
+                    y = pts[2*nearest+1];
+                    break;
+                }
+            }
+
+            double dx = tx - x;
+            double dy = ty - y;
+            double stepLength = Math.sqrt(dx*dx + dy*dy);
+            if (stepLength <= TOLERANCE * (f / M)) {
+                x = tx;
+                y = ty;
+                break;
+            }
+            prevF = f;
+            prevTx = tx;
+            prevTy = ty;
+            x += lambda * dx;
+            y += lambda * dy;
+        }
+
+        result[0] = x;
+        result[1] = y;
+    }
+
+    private static boolean isFinite(double v) {
+        return !Double.isNaN(v) && !Double.isInfinite(v);
+    }
+
+    /**
+     * Tests if the sample point with index <code>k</code> is the geometric
+     * median, i.e. if the weights of all points in the same position
+     * outweigh the pull of all other points.
+     */
+    private static boolean isOptimal(double[] pts, double[] weights, int n,
+            int k) {
+        double px = pts[2*k];
+        double py = pts[2*k+1];
+        double eta = 0;
+        double rx = 0, ry = 0;
+        for (int i = 0; i < n; i++) {
+            double w = weights != null ? weights[i] : 1;
+            double dx = pts[2*i] - px;
+            double dy = pts[2*i+1] - py;
+            double d = Math.sqrt(dx*dx + dy*dy);
+            if (d == 0) {
+                eta += w;
+            } else {
+                rx += w * dx / d;
+                ry += w * dy / d;
+            }
+        }
+        return Math.sqrt(rx*rx + ry*ry) <= eta;
+    }
+
+}
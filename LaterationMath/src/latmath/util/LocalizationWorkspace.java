@@ -0,0 +1,291 @@
+package latmath.util;
+
+/**
+ * Reusable scratch buffers for lateration algorithms.
+ * <p>
+ * A workspace is sized by the maximum number of anchors it has to handle
+ * and grows on demand, it never shrinks. Workspaces are held per thread and
+ * must be borrowed with {@link #acquire(int)} and given back with
+ * {@link #release(LocalizationWorkspace)}, normally in a
+ * {@code try}/{@code finally} block. Nested borrowing (e.g. an algorithm
+ * calling another algorithm) is supported, every nesting level gets its
+ * own workspace.
+ * <p>
+ * The content of all buffers is undefined when borrowing a workspace.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class LocalizationWorkspace {
+
+    /** Initial capacity of new workspaces (number of anchors) */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /** Workspaces of the current thread, one per nesting level */
+    private static final ThreadLocal<Pool> pools = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    /** Maximum number of anchors */
+    private int capacity;
+
+    /** Anchor buffers, indexed by anchor count => exact length arrays */
+    private double[][] x;
+    private double[][] y;
+    private double[][] ranges;
+    private double[][] weights;
+
+    /** Buffers for (up to) n*(n-1) intersection points */
+    private double[] points;
+    private boolean[] flags;
+    private double[] values;
+    private double[] scratch;
+    private int[] counts;
+    private int[] indices;
+
+    /** Buffer for results of primitive calls */
+    private final double[] result;
+
+    private static final class Pool {
+        private LocalizationWorkspace[] workspaces = new LocalizationWorkspace[4];
+        private int depth;
+    }
+
+    /**
+     * Creates a new instance of <code>LocalizationWorkspace</code>.
+     * <p>
+     * Normally there is no need to create workspaces directly, see
+     * {@link #acquire(int)}.
+     *
+     * @param capacity The maximum number of anchors.
+     */
+    public LocalizationWorkspace(int capacity) {
+        this.result = new double[4];
+        this.capacity = -1;
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Borrows a workspace of the current thread.
+     *
+     * @param anchors The number of anchors the workspace must handle.
+     *
+     * @return A workspace for at least the given number of anchors.
+     */
+    public static LocalizationWorkspace acquire(int anchors) {
+        Pool pool = pools.get();
+        if (pool.depth == pool.workspaces.length) {
+            LocalizationWorkspace[] tmp = new LocalizationWorkspace[pool.depth * 2];
+            System.arraycopy(pool.workspaces, 0, tmp, 0, pool.depth);
+            pool.workspaces = tmp;
+        }
+        LocalizationWorkspace ws = pool.workspaces[pool.depth];
+        if (ws == null) {
+            ws = new LocalizationWorkspace(Math.max(anchors, DEFAULT_CAPACITY));
+            pool.workspaces[pool.depth] = ws;
+        } else {
+            ws.ensureCapacity(anchors);
+        }
+        pool.depth++;
+        return ws;
+    }
+
+    /**
+     * Gives back a workspace borrowed with {@link #acquire(int)}.
+     *
+     * @param ws The workspace to be given back.
+     *
+     * @throws IllegalStateException If the workspace is not the last one
+     *                               borrowed by the current thread.
+     */
+    public static void release(LocalizationWorkspace ws) {
+        Pool pool = pools.get();
+        if (pool.depth == 0 || pool.workspaces[pool.depth - 1] != ws) {
+            throw new IllegalStateException("workspace not borrowed by this thread");
+        }
+        pool.depth--;
+    }
+
+    /**
+     * Returns the maximum number of anchors of this workspace.
+     *
+     * @return The maximum number of anchors.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows this workspace so that it can handle the given number of anchors.
+     *
+     * @param anchors The number of anchors.
+     */
+    public void ensureCapacity(int anchors) {
+        if (anchors <= capacity) {
+            return;
+        }
+        double[][] tx = new double[anchors + 1][];
+        double[][] ty = new double[anchors + 1][];
+        double[][] tr = new double[anchors + 1][];
+        double[][] tw = new double[anchors + 1][];
+        if (x != null) {
+            System.arraycopy(x, 0, tx, 0, x.length);
+            System.arraycopy(y, 0, ty, 0, y.length);
+            System.arraycopy(ranges, 0, tr, 0, ranges.length);
+            System.arraycopy(weights, 0, tw, 0, weights.length);
+        }
+        x = tx;
+        y = ty;
+        ranges = tr;
+        weights = tw;
+        int maxPoints = Math.max(anchors * (anchors - 1), 1);
+        points = new double[2 * maxPoints];
+        flags = new boolean[maxPoints];
+        values = new double[maxPoints];
+        scratch = new double[maxPoints];
+        counts = new int[maxPoints];
+        indices = new int[maxPoints];
+        capacity = anchors;
+    }
+
+    /**
+     * Returns a buffer for x coordinates of the given number of anchors.
+     *
+     * @param n The number of anchors, at most {@link #getCapacity()}.
+     *
+     * @return A buffer of exactly <code>n</code> values.
+     */
+    public double[] getX(int n) {
+        if (x[n] == null) {
+            x[n] = new double[n];
+        }
+        return x[n];
+    }
+
+    /**
+     * Returns a buffer for y coordinates of the given number of anchors.
+     *
+     * @param n The number of anchors, at most {@link #getCapacity()}.
+     *
+     * @return A buffer of exactly <code>n</code> values.
+     */
+    public double[] getY(int n) {
+        if (y[n] == null) {
+            y[n] = new double[n];
+        }
+        return y[n];
+    }
+
+    /**
+     * Returns a buffer for ranges to the given number of anchors.
+     *
+     * @param n The number of anchors, at most {@link #getCapacity()}.
+     *
+     * @return A buffer of exactly <code>n</code> values.
+     */
+    public double[] getRanges(int n) {
+        if (ranges[n] == null) {
+            ranges[n] = new double[n];
+        }
+        return ranges[n];
+    }
+
+    /**
+     * Returns a buffer for weights of the given number of anchors.
+     *
+     * @param n The number of anchors, at most {@link #getCapacity()}.
+     *
+     * @return A buffer of exactly <code>n</code> values.
+     */
+    public double[] getWeights(int n) {
+        if (weights[n] == null) {
+            weights[n] = new double[n];
+        }
+        return weights[n];
+    }
+
+    /**
+     * Copies the anchor coordinates into the x and y buffers for
+     * <code>anchors.length</code> anchors.
+     *
+     * @param anchors The anchor/reference nodes.
+     */
+    public void load(Point2d[] anchors) {
+        int n = anchors.length;
+        double[] tx = getX(n);
+        double[] ty = getY(n);
+        for (int i = 0; i < n; i++) {
+            tx[i] = anchors[i].x;
+            ty[i] = anchors[i].y;
+        }
+    }
+
+    /**
+     * Returns a buffer for the coordinates of all pairwise circle
+     * intersections as pairs (x, y), i.e. room for {@code n*(n-1)} points.
+     *
+     * @return A buffer of at least {@code 2*n*(n-1)} values.
+     */
+    public double[] getPoints() {
+        return points;
+    }
+
+    /**
+     * Returns a buffer for one flag per intersection point.
+     *
+     * @return A buffer of at least {@code n*(n-1)} values.
+     */
+    public boolean[] getFlags() {
+        return flags;
+    }
+
+    /**
+     * Returns a buffer for one value per intersection point.
+     *
+     * @return A buffer of at least {@code n*(n-1)} values.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Returns a second buffer for one value per intersection point.
+     *
+     * @return A buffer of at least {@code n*(n-1)} values.
+     */
+    public double[] getScratch() {
+        return scratch;
+    }
+
+    /**
+     * Returns a buffer for one count per intersection point.
+     *
+     * @return A buffer of at least {@code n*(n-1)} values.
+     */
+    public int[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * Returns a buffer for indices of intersection points.
+     *
+     * @return A buffer of at least {@code n*(n-1)} values.
+     */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * Returns a buffer for the results of primitive calls like the
+     * estimated position (x, y).
+     *
+     * @return A buffer of 4 values.
+     */
+    public double[] getResult() {
+        return result;
+    }
+
+}
@@ -0,0 +1,172 @@
+package latmath.util;
+
+/**
+ * A mutable 2x2 matrix for the 2-D solvers, e.g. the normal equations
+ * <code>A^T*A*x = A^T*b</code> of a Gauss-Newton step.
+ * <p>
+ * Unlike {@link Matrix} all operations work in place and allocate no
+ * memory, so short-lived instances are candidates for scalar replacement
+ * by the JIT compiler.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ * @see     Vec2
+ */
+public final class Mat2 {
+
+    /** The entries, row by row */
+    public double a00, a01;
+    public double a10, a11;
+
+    /**
+     * Creates a new zero matrix.
+     */
+    public Mat2() {
+    }
+
+    /**
+     * Creates a new matrix with the given entries.
+     *
+     * @param a00 The entry in row 0, column 0.
+     * @param a01 The entry in row 0, column 1.
+     * @param a10 The entry in row 1, column 0.
+     * @param a11 The entry in row 1, column 1.
+     */
+    public Mat2(double a00, double a01, double a10, double a11) {
+        set(a00, a01, a10, a11);
+    }
+
+    /**
+     * Sets the entries.
+     *
+     * @param a00 The entry in row 0, column 0.
+     * @param a01 The entry in row 0, column 1.
+     * @param a10 The entry in row 1, column 0.
+     * @param a11 The entry in row 1, column 1.
+     *
+     * @return This matrix.
+     */
+    public Mat2 set(double a00, double a01, double a10, double a11) {
+        this.a00 = a00;
+        this.a01 = a01;
+        this.a10 = a10;
+        this.a11 = a11;
+        return this;
+    }
+
+    /**
+     * Sets all entries to zero.
+     *
+     * @return This matrix.
+     */
+    public Mat2 setZero() {
+        return set(0, 0, 0, 0);
+    }
+
+    /**
+     * Adds a weighted outer product: <code>this += w * v * v^T</code> with
+     * <code>v = (x, y)</code>, e.g. one row of <code>A</code> to
+     * <code>A^T*W*A</code>.
+     *
+     * @param x The first component of the vector.
+     * @param y The second component of the vector.
+     * @param w The weight.
+     *
+     * @return This matrix.
+     */
+    public Mat2 addOuter(double x, double y, double w) {
+        double wx = w * x;
+        double wy = w * y;
+        a00 += wx * x;
+        a01 += wx * y;
+        a10 += wy * x;
+        a11 += wy * y;
+        return this;
+    }
+
+    /**
+     * Adds a value to the diagonal: <code>this += s * I</code>.
+     *
+     * @param s The value.
+     *
+     * @return This matrix.
+     */
+    public Mat2 addDiagonal(double s) {
+        a00 += s;
+        a11 += s;
+        return this;
+    }
+
+    /**
+     * Returns the determinant.
+     *
+     * @return The determinant.
+     */
+    public double det() {
+        return a00 * a11 - a01 * a10;
+    }
+
+    /**
+     * Returns the trace.
+     *
+     * @return The sum of the diagonal entries.
+     */
+    public double trace() {
+        return a00 + a11;
+    }
+
+    /**
+     * Inverts this matrix in place.
+     *
+     * @return {@code false} if the matrix is singular, it is not changed
+     *         in this case.
+     */
+    public boolean invert() {
+        double det = det();
+        if (det == 0) {
+            // matrix is singular => no inverse
+            return false;
+        }
+        double one_div_det = 1 / det;
+        set(one_div_det * a11, -one_div_det * a01,
+            -one_div_det * a10, one_div_det * a00);
+        return true;
+    }
+
+    /**
+     * Multiplies a vector: <code>result = this * v</code>.
+     *
+     * @param v The vector.
+     * @param result The product, may be <code>v</code>.
+     *
+     * @return The product.
+     */
+    public Vec2 times(Vec2 v, Vec2 result) {
+        return result.set(a00 * v.x + a01 * v.y, a10 * v.x + a11 * v.y);
+    }
+
+    /**
+     * Solves <code>this * x = b</code> by Cramer's rule.
+     *
+     * @param b The right hand side.
+     * @param result The solution <code>x</code>, may be <code>b</code>.
+     *
+     * @return {@code false} if the matrix is singular, the result is not
+     *         changed in this case.
+     */
+    public boolean solve(Vec2 b, Vec2 result) {
+        double det = det();
+        if (det == 0) {
+            return false;
+        }
+        result.set((a11 * b.x - a01 * b.y) / det,
+                   (a00 * b.y - a10 * b.x) / det);
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + a00 + ", " + a01 + "; " + a10 + ", " + a11 + "]";
+    }
+
+}
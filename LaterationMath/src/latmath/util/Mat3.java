@@ -0,0 +1,226 @@
+package latmath.util;
+
+/**
+ * A mutable 3x3 matrix, e.g. for quadratic least squares fits.
+ * <p>
+ * Unlike {@link Matrix} all operations work in place and allocate no
+ * memory, so short-lived instances are candidates for scalar replacement
+ * by the JIT compiler. Vectors are passed as arrays of length 3.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ * @see     Mat2
+ */
+public final class Mat3 {
+
+    /** The entries, row by row */
+    public double a00, a01, a02;
+    public double a10, a11, a12;
+    public double a20, a21, a22;
+
+    /**
+     * Creates a new zero matrix.
+     */
+    public Mat3() {
+    }
+
+    /**
+     * Returns an entry.
+     *
+     * @param i The row, 0 to 2.
+     * @param j The column, 0 to 2.
+     *
+     * @return The entry.
+     *
+     * @throws IndexOutOfBoundsException If the row or column is invalid.
+     */
+    public double get(int i, int j) {
+        switch (3 * i + j) {
+            case 0: return a00;
+            case 1: return a01;
+            case 2: return a02;
+            case 3: return a10;
+            case 4: return a11;
+            case 5: return a12;
+            case 6: return a20;
+            case 7: return a21;
+            case 8: return a22;
+            default: throw new IndexOutOfBoundsException(i + ", " + j);
+        }
+    }
+
+    /**
+     * Sets an entry.
+     *
+     * @param i The row, 0 to 2.
+     * @param j The column, 0 to 2.
+     * @param value The new value.
+     *
+     * @throws IndexOutOfBoundsException If the row or column is invalid.
+     */
+    public void set(int i, int j, double value) {
+        if (i < 0 || i > 2 || j < 0 || j > 2) {
+            throw new IndexOutOfBoundsException(i + ", " + j);
+        }
+        switch (3 * i + j) {
+            case 0: a00 = value; break;
+            case 1: a01 = value; break;
+            case 2: a02 = value; break;
+            case 3: a10 = value; break;
+            case 4: a11 = value; break;
+            case 5: a12 = value; break;
+            case 6: a20 = value; break;
+            case 7: a21 = value; break;
+            default: a22 = value; break;
+        }
+    }
+
+    /**
+     * Sets all entries to zero.
+     *
+     * @return This matrix.
+     */
+    public Mat3 setZero() {
+        a00 = a01 = a02 = 0;
+        a10 = a11 = a12 = 0;
+        a20 = a21 = a22 = 0;
+        return this;
+    }
+
+    /**
+     * Adds a weighted outer product: <code>this += w * v * v^T</code> with
+     * <code>v = (x, y, z)</code>.
+     *
+     * @param x The first component of the vector.
+     * @param y The second component of the vector.
+     * @param z The third component of the vector.
+     * @param w The weight.
+     *
+     * @return This matrix.
+     */
+    public Mat3 addOuter(double x, double y, double z, double w) {
+        double wx = w * x;
+        double wy = w * y;
+        double wz = w * z;
+        a00 += wx * x; a01 += wx * y; a02 += wx * z;
+        a10 += wy * x; a11 += wy * y; a12 += wy * z;
+        a20 += wz * x; a21 += wz * y; a22 += wz * z;
+        return this;
+    }
+
+    /**
+     * Returns the determinant.
+     *
+     * @return The determinant.
+     */
+    public double det() {
+        return a00 * (a11 * a22 - a12 * a21)
+             - a01 * (a10 * a22 - a12 * a20)
+             + a02 * (a10 * a21 - a11 * a20);
+    }
+
+    /**
+     * Inverts this matrix in place using the adjugate.
+     *
+     * @return {@code false} if the matrix is singular, it is not changed
+     *         in this case.
+     */
+    public boolean invert() {
+        double c00 = a11 * a22 - a12 * a21;
+        double c01 = a02 * a21 - a01 * a22;
+        double c02 = a01 * a12 - a02 * a11;
+        double c10 = a12 * a20 - a10 * a22;
+        double c11 = a00 * a22 - a02 * a20;
+        double c12 = a02 * a10 - a00 * a12;
+        double c20 = a10 * a21 - a11 * a20;
+        double c21 = a01 * a20 - a00 * a21;
+        double c22 = a00 * a11 - a01 * a10;
+        double det = a00 * c00 + a01 * c10 + a02 * c20;
+        if (det == 0) {
+            // matrix is singular => no inverse
+            return false;
+        }
+        double s = 1 / det;
+        a00 = s * c00; a01 = s * c01; a02 = s * c02;
+        a10 = s * c10; a11 = s * c11; a12 = s * c12;
+        a20 = s * c20; a21 = s * c21; a22 = s * c22;
+        return true;
+    }
+
+    /**
+     * Multiplies a vector: <code>result = this * v</code>.
+     *
+     * @param v The vector, at least 3 long.
+     * @param result The product, at least 3 long, may be <code>v</code>.
+     */
+    public void times(double[] v, double[] result) {
+        double x = v[0], y = v[1], z = v[2];
+        result[0] = a00 * x + a01 * y + a02 * z;
+        result[1] = a10 * x + a11 * y + a12 * z;
+        result[2] = a20 * x + a21 * y + a22 * z;
+    }
+
+    /**
+     * Solves <code>this * x = b</code> by Gaussian elimination with partial
+     * pivoting; this matrix is not changed.
+     *
+     * @param b The right hand side, at least 3 long.
+     * @param result The solution <code>x</code>, at least 3 long, may be
+     *               <code>b</code>.
+     *
+     * @return {@code false} if the matrix is singular, the result is not
+     *         changed in this case.
+     */
+    public boolean solve(double[] b, double[] result) {
+        // rows (r0, r1, r2) with right hand side in the last column
+        double r00 = a00, r01 = a01, r02 = a02, r03 = b[0];
+        double r10 = a10, r11 = a11, r12 = a12, r13 = b[1];
+        double r20 = a20, r21 = a21, r22 = a22, r23 = b[2];
+        double t;
+
+        // pivot of column 0
+        if (Math.abs(r10) > Math.abs(r00) && Math.abs(r10) >= Math.abs(r20)) {
+            t = r00; r00 = r10; r10 = t;
+            t = r01; r01 = r11; r11 = t;
+            t = r02; r02 = r12; r12 = t;
+            t = r03; r03 = r13; r13 = t;
+        } else if (Math.abs(r20) > Math.abs(r00)) {
+            t = r00; r00 = r20; r20 = t;
+            t = r01; r01 = r21; r21 = t;
+            t = r02; r02 = r22; r22 = t;
+            t = r03; r03 = r23; r23 = t;
+        }
+        if (r00 == 0) {
+            return false;
+        }
+        double f = r10 / r00;
+        r11 -= f * r01; r12 -= f * r02; r13 -= f * r03;
+        f = r20 / r00;
+        r21 -= f * r01; r22 -= f * r02; r23 -= f * r03;
+
+        // pivot of column 1
+        if (Math.abs(r21) > Math.abs(r11)) {
+            t = r11; r11 = r21; r21 = t;
+            t = r12; r12 = r22; r22 = t;
+            t = r13; r13 = r23; r23 = t;
+        }
+        if (r11 == 0) {
+            return false;
+        }
+        f = r21 / r11;
+        r22 -= f * r12; r23 -= f * r13;
+        if (r22 == 0) {
+            return false;
+        }
+
+        // back substitution
+        double z = r23 / r22;
+        double y = (r13 - r12 * z) / r11;
+        double x = (r03 - r01 * y - r02 * z) / r00;
+        result[0] = x;
+        result[1] = y;
+        result[2] = z;
+        return true;
+    }
+
+}
@@ -0,0 +1,226 @@
+package latmath.util;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid (spatial hash) over moving points for range queries with
+ * varying radii.
+ * <p>
+ * Unlike {@link PointGrid} the points can be moved and removed, the grid is
+ * updated incrementally in constant time. A query visits all cells
+ * overlapping the query circle, limited to the cells ever occupied; if
+ * these are more cells than points, all points are scanned instead. Thus a
+ * query never costs much more than a linear scan and is output sensitive
+ * for radii in the range of the cell size.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class MovingPointGrid {
+
+    /** The point coordinates */
+    private final double[] x;
+    private final double[] y;
+
+    /** The number of points (including removed points) */
+    private final int num;
+
+    /** The number of points not removed */
+    private int live;
+
+    /** The cell size */
+    private final double cell;
+
+    /** Origin of the grid */
+    private final double minX;
+    private final double minY;
+
+    /** Cell coordinates of the points */
+    private final long[] cx;
+    private final long[] cy;
+
+    /** Range of cell coordinates ever occupied */
+    private long minCx, maxCx, minCy, maxCy;
+
+    /** Removed points */
+    private final boolean[] removed;
+
+    /** Hash table: first point per bucket, doubly linked points per bucket */
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int mask;
+
+    /**
+     * Creates a new grid over the given points.
+     *
+     * @param x The x coordinates of the points.
+     * @param y The y coordinates of the points.
+     * @param num The number of points.
+     * @param cell The cell size, must be positive.
+     *
+     * @throws IllegalArgumentException If the cell size is not positive.
+     */
+    public MovingPointGrid(double[] x, double[] y, int num, double cell) {
+        if (!(cell > 0)) {
+            throw new IllegalArgumentException("cell size must be positive");
+        }
+        this.x = Arrays.copyOf(x, num);
+        this.y = Arrays.copyOf(y, num);
+        this.num = num;
+        this.live = num;
+        this.cell = cell;
+        double mx = Double.POSITIVE_INFINITY;
+        double my = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < num; i++) {
+            mx = Math.min(mx, x[i]);
+            my = Math.min(my, y[i]);
+        }
+        this.minX = num > 0 ? mx : 0;
+        this.minY = num > 0 ? my : 0;
+        int size = Integer.highestOneBit(Math.max(2 * num, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.head = new int[size];
+        this.next = new int[num];
+        this.prev = new int[num];
+        this.cx = new long[num];
+        this.cy = new long[num];
+        this.removed = new boolean[num];
+        Arrays.fill(head, -1);
+        minCx = minCy = Long.MAX_VALUE;
+        maxCx = maxCy = Long.MIN_VALUE;
+        for (int i = 0; i < num; i++) {
+            insert(i);
+        }
+    }
+
+    /**
+     * Returns the number of points not removed.
+     *
+     * @return The number of points not removed.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Moves a point.
+     *
+     * @param i The index of the point, must not be removed.
+     * @param px The new x coordinate.
+     * @param py The new y coordinate.
+     */
+    public void move(int i, double px, double py) {
+        x[i] = px;
+        y[i] = py;
+        long ncx = cellX(px);
+        long ncy = cellY(py);
+        if (ncx != cx[i] || ncy != cy[i]) {
+            unlink(i);
+            insert(i);
+        }
+    }
+
+    /**
+     * Removes a point, removing a point twice has no effect.
+     *
+     * @param i The index of the point.
+     */
+    public void remove(int i) {
+        if (!removed[i]) {
+            unlink(i);
+            removed[i] = true;
+            live--;
+        }
+    }
+
+    /**
+     * Finds all points within the given distance of a location.
+     *
+     * @param px The x coordinate of the location.
+     * @param py The y coordinate of the location.
+     * @param radius The maximum distance.
+     * @param result Receives the indices of all points not removed with
+     *               <code>distance &lt;= radius</code> in no particular
+     *               order, at least {@link #size()} long.
+     *
+     * @return The number of points found.
+     */
+    public int query(double px, double py, double radius, int[] result) {
+        int count = 0;
+        // one more cell on each side against rounding errors
+        long x0 = (long) Math.max(minCx, Math.floor((px - radius - minX) / cell) - 1);
+        long x1 = (long) Math.min(maxCx, Math.floor((px + radius - minX) / cell) + 1);
+        long y0 = (long) Math.max(minCy, Math.floor((py - radius - minY) / cell) - 1);
+        long y1 = (long) Math.min(maxCy, Math.floor((py + radius - minY) / cell) + 1);
+        if (x0 > x1 || y0 > y1) {
+            return 0;
+        }
+        if ((double) (x1 - x0 + 1) * (y1 - y0 + 1) > live) {
+            // cheaper to scan all points
+            for (int j = 0; j < num; j++) {
+                if (!removed[j] && inRange(j, px, py, radius)) {
+                    result[count++] = j;
+                }
+            }
+            return count;
+        }
+        for (long gx = x0; gx <= x1; gx++) {
+            for (long gy = y0; gy <= y1; gy++) {
+                for (int j = head[hash(gx, gy)]; j >= 0; j = next[j]) {
+                    if (cx[j] == gx && cy[j] == gy && inRange(j, px, py, radius)) {
+                        result[count++] = j;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean inRange(int j, double px, double py, double radius) {
+        double dx = x[j] - px;
+        double dy = y[j] - py;
+        return Math.sqrt(dx*dx + dy*dy) <= radius;
+    }
+
+    private long cellX(double px) {
+        return (long) Math.floor((px - minX) / cell);
+    }
+
+    private long cellY(double py) {
+        return (long) Math.floor((py - minY) / cell);
+    }
+
+    private int hash(long gx, long gy) {
+        long h = gx * 0x9E3779B97F4A7C15L + gy * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void insert(int i) {
+        cx[i] = cellX(x[i]);
+        cy[i] = cellY(y[i]);
+        minCx = Math.min(minCx, cx[i]);
+        maxCx = Math.max(maxCx, cx[i]);
+        minCy = Math.min(minCy, cy[i]);
+        maxCy = Math.max(maxCy, cy[i]);
+        int h = hash(cx[i], cy[i]);
+        prev[i] = -1;
+        next[i] = head[h];
+        if (head[h] >= 0) {
+            prev[head[h]] = i;
+        }
+        head[h] = i;
+    }
+
+    private void unlink(int i) {
+        if (prev[i] >= 0) {
+            next[prev[i]] = next[i];
+        } else {
+            head[hash(cx[i], cy[i])] = next[i];
+        }
+        if (next[i] >= 0) {
+            prev[next[i]] = prev[i];
+        }
+    }
+
+}
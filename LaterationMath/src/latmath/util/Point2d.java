@@ -142,9 +142,25 @@ public class Point2d implements Serializable, Comparable<Point2d> {
         return dx*dx + dy*dy;
     }
 
+    /**
+     * Creates an array of points from separate coordinate arrays.
+     *
+     * @param xs The x coordinates.
+     * @param ys The y coordinates, same length as <code>xs</code>.
+     *
+     * @return A new array of points.
+     */
+    public static Point2d[] fromCoordinates(double[] xs, double[] ys) {
+        Point2d[] pts = new Point2d[xs.length];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new Point2d(xs[i], ys[i]);
+        }
+        return pts;
+    }
+
     /**
      * Returns the center of mass of a given set of points.
-     * 
+     *
      * @param pts The points, each with equal mass.
      *
      * @return The center of mass of the given points or <code>null</code>
@@ -193,9 +209,7 @@ public class Point2d implements Serializable, Comparable<Point2d> {
      * @return The geometric median of a discrete set of sample points.
      */
     public static Point2d geometricMedian(Point2d[] pts) {
-        double[] weights = new double[pts.length];
-        ArrayUtils.fill(weights, 1);
-        return geometricMedian(pts, weights);
+        return geometricMedian(pts, null);
     }
 
     /**
@@ -205,84 +219,69 @@ public class Point2d implements Serializable, Comparable<Point2d> {
      * sample points. It is also known as the Fermat–Weber point or 1-median.
      * <p>
      * This method calculates an approximation to the geometric median using
-     * Weiszfeld's algorithm.
+     * Weiszfeld's algorithm, see {@link GeometricMedian}.
      *
      * @param pts The set of sample points.
-     * @param weights The weight of each point.
+     * @param weights The weight of each point or {@code null} for equal
+     *                weights.
      *
      * @return The geometric median of a discrete set of sample points.
      */
     public static Point2d geometricMedian(Point2d[] pts, double[] weights) {
-        // Step 1:
+        double[] coords = new double[2 * pts.length];
         for (int i = 0; i < pts.length; i++) {
-            int result = weiszfeldTestOptimum(pts, weights, i);
-            if (result != -1) {
-                return pts[i];
-            }
+            coords[2*i] = pts[i].x;
+            coords[2*i+1] = pts[i].y;
         }
-
-        // Step 2:
-        Point2d x = centerOfMass(pts, weights);
-
-        // Step 3+4:
-        double e0, e1;
-        double epsilon = 0.000001;
-        double hyperbolaE = 0.001;
-        Point2d xNew = new Point2d();
-        int iterations = 0;
-
-        do {
-            double xt = 0;
-            double yt = 0;
-            double id = 0;
-            for (int i = 0; i < pts.length; i++) {
-                double dist = x.distance(pts[i]);
-                xt += weights[i] * (pts[i].x / dist);
-                yt += weights[i] * (pts[i].y / dist);
-                id += weights[i] * (1 / dist);
-            }
-            xNew.x = xt / id;
-            xNew.y = yt / id;
-
-            e0 = weiszfeldDistanceSum(pts, x, hyperbolaE);
-            e1 = weiszfeldDistanceSum(pts, xNew, hyperbolaE);
-            if (e1 >= e0) break;
-            if (((e0 - e1) / e0) < epsilon) break;
-
-            x.x = xNew.x;
-            x.y = xNew.y;
-            iterations++;
-
-        } while (iterations <= 100);
-
-        return x;
+        double[] result = new double[2];
+        if (!geometricMedian(coords, weights, pts.length, result)) {
+            return null;
+        }
+        return new Point2d(result[0], result[1]);
     }
 
-    private static double weiszfeldDistanceSum(Point2d[] pts, Point2d x, double epsilon) {
-        double sum = 0;
-        for (int i = 0; i < pts.length; i++) {
-            sum += Math.sqrt((x.x - pts[i].x) * (x.x - pts[i].x) + (x.y - pts[i].y) * (x.y - pts[i].y) + epsilon);
-        }
-        return sum;
+    /**
+     * Calculate the geometric median of a discrete set of sample points
+     * given by primitive values, see {@link #geometricMedian(Point2d[], double[])}.
+     * <p>
+     * Does not allocate any memory.
+     *
+     * @param pts The coordinates of the sample points as pairs (x, y).
+     * @param weights The weight of each point or {@code null} for equal
+     *                weights.
+     * @param n The number of sample points.
+     * @param result The geometric median (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if there are no points.
+     */
+    public static boolean geometricMedian(double[] pts, double[] weights,
+            int n, double[] result) {
+        return GeometricMedian.compute(pts, weights, n, result);
     }
 
-    private static int weiszfeldTestOptimum(Point2d[] pts, double[] weights, int i) {
-        double result;
-        double sumX = 0;
-        double sumY = 0;
-        for (int m = 0; m < pts.length; m++) {
-            if (m != i) {
-                double dist = pts[i].distance(pts[m]);
-                // hack: test if distance is zero => same point (continue)
-                if (dist == 0) {
-                    continue;
-                }
-                sumX += weights[m] * ((pts[i].x - pts[m].x) / dist);
-                sumY += weights[m] * ((pts[i].y - pts[m].y) / dist);
-            }
+    /**
+     * Calculate the geometric median of a discrete set of sample points
+     * given by primitive values, starting the iteration at a known
+     * approximation, e.g. the median of a previous, similar set of points.
+     * <p>
+     * Does not allocate any memory.
+     *
+     * @param pts The coordinates of the sample points as pairs (x, y).
+     * @param weights The weight of each point or {@code null} for equal
+     *                weights.
+     * @param n The number of sample points.
+     * @param start The start of the iteration or {@code null} to start at
+     *              the weighted centroid.
+     * @param result The geometric median (x, y), at least 2 long.
+     *
+     * @return {@code true} on success; {@code false} if there are no points.
+     */
+    public static boolean geometricMedian(double[] pts, double[] weights,
+            int n, Point2d start, double[] result) {
+        if (start == null) {
+            return GeometricMedian.compute(pts, weights, n, result);
         }
-        result = Math.sqrt((sumX * sumX) + (sumY * sumY));
-        return (result <= weights[i]) ? i : -1;
+        return GeometricMedian.compute(pts, weights, n, start.x, start.y, result);
     }
-    
+
 }
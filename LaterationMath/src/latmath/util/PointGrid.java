@@ -0,0 +1,123 @@
+package latmath.util;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid (spatial hash) over points given as coordinate pairs in a
+ * primitive array for fast fixed-radius neighbor queries.
+ * <p>
+ * The cell size equals the query radius, so all neighbors of a point are
+ * found in the 3x3 cells around its cell. Building the grid and each query
+ * take time linear in the number of points resp. neighbors.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class PointGrid {
+
+    /** The points as pairs (x, y) */
+    private final double[] pts;
+
+    /** The number of points */
+    private final int num;
+
+    /** The query radius */
+    private final double radius;
+
+    /** The (slightly enlarged) cell size */
+    private final double cell;
+
+    /** Origin of the grid */
+    private final double minX;
+    private final double minY;
+
+    /** Cell coordinates of the points */
+    private final long[] cx;
+    private final long[] cy;
+
+    /** Hash table: first point per bucket and next point in same bucket */
+    private final int[] head;
+    private final int[] next;
+    private final int mask;
+
+    /**
+     * Creates a new grid over the given points.
+     *
+     * @param pts The points as pairs (x, y).
+     * @param num The number of points.
+     * @param radius The query radius, must be positive.
+     *
+     * @throws IllegalArgumentException If the radius is not positive.
+     */
+    public PointGrid(double[] pts, int num, double radius) {
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("radius must be positive");
+        }
+        this.pts = pts;
+        this.num = num;
+        this.radius = radius;
+        // enlarge cells a bit, so rounding cannot move neighbors further
+        // apart than one cell
+        this.cell = radius * (1 + 1e-9);
+        double mx = Double.POSITIVE_INFINITY;
+        double my = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < num; i++) {
+            mx = Math.min(mx, pts[2*i]);
+            my = Math.min(my, pts[2*i+1]);
+        }
+        this.minX = mx;
+        this.minY = my;
+        int size = Integer.highestOneBit(Math.max(2 * num, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.head = new int[size];
+        this.next = new int[num];
+        this.cx = new long[num];
+        this.cy = new long[num];
+        Arrays.fill(head, -1);
+        for (int i = 0; i < num; i++) {
+            cx[i] = (long) Math.floor((pts[2*i] - minX) / cell);
+            cy[i] = (long) Math.floor((pts[2*i+1] - minY) / cell);
+            int h = hash(cx[i], cy[i]);
+            next[i] = head[h];
+            head[h] = i;
+        }
+    }
+
+    private int hash(long x, long y) {
+        long h = x * 0x9E3779B97F4A7C15L + y * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Counts the other points which are closer than the query radius to
+     * the given point.
+     *
+     * @param i The index of the point.
+     * @param limit Stop counting when this number is reached.
+     *
+     * @return The number of points <code>j != i</code> with
+     *         <code>distance(i, j) &lt; radius</code>, at most
+     *         <code>limit</code>.
+     */
+    public int countNeighbors(int i, int limit) {
+        double px = pts[2*i];
+        double py = pts[2*i+1];
+        int count = 0;
+        for (long x = cx[i] - 1; x <= cx[i] + 1; x++) {
+            for (long y = cy[i] - 1; y <= cy[i] + 1; y++) {
+                for (int j = head[hash(x, y)]; j >= 0; j = next[j]) {
+                    if (j == i || cx[j] != x || cy[j] != y) {
+                        continue;
+                    }
+                    double dx = px - pts[2*j];
+                    double dy = py - pts[2*j+1];
+                    if (Math.sqrt(dx*dx + dy*dy) < radius && ++count >= limit) {
+                        return count;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+}
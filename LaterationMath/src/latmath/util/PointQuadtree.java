@@ -0,0 +1,247 @@
+package latmath.util;
+
+import java.util.Arrays;
+
+/**
+ * Quadtree over points given as coordinate pairs in a primitive array for
+ * approximating the sum of distances from one point to all other points.
+ * <p>
+ * Every node stores the centroid, the second moments and the radius of the
+ * smallest circle around the centroid containing its points. The distances
+ * to the points of a node which is far enough away are approximated by a
+ * second order Taylor expansion around the centroid (Barnes-Hut
+ * approximation with quadrupole correction; the first order terms cancel
+ * out at the centroid). A node with radius <code>rho</code> at distance
+ * <code>D</code> is approximated if <code>rho &lt;= theta * (D - rho)</code>,
+ * which limits the relative error of the whole sum to
+ * <code>theta^3 / 2</code>. Each query visits roughly
+ * <code>O(log P / theta^2)</code> nodes for P points.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class PointQuadtree {
+
+    /** Maximum number of points in a leaf */
+    private static final int LEAF_SIZE = 8;
+
+    /** Maximum depth of the tree */
+    private static final int MAX_DEPTH = 48;
+
+    /** The points as pairs (x, y) */
+    private final double[] pts;
+
+    /** Point indices ordered by node */
+    private final int[] idx;
+
+    /** Per node: range of point indices, first child and number of children */
+    private int[] start;
+    private int[] end;
+    private int[] child;
+    private int[] childCount;
+
+    /** Per node: centroid, second moments and radius around centroid */
+    private double[] cx;
+    private double[] cy;
+    private double[] sxx;
+    private double[] sxy;
+    private double[] syy;
+    private double[] rho;
+
+    /** Number of nodes, the root is node zero */
+    private int nodes;
+
+    /** Node stack for queries */
+    private int[] stack;
+
+    /**
+     * Creates a new quadtree over the given points.
+     *
+     * @param pts The points as pairs (x, y).
+     * @param num The number of points.
+     */
+    public PointQuadtree(double[] pts, int num) {
+        this.pts = pts;
+        this.idx = new int[num];
+        for (int i = 0; i < num; i++) {
+            idx[i] = i;
+        }
+        int capacity = Math.max(2 * num / LEAF_SIZE + 1, 16);
+        start = new int[capacity];
+        end = new int[capacity];
+        child = new int[capacity];
+        childCount = new int[capacity];
+        cx = new double[capacity];
+        cy = new double[capacity];
+        sxx = new double[capacity];
+        sxy = new double[capacity];
+        syy = new double[capacity];
+        rho = new double[capacity];
+        stack = new int[64];
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < num; i++) {
+            x0 = Math.min(x0, pts[2*i]);
+            y0 = Math.min(y0, pts[2*i+1]);
+            x1 = Math.max(x1, pts[2*i]);
+            y1 = Math.max(y1, pts[2*i+1]);
+        }
+        if (num > 0) {
+            build(newNode(0, num), x0, y0, x1, y1, 0);
+        }
+    }
+
+    private int newNode(int from, int to) {
+        if (nodes == start.length) {
+            int capacity = 2 * nodes;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            child = Arrays.copyOf(child, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            cx = Arrays.copyOf(cx, capacity);
+            cy = Arrays.copyOf(cy, capacity);
+            sxx = Arrays.copyOf(sxx, capacity);
+            sxy = Arrays.copyOf(sxy, capacity);
+            syy = Arrays.copyOf(syy, capacity);
+            rho = Arrays.copyOf(rho, capacity);
+        }
+        start[nodes] = from;
+        end[nodes] = to;
+        childCount[nodes] = 0;
+        return nodes++;
+    }
+
+    private void build(int node, double x0, double y0, double x1, double y1,
+            int depth) {
+        int from = start[node];
+        int to = end[node];
+        double sx = 0, sy = 0;
+        for (int k = from; k < to; k++) {
+            sx += pts[2*idx[k]];
+            sy += pts[2*idx[k]+1];
+        }
+        double mx = sx / (to - from);
+        double my = sy / (to - from);
+        double r = 0;
+        double xx = 0, xy = 0, yy = 0;
+        for (int k = from; k < to; k++) {
+            double dx = pts[2*idx[k]] - mx;
+            double dy = pts[2*idx[k]+1] - my;
+            xx += dx*dx;
+            xy += dx*dy;
+            yy += dy*dy;
+            r = Math.max(r, Math.sqrt(dx*dx + dy*dy));
+        }
+        cx[node] = mx;
+        cy[node] = my;
+        sxx[node] = xx;
+        sxy[node] = xy;
+        syy[node] = yy;
+        rho[node] = r;
+        if (to - from <= LEAF_SIZE || depth >= MAX_DEPTH || r == 0) {
+            return;
+        }
+
+        // split into quadrants: first by x, then both halves by y
+        double midX = (x0 + x1) / 2;
+        double midY = (y0 + y1) / 2;
+        int splitX = partition(from, to, 0, midX);
+        int splitY0 = partition(from, splitX, 1, midY);
+        int splitY1 = partition(splitX, to, 1, midY);
+        int[] bounds = {from, splitY0, splitX, splitY1, to};
+        int first = nodes;
+        int count = 0;
+        for (int q = 0; q < 4; q++) {
+            if (bounds[q] < bounds[q+1]) {
+                newNode(bounds[q], bounds[q+1]);
+                count++;
+            }
+        }
+        child[node] = first;
+        childCount[node] = count;
+        int c = first;
+        for (int q = 0; q < 4; q++) {
+            if (bounds[q] < bounds[q+1]) {
+                boolean right = q >= 2;
+                boolean top = (q & 1) == 1;
+                build(c++, right ? midX : x0, top ? midY : y0,
+                        right ? x1 : midX, top ? y1 : midY, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Moves the points with coordinate below the split value to the front.
+     *
+     * @return The index of the first point not below the split value.
+     */
+    private int partition(int from, int to, int axis, double split) {
+        int i = from;
+        int j = to - 1;
+        while (i <= j) {
+            if (pts[2*idx[i]+axis] < split) {
+                i++;
+            } else {
+                int t = idx[i];
+                idx[i] = idx[j];
+                idx[j--] = t;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns the approximated sum of the distances from the given point to
+     * all other points.
+     *
+     * @param i The index of the point.
+     * @param theta The accuracy parameter, the relative error of the sum is
+     *              at most <code>theta^3 / 2</code>; zero gives the exact sum.
+     *
+     * @return The approximated sum of distances.
+     */
+    public double sumOfDistances(int i, double theta) {
+        if (nodes == 0) {
+            return 0;
+        }
+        double px = pts[2*i];
+        double py = pts[2*i+1];
+        double sum = 0;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            double dx = px - cx[node];
+            double dy = py - cy[node];
+            double d = Math.sqrt(dx*dx + dy*dy);
+            double r = rho[node];
+            if (d > r && r <= theta * (d - r)) {
+                // |p - q| ~ d - u.(q - c) + (|q - c|^2 - (u.(q - c))^2) / 2d
+                // with u = (p - c) / d, the linear terms sum up to zero
+                double ux = dx / d;
+                double uy = dy / d;
+                double proj = ux*ux*sxx[node] + 2*ux*uy*sxy[node] + uy*uy*syy[node];
+                sum += (end[node] - start[node]) * d
+                        + (sxx[node] + syy[node] - proj) / (2*d);
+            } else if (childCount[node] == 0) {
+                for (int k = start[node]; k < end[node]; k++) {
+                    int j = idx[k];
+                    if (j != i) {
+                        dx = px - pts[2*j];
+                        dy = py - pts[2*j+1];
+                        sum += Math.sqrt(dx*dx + dy*dy);
+                    }
+                }
+            } else {
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                for (int c = 0; c < childCount[node]; c++) {
+                    stack[top++] = child[node] + c;
+                }
+            }
+        }
+        return sum;
+    }
+
+}
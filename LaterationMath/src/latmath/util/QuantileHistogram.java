@@ -0,0 +1,296 @@
+package latmath.util;
+
+import java.io.Serializable;
+
+/**
+ * Mergeable histogram with bounded relative error for quantile queries on
+ * a stream of non-negative values.
+ * <p>
+ * Values are counted in log-linear buckets (HDR-style): every power of two
+ * is divided into {@code 2^precision} buckets of equal width, so the
+ * relative error of a reported quantile is at most {@code 2^-precision}.
+ * Only the range of buckets actually hit is allocated, i.e. the memory
+ * does not depend on the number of values. Values below {@code 2^-40} are
+ * counted as zero. Minimum, maximum and mean are tracked exactly.
+ * <p>
+ * Histograms of the same precision can be merged, e.g. per-thread
+ * histograms or histograms of separate evaluation runs.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public class QuantileHistogram implements Serializable {
+
+    /** serial version UID */
+    private static final long serialVersionUID = 1L;
+
+    /** Default precision: 128 buckets per power of two (< 0.8% error) */
+    public static final int DEFAULT_PRECISION = 7;
+
+    /** Smallest exponent with own buckets, smaller values count as zero */
+    private static final int MIN_EXPONENT = -40;
+
+    /** Number of sub-bucket bits per power of two */
+    private final int precision;
+
+    /** Bucket counts, counts[0] is bucket number offset */
+    private long[] counts;
+    private int offset;
+
+    /** Number of zero, non-finite and all values */
+    private long zeroCount;
+    private long infiniteCount;
+    private long count;
+
+    /** Exact minimum, maximum and sum of the finite values */
+    private double min;
+    private double max;
+    private double sum;
+
+    /**
+     * Creates a new histogram with the default precision.
+     */
+    public QuantileHistogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param precision The number of buckets per power of two as power
+     *                  of two, between 1 and 16.
+     *
+     * @throws IllegalArgumentException If the precision is out of range.
+     */
+    public QuantileHistogram(int precision) {
+        if (precision < 1 || precision > 16) {
+            throw new IllegalArgumentException("precision must be between 1 and 16");
+        }
+        this.precision = precision;
+        reset();
+    }
+
+    /**
+     * Creates a copy of the given histogram.
+     *
+     * @param other The histogram to be copied.
+     */
+    public QuantileHistogram(QuantileHistogram other) {
+        this(other.precision);
+        merge(other);
+    }
+
+    /**
+     * Removes all values from this histogram.
+     */
+    public final void reset() {
+        counts = null;
+        offset = 0;
+        zeroCount = infiniteCount = count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        sum = 0;
+    }
+
+    /**
+     * Returns the precision of this histogram.
+     *
+     * @return The number of buckets per power of two as power of two.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds a value to this histogram.
+     * <p>
+     * Infinite and NaN values are counted as larger than all other values.
+     *
+     * @param value The value, must not be negative.
+     *
+     * @throws IllegalArgumentException If the value is negative.
+     */
+    public void add(double value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("negative value: " + value);
+        }
+        count++;
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            infiniteCount++;
+            return;
+        }
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        sum += value;
+        int index = index(value);
+        if (index < 0) {
+            zeroCount++;
+            return;
+        }
+        ensureBucket(index);
+        counts[index - offset]++;
+    }
+
+    /**
+     * Adds all values of another histogram to this histogram.
+     *
+     * @param other The histogram to be added.
+     *
+     * @throws IllegalArgumentException If the precisions differ.
+     */
+    public void merge(QuantileHistogram other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("histogram precisions differ");
+        }
+        if (other.counts != null) {
+            ensureBucket(other.offset);
+            ensureBucket(other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        infiniteCount += other.infiniteCount;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sum += other.sum;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return The smallest value or {@code 0} if empty.
+     */
+    public double getMin() {
+        if (count == infiniteCount) {
+            return count > 0 ? Double.POSITIVE_INFINITY : 0;
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return The largest value or {@code 0} if empty.
+     */
+    public double getMax() {
+        if (infiniteCount > 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return count > 0 ? max : 0;
+    }
+
+    /**
+     * Returns the mean of all finite values.
+     *
+     * @return The mean or {@code 0} if there are no finite values.
+     */
+    public double getMean() {
+        long finite = count - infiniteCount;
+        return finite > 0 ? sum / finite : 0;
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * @param p The percentile between 0 and 100, e.g. {@code 99}.
+     *
+     * @return The value at the given percentile.
+     */
+    public double getPercentile(double p) {
+        return getQuantile(p / 100);
+    }
+
+    /**
+     * Returns the value at the given quantile, i.e. the (approximated)
+     * smallest value which is greater or equal to the fraction
+     * <code>q</code> of all values.
+     *
+     * @param q The quantile between 0 and 1, e.g. {@code 0.5} for the median.
+     *
+     * @return The value at the given quantile or {@code 0} if empty.
+     *
+     * @throws IllegalArgumentException If the quantile is out of range.
+     */
+    public double getQuantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(q * count), 1);
+        if (rank > count - infiniteCount) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (rank == count - infiniteCount) {
+            return max;
+        }
+        long seen = zeroCount;
+        if (seen >= rank) {
+            return min;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double v = (lowerBound(offset + i) + lowerBound(offset + i + 1)) / 2;
+                return Math.max(min, Math.min(max, v));
+            }
+        }
+        return max;
+    }
+
+    private int index(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int exponent = (int) ((bits >>> 52) & 0x7ff) - 1023;
+        if (exponent < MIN_EXPONENT) {
+            return -1;
+        }
+        int mantissa = (int) ((bits & 0xfffffffffffffL) >>> (52 - precision));
+        return ((exponent - MIN_EXPONENT) << precision) | mantissa;
+    }
+
+    private double lowerBound(int index) {
+        int exponent = (index >>> precision) + MIN_EXPONENT;
+        int mantissa = index & ((1 << precision) - 1);
+        return Math.scalb(1.0 + Math.scalb((double) mantissa, -precision), exponent);
+    }
+
+    private void ensureBucket(int index) {
+        if (counts == null) {
+            int size = 1 << precision;
+            offset = Math.max(index - size / 2, 0);
+            counts = new long[size];
+        }
+        if (index >= offset && index < offset + counts.length) {
+            return;
+        }
+        int from = Math.min(offset, index);
+        int to = Math.max(offset + counts.length, index + 1);
+        int slack = (to - from) / 2;
+        if (index < offset) {
+            from = Math.max(from - slack, 0);
+        } else {
+            to += slack;
+        }
+        long[] tmp = new long[to - from];
+        System.arraycopy(counts, 0, tmp, offset - from, counts.length);
+        counts = tmp;
+        offset = from;
+    }
+
+}
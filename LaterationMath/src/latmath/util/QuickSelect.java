@@ -16,6 +16,23 @@ public class QuickSelect {
         return a[k-1];
     }
 
+    /**
+     * Selects the k-th smallest of the first <code>n</code> values of the
+     * given array without boxing them.
+     * <p>
+     * The first <code>n</code> values of the array are reordered, see
+     * {@link Selection} for more primitive selection methods.
+     *
+     * @param a The values.
+     * @param n The number of values to be considered.
+     * @param k The rank of the value to be selected, starting with 1.
+     *
+     * @return The k-th smallest value.
+     */
+    public static double select(double[] a, int n, int k) {
+        return Selection.select(a, n, k);
+    }
+
     @SuppressWarnings("empty-statement")
     private static void select(Comparable[] a, int low, int high, int k) {
         if (low + CUTOFF > high) {
@@ -1,25 +1,32 @@
 package latmath.util;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
 /**
  * Utility methods for class loading and object instantiation.
  *
- * @version 1.0, 2012-02-25
+ * @version 1.1, 2026-10-16
  * @author  Thomas Hillebrandt <t.hillebrandt@t-online.de>
  * @since   LatMath 1.0
  */
 public final class ReflectionUtils {
 
+    /** Resource directory of the build-time index of releasable classes */
+    public static final String INDEX_PATH = "META-INF/services";
+
     private ReflectionUtils() {}
 
     /**
@@ -70,6 +77,77 @@ public final class ReflectionUtils {
         }
     }
 
+    /**
+     * Returns all releasable classes of the given base class.
+     * <p>
+     * The classes are looked up in the index written at build time by
+     * {@link ReleasableIndex}, so only the listed classes are loaded. If no
+     * index is available (e.g. when running from an IDE build), the package
+     * <code>latmath</code> is scanned as by
+     * {@link #getClasses(String, Class)}.
+     *
+     * @param baseClass The base class of all classes.
+     *
+     * @return The classes found (may be none).
+     */
+    public static Class<?>[] getReleasableClasses(Class<?> baseClass) {
+        String[] names = getReleasableClassNames(baseClass);
+        if (names == null) {
+            return getClasses("latmath", baseClass);
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ArrayList<Class<?>> classes = new ArrayList<>(names.length);
+        for (String name : names) {
+            try {
+                Class<?> clazz = Class.forName(name, true, classLoader);
+                if (isValidByBaseClass(clazz, baseClass)) {
+                    classes.add(clazz);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {}
+        }
+        return classes.toArray(new Class<?>[classes.size()]);
+    }
+
+    /**
+     * Returns the names of all releasable classes of the given base class
+     * as listed in the build-time index, without loading any of them.
+     *
+     * @param baseClass The base class of all classes.
+     *
+     * @return The class names or <code>null</code> if no index is
+     *         available for the given base class.
+     */
+    public static String[] getReleasableClassNames(Class<?> baseClass) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        assert classLoader != null;
+        Set<String> names = new LinkedHashSet<>();
+        boolean found = false;
+        try {
+            Enumeration<URL> resources = classLoader.getResources(
+                    INDEX_PATH + "/" + baseClass.getName());
+            while (resources.hasMoreElements()) {
+                found = true;
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                        resources.nextElement().openStream(), "UTF-8"))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        int comment = line.indexOf('#');
+                        if (comment >= 0) {
+                            line = line.substring(0, comment);
+                        }
+                        line = line.trim();
+                        if (!line.isEmpty()) {
+                            names.add(line);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return found ? names.toArray(new String[names.size()]) : null;
+    }
+
     /**
      * Test if given class is valid by means of base class.
      *
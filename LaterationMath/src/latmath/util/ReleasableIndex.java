@@ -0,0 +1,72 @@
+package latmath.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Build-time generator of the index of {@link Releasable} classes.
+ * <p>
+ * For every given base class a <code>ServiceLoader</code>-style descriptor
+ * <code>META-INF/services/&lt;base class name&gt;</code> is written which
+ * lists the names of all releasable implementations in package
+ * <code>latmath</code>, one per line. At runtime
+ * {@link ReflectionUtils#getReleasableClasses(Class)} reads these files
+ * instead of scanning the classpath.
+ * <p>
+ * Called by the Ant build after compilation:
+ * <pre>
+ * java latmath.util.ReleasableIndex &lt;output dir&gt; &lt;base class&gt;...
+ * </pre>
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class ReleasableIndex {
+
+    private ReleasableIndex() {}
+
+    /**
+     * Writes the index files.
+     *
+     * @param args The output directory followed by the fully qualified
+     *             names of the base classes.
+     *
+     * @throws ClassNotFoundException If a base class cannot be found.
+     * @throws IOException If an index file cannot be written.
+     */
+    public static void main(String[] args)
+            throws ClassNotFoundException, IOException {
+        if (args.length < 2) {
+            System.err.println("usage: ReleasableIndex <output dir> <base class>...");
+            System.exit(1);
+        }
+        File dir = new File(args[0], ReflectionUtils.INDEX_PATH);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create directory " + dir);
+        }
+        for (int i = 1; i < args.length; i++) {
+            Class<?> baseClass = Class.forName(args[i]);
+            Class<?>[] classes = ReflectionUtils.getClasses("latmath", baseClass);
+            String[] names = new String[classes.length];
+            for (int j = 0; j < names.length; j++) {
+                names[j] = classes[j].getName();
+            }
+            Arrays.sort(names);
+            File file = new File(dir, baseClass.getName());
+            try (Writer out = new OutputStreamWriter(
+                    new FileOutputStream(file), "UTF-8")) {
+                out.write("# Generated by latmath.util.ReleasableIndex, do not edit\n");
+                for (String name : names) {
+                    out.write(name);
+                    out.write('\n');
+                }
+            }
+            System.out.println(file + ": " + names.length + " classes");
+        }
+    }
+
+}
@@ -0,0 +1,333 @@
+package latmath.util;
+
+import java.util.Arrays;
+
+/**
+ * Selection of order statistics (k-th smallest values, medians and
+ * quantiles) of primitive double values without boxing.
+ * <p>
+ * Selection uses introselect: quickselect with median-of-three pivots which
+ * falls back to sorting if the partitions do not shrink fast enough, so the
+ * expected time is linear and the worst case is <code>O(n log n)</code>.
+ * The in-place methods reorder the first <code>n</code> values; the methods
+ * with a work buffer leave the values unchanged.
+ * <p>
+ * Ranks start with 1 as in {@link QuickSelect}. The median of n values is the
+ * value with rank <code>n/2+1</code>, i.e. the upper median for even n, and
+ * the q-quantile is the value with rank <code>floor(q*n)+1</code> (at most
+ * n). NaN values are ordered behind all other values as by
+ * {@link Double#compareTo(Double)} and {@link QuickSelect}, the weighted
+ * median does not support them.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class Selection {
+
+    /** Ranges up to this size are sorted by insertion sort */
+    private static final int CUTOFF = 10;
+
+    private Selection() {}
+
+    /**
+     * Selects the k-th smallest of the first <code>n</code> values in place.
+     *
+     * @param a The values, the first <code>n</code> values are reordered.
+     * @param n The number of values.
+     * @param k The rank of the value to be selected, starting with 1.
+     *
+     * @return The k-th smallest value.
+     *
+     * @throws IllegalArgumentException If the rank is not between 1 and n.
+     */
+    public static double select(double[] a, int n, int k) {
+        if (k < 1 || k > n) {
+            throw new IllegalArgumentException("rank " + k + " not in [1, " + n + "]");
+        }
+        int m = moveNaNsBack(a, n);
+        if (k > m) {
+            return Double.NaN;
+        }
+        select(a, 0, m - 1, k - 1);
+        return a[k-1];
+    }
+
+    /**
+     * Selects the k-th smallest of the first <code>n</code> values without
+     * changing them.
+     *
+     * @param a The values.
+     * @param n The number of values.
+     * @param k The rank of the value to be selected, starting with 1.
+     * @param work A buffer of at least <code>n</code> values or {@code null},
+     *             then a buffer is allocated.
+     *
+     * @return The k-th smallest value.
+     *
+     * @throws IllegalArgumentException If the rank is not between 1 and n.
+     */
+    public static double select(double[] a, int n, int k, double[] work) {
+        return select(copy(a, n, work), n, k);
+    }
+
+    /**
+     * Selects the median of the first <code>n</code> values in place.
+     *
+     * @param a The values, the first <code>n</code> values are reordered.
+     * @param n The number of values, must be positive.
+     *
+     * @return The median, i.e. the value with rank <code>n/2+1</code>.
+     */
+    public static double median(double[] a, int n) {
+        return select(a, n, n/2 + 1);
+    }
+
+    /**
+     * Selects the median of the first <code>n</code> values without
+     * changing them.
+     *
+     * @param a The values.
+     * @param n The number of values, must be positive.
+     * @param work A buffer of at least <code>n</code> values or {@code null},
+     *             then a buffer is allocated.
+     *
+     * @return The median, i.e. the value with rank <code>n/2+1</code>.
+     */
+    public static double median(double[] a, int n, double[] work) {
+        return select(a, n, n/2 + 1, work);
+    }
+
+    /**
+     * Returns the rank of the q-quantile of <code>n</code> values.
+     *
+     * @param q The quantile between 0 and 1.
+     * @param n The number of values.
+     *
+     * @return The rank <code>floor(q*n)+1</code>, limited to
+     *         <code>[1, n]</code>.
+     */
+    public static int quantileRank(double q, int n) {
+        int k = (int) Math.floor(q * n) + 1;
+        return Math.max(1, Math.min(n, k));
+    }
+
+    /**
+     * Selects several quantiles of the first <code>n</code> values in place
+     * at once, which is faster than selecting them one by one.
+     *
+     * @param a The values, the first <code>n</code> values are reordered.
+     * @param n The number of values, must be positive.
+     * @param q The quantiles between 0 and 1 in ascending order.
+     * @param result The selected values, same length as <code>q</code>.
+     *
+     * @throws IllegalArgumentException If the quantiles are not in
+     *         ascending order.
+     */
+    public static void quantiles(double[] a, int n, double[] q,
+            double[] result) {
+        if (n < 1) {
+            throw new IllegalArgumentException("no values");
+        }
+        for (int i = 1; i < q.length; i++) {
+            if (q[i] < q[i-1]) {
+                throw new IllegalArgumentException("quantiles not ascending");
+            }
+        }
+        int m = moveNaNsBack(a, n);
+        int to = 0;
+        while (to < q.length && quantileRank(q[to], n) <= m) {
+            to++;
+        }
+        quantiles(a, 0, m - 1, n, q, 0, to);
+        for (int i = 0; i < q.length; i++) {
+            result[i] = a[quantileRank(q[i], n) - 1];
+        }
+    }
+
+    /**
+     * Selects the weighted median of the first <code>n</code> values in
+     * place, i.e. the smallest value for which the values up to and
+     * including it have at least half of the total weight. For equal weights
+     * this is the lower median.
+     *
+     * @param a The values, the first <code>n</code> values are reordered.
+     * @param w The non-negative weights, reordered together with the values.
+     * @param n The number of values, must be positive.
+     *
+     * @return The weighted median.
+     */
+    public static double weightedMedian(double[] a, double[] w, int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("no values");
+        }
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += w[i];
+        }
+        double half = total / 2;
+        double below = 0;
+        int lo = 0;
+        int hi = n - 1;
+        while (lo < hi) {
+            int middle = (lo + hi) >>> 1;
+            double pivot = medianOfThree(a[lo], a[middle], a[hi]);
+
+            // three-way partition: [lo, lt) < pivot, [lt, gt] == pivot
+            int lt = lo, i = lo, gt = hi;
+            double wl = 0, we = 0;
+            while (i <= gt) {
+                if (a[i] < pivot) {
+                    wl += w[i];
+                    swap(a, w, lt++, i++);
+                } else if (a[i] > pivot) {
+                    swap(a, w, i, gt--);
+                } else {
+                    we += w[i++];
+                }
+            }
+            if (below + wl >= half) {
+                hi = lt - 1;
+            } else if (below + wl + we >= half) {
+                return pivot;
+            } else {
+                below += wl + we;
+                lo = gt + 1;
+            }
+        }
+        return a[lo];
+    }
+
+    /**
+     * Moves the value with the given index in sorted order to that index,
+     * smaller values before and larger values behind it.
+     */
+    @SuppressWarnings("empty-statement")
+    private static void select(double[] a, int low, int high, int index) {
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(high - low + 1));
+        while (low + CUTOFF <= high) {
+            if (depth-- == 0) {
+                // partitions are too unbalanced
+                Arrays.sort(a, low, high + 1);
+                return;
+            }
+
+            // Sort low, middle, high
+            int middle = (low + high) >>> 1;
+            if (a[middle] < a[low]) {
+                swap(a, low, middle);
+            }
+            if (a[high] < a[low]) {
+                swap(a, low, high);
+            }
+            if (a[high] < a[middle]) {
+                swap(a, middle, high);
+            }
+
+            // Place pivot at position high - 1
+            swap(a, middle, high - 1);
+            double pivot = a[high - 1];
+
+            // Begin partitioning
+            int i, j;
+            for (i = low, j = high - 1;;) {
+                while (a[++i] < pivot);
+                while (pivot < a[--j]);
+                if (i >= j) {
+                    break;
+                }
+                swap(a, i, j);
+            }
+
+            // Restore pivot
+            swap(a, i, high - 1);
+
+            // Continue with the relevant sub-array
+            if (index < i) {
+                high = i - 1;
+            } else if (index > i) {
+                low = i + 1;
+            } else {
+                return;
+            }
+        }
+        insertionSort(a, low, high);
+    }
+
+    /**
+     * Places the values of the quantiles <code>q[from..to)</code> in the
+     * range <code>[low, high]</code> of the <code>n</code> values.
+     */
+    private static void quantiles(double[] a, int low, int high, int n,
+            double[] q, int from, int to) {
+        if (from >= to || low >= high) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int index = quantileRank(q[mid], n) - 1;
+        select(a, low, high, index);
+        int left = mid;
+        while (left > from && quantileRank(q[left-1], n) - 1 == index) {
+            left--;
+        }
+        int right = mid + 1;
+        while (right < to && quantileRank(q[right], n) - 1 == index) {
+            right++;
+        }
+        quantiles(a, low, index - 1, n, q, from, left);
+        quantiles(a, index + 1, high, n, q, right, to);
+    }
+
+    /**
+     * Moves the NaN values behind all other values of the first
+     * <code>n</code> values.
+     *
+     * @return The number of values which are not NaN.
+     */
+    private static int moveNaNsBack(double[] a, int n) {
+        int m = n;
+        for (int i = n - 1; i >= 0; i--) {
+            if (Double.isNaN(a[i])) {
+                swap(a, i, --m);
+            }
+        }
+        return m;
+    }
+
+    private static double[] copy(double[] a, int n, double[] work) {
+        if (work == null || work.length < n) {
+            work = new double[n];
+        }
+        System.arraycopy(a, 0, work, 0, n);
+        return work;
+    }
+
+    private static double medianOfThree(double x, double y, double z) {
+        if (x < y) {
+            return y < z ? y : (x < z ? z : x);
+        }
+        return x < z ? x : (y < z ? z : y);
+    }
+
+    private static void swap(double[] a, int index1, int index2) {
+        double tmp = a[index1];
+        a[index1] = a[index2];
+        a[index2] = tmp;
+    }
+
+    private static void swap(double[] a, double[] w, int index1, int index2) {
+        swap(a, index1, index2);
+        swap(w, index1, index2);
+    }
+
+    private static void insertionSort(double[] a, int low, int high) {
+        for (int p = low + 1; p <= high; p++) {
+            double tmp = a[p];
+            int j;
+            for (j = p; j > low && tmp < a[j - 1]; j--) {
+                a[j] = a[j - 1];
+            }
+            a[j] = tmp;
+        }
+    }
+
+}
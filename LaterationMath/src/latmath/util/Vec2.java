@@ -0,0 +1,103 @@
+package latmath.util;
+
+/**
+ * A mutable two dimensional column vector for the fixed-size solvers, see
+ * {@link Mat2}.
+ * <p>
+ * All operations work in place and allocate no memory, so short-lived
+ * instances are candidates for scalar replacement by the JIT compiler.
+ *
+ * @version 1.0, 2026-10-16
+ * @since   LatMath 1.0
+ */
+public final class Vec2 {
+
+    /** The first component */
+    public double x;
+
+    /** The second component */
+    public double y;
+
+    /**
+     * Creates a new zero vector.
+     */
+    public Vec2() {
+    }
+
+    /**
+     * Creates a new vector with the given components.
+     *
+     * @param x The first component.
+     * @param y The second component.
+     */
+    public Vec2(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Sets the components.
+     *
+     * @param x The first component.
+     * @param y The second component.
+     *
+     * @return This vector.
+     */
+    public Vec2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Sets both components to zero.
+     *
+     * @return This vector.
+     */
+    public Vec2 setZero() {
+        x = 0;
+        y = 0;
+        return this;
+    }
+
+    /**
+     * Adds a scaled vector: <code>this += s * (x, y)</code>.
+     *
+     * @param s The scale factor.
+     * @param x The first component of the vector.
+     * @param y The second component of the vector.
+     *
+     * @return This vector.
+     */
+    public Vec2 addScaled(double s, double x, double y) {
+        this.x += s * x;
+        this.y += s * y;
+        return this;
+    }
+
+    /**
+     * Returns the dot product with another vector.
+     *
+     * @param v The other vector.
+     *
+     * @return The dot product.
+     */
+    public double dot(Vec2 v) {
+        return x * v.x + y * v.y;
+    }
+
+    /**
+     * Returns the Euclidean length of this vector.
+     *
+     * @return The Euclidean length.
+     */
+    public double length() {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+
+}
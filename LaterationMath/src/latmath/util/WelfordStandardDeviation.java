@@ -36,6 +36,32 @@ public class WelfordStandardDeviation extends StandardDeviation {
         this.S += (sample - M_old) * (sample - this.M);
     }
 
+    /**
+     * Adds all samples of another instance (parallel variant of Welford's
+     * method by Chan et al.).
+     *
+     * @param other The samples to be added.
+     */
+    public void merge(WelfordStandardDeviation other) {
+        if (other.count == 0) {
+            return;
+        }
+        int total = this.count + other.count;
+        double delta = other.M - this.M;
+        this.M += delta * other.count / total;
+        this.S += other.S + delta * delta * ((double) this.count * other.count / total);
+        this.count = total;
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return The number of samples.
+     */
+    public int count() {
+        return this.count;
+    }
+
     @Override
     public double mean() {
         return this.M;
@@ -19,8 +19,8 @@ public final class WeigherCollection {
     
     static {
         weighers = new ArrayList<>();
-        Class[] classes = ReflectionUtils.getClasses("latmath", Weighable.class);
-        for (Class clazz : classes) {
+        Class<?>[] classes = ReflectionUtils.getReleasableClasses(Weighable.class);
+        for (Class<?> clazz : classes) {
             weighers.add((Weighable)ReflectionUtils.createObjectFromClass(clazz));
         }
         Collections.sort(weighers, new WeighableComparator());